@@ -0,0 +1,74 @@
+package benchmark;
+
+import ai.eval.Evaluator;
+import model.Board;
+import model.BoardFactory.BoardFactory;
+import model.BoardFactory.BoardFactoryImpl;
+import model.BoardFactory.BoardTest.BoardFactoryLadyTest;
+import model.bitboard.BitBoard;
+import model.bitboard.MoveList;
+import model.enums.PlayerColor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the static evaluation called at each leaf of the search (it must not allocate, see the gc profiler).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EvaluationBenchmark {
+
+    /**
+     * Number of plies played from the start to get the middle game position.
+     */
+    private static final int MIDDLE_GAME_PLIES = 20;
+
+    @Param({"initial", "middle-game", "lady-test"})
+    private String positionName;
+
+    private BitBoard position;
+
+    private final Evaluator standard = Evaluator.standard();
+
+    private final Evaluator simple = Evaluator.simple();
+
+    @Setup
+    public void setUp() {
+        BoardFactory factory = positionName.equals("lady-test") ? new BoardFactoryLadyTest() : new BoardFactoryImpl();
+        Board board = new Board(factory);
+        if (positionName.equals("middle-game")) {
+            PlayerColor pColor = PlayerColor.WHITE;
+            for (int i = 0; i < MIDDLE_GAME_PLIES; i++) {
+                MoveList moves = board.generateLegalMoves(pColor);
+                board.makeMove(moves.get(i % moves.size()));
+                pColor = pColor == PlayerColor.WHITE ? PlayerColor.BLACK : PlayerColor.WHITE;
+            }
+        }
+        position = new BitBoard(board.getPosition());
+    }
+
+    @Benchmark
+    public int standard() {
+        return standard.evaluate(position, PlayerColor.WHITE);
+    }
+
+    @Benchmark
+    public int simple() {
+        return simple.evaluate(position, PlayerColor.WHITE);
+    }
+}
@@ -0,0 +1,129 @@
+package benchmark;
+
+import model.Board;
+import model.BoardFactory.BoardFactory;
+import model.BoardFactory.BoardFactoryImpl;
+import model.BoardFactory.BoardTest.BoardFactoryLadyTest;
+import model.BoardFactory.BoardTest.BoardFactoryMultipleChoiceRaid;
+import model.Case;
+import model.bitboard.BitBoard;
+import model.bitboard.Move;
+import model.bitboard.MoveGenerator;
+import model.bitboard.MoveList;
+import model.enums.MovementType;
+import model.enums.PlayerColor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the rules called on each click of a player, on a set of positions.
+ * Every benchmark leaves the board as it found it, so they can be repeated on the same position.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RulesBenchmark {
+
+    /**
+     * Number of plies played from the start to get the middle game position.
+     */
+    private static final int MIDDLE_GAME_PLIES = 20;
+
+    @Param({"initial", "middle-game", "lady-test", "multiple-choice-raid"})
+    private String positionName;
+
+    private Board board;
+
+    /**
+     * Player to move.
+     */
+    private PlayerColor pColor;
+
+    /**
+     * A move of the player to move (a single take if any), played and undone by {@link #makeMove()}.
+     */
+    private long move;
+
+    /**
+     * Start tile of {@link #move}.
+     */
+    private Case selected;
+
+    private final MoveList moves = new MoveList();
+
+    @Setup
+    public void setUp() {
+        board = new Board(factory(positionName));
+        pColor = PlayerColor.WHITE;
+        if (positionName.equals("middle-game")) {
+            for (int i = 0; i < MIDDLE_GAME_PLIES; i++) {
+                MoveList legalMoves = board.generateLegalMoves(pColor);
+                board.makeMove(legalMoves.get(i % legalMoves.size()));
+                pColor = pColor == PlayerColor.WHITE ? PlayerColor.BLACK : PlayerColor.WHITE;
+            }
+        }
+        board.computeConstraint(pColor);
+
+        MoveList legalMoves = board.generateLegalMoves(pColor);
+        move = legalMoves.get(0);
+        for (int i = 0; i < legalMoves.size(); i++) {
+            long m = legalMoves.get(i);
+            if (board.getPosition().between(Move.from(m), Move.to(m)) == Move.taken(m)) {
+                move = m;
+                break;
+            }
+        }
+        int from = Move.from(move);
+        selected = board.getCase(BitBoard.posXOf(from), BitBoard.posYOf(from));
+    }
+
+    @Benchmark
+    public boolean computeConstraint() {
+        return board.computeConstraint(pColor);
+    }
+
+    @Benchmark
+    public MovementType computeSelected() {
+        return board.computeSelected(pColor, selected.getPosX(), selected.getPosY());
+    }
+
+    @Benchmark
+    public long computeReachable() {
+        return board.getPosition().reachable(Move.from(move), Move.isCapture(move));
+    }
+
+    @Benchmark
+    public int generateMoves() {
+        MoveGenerator.generate(board.getPosition(), pColor, moves);
+        return moves.size();
+    }
+
+    @Benchmark
+    public long makeMove() {
+        board.makeMove(move);
+        board.unmakeMove();
+        return board.getPosition().getKey();
+    }
+
+    private static BoardFactory factory(String name) {
+        return switch (name) {
+            case "lady-test" -> new BoardFactoryLadyTest();
+            case "multiple-choice-raid" -> new BoardFactoryMultipleChoiceRaid();
+            default -> new BoardFactoryImpl();
+        };
+    }
+}
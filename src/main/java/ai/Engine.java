@@ -0,0 +1,353 @@
+package ai;
+
+import ai.eval.Evaluator;
+import model.bitboard.BitBoard;
+import model.bitboard.MoveGenerator;
+import model.bitboard.MoveList;
+import model.enums.PlayerColor;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Search engine to play a move. It is an iterative deepening alpha-beta (negamax) search, with move ordering (best
+ * move of the previous iteration, takes, killer moves and history) and a budget of time and nodes per move. With more
+ * than one thread, the search is split between the threads of a fork/join pool (see {@link Searcher}).
+ */
+public class Engine {
+
+    /**
+     * Score of a won position (minus the distance to the win).
+     */
+    public static final int WIN = 100_000;
+
+    /**
+     * Maximum depth of the search (with the take extensions).
+     */
+    public static final int MAX_PLY = 128;
+
+    static final int INFINITY = 1_000_000;
+
+    /**
+     * Default size of the transposition table (2^18 buckets, 8 MB).
+     */
+    private static final int DEFAULT_TABLE_BITS = 18;
+
+    /**
+     * Time budget for a move (in milliseconds, 0 for no limit).
+     */
+    private final long timeBudget;
+
+    /**
+     * Node budget for a move (0 for no limit).
+     */
+    private final long nodeBudget;
+
+    /**
+     * Maximum depth of the iterative deepening.
+     */
+    private final int maxDepth;
+
+    /**
+     * Number of threads of the search.
+     */
+    private final int threads;
+
+    /**
+     * Pool of the search threads (null for a single thread search).
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Cache of the searched positions, shared by all the threads.
+     */
+    private final TranspositionTable table;
+
+    /**
+     * Endgame tablebase, giving the exact score of the positions with few pieces (null if there is none).
+     */
+    private Tablebase tablebase;
+
+    /**
+     * Static evaluation of the leaves of the search.
+     */
+    private Evaluator evaluator = Evaluator.standard();
+
+    /**
+     * History score of the moves (indexed by from * 50 + to), shared by all the searchers.
+     */
+    private final int[] history = new int[BitBoard.SIZE * BitBoard.SIZE];
+
+    /**
+     * Nodes visited by the current search.
+     */
+    private final AtomicLong nodes = new AtomicLong();
+
+    /**
+     * Nodes visited by each thread during the last search.
+     */
+    private final Map<String, LongAdder> threadNodes = new ConcurrentHashMap<>();
+
+    private volatile long deadline;
+
+    private volatile boolean stopped;
+
+    private long elapsed;
+
+    private int lastDepth;
+
+    private int lastScore;
+
+    /**
+     * Create a single thread engine.
+     * @param timeBudget Time budget for a move (in milliseconds, 0 for no limit).
+     * @param nodeBudget Node budget for a move (0 for no limit).
+     * @param maxDepth Maximum depth of the iterative deepening.
+     */
+    public Engine(long timeBudget, long nodeBudget, int maxDepth) {
+        this(timeBudget, nodeBudget, maxDepth, 1);
+    }
+
+    /**
+     * Create an engine.
+     * @param timeBudget Time budget for a move (in milliseconds, 0 for no limit).
+     * @param nodeBudget Node budget for a move (0 for no limit).
+     * @param maxDepth Maximum depth of the iterative deepening.
+     * @param threads Number of threads of the search.
+     */
+    public Engine(long timeBudget, long nodeBudget, int maxDepth, int threads) {
+        this(timeBudget, nodeBudget, maxDepth, threads, new TranspositionTable(DEFAULT_TABLE_BITS));
+    }
+
+    /**
+     * Create an engine.
+     * @param timeBudget Time budget for a move (in milliseconds, 0 for no limit).
+     * @param nodeBudget Node budget for a move (0 for no limit).
+     * @param maxDepth Maximum depth of the iterative deepening.
+     * @param threads Number of threads of the search.
+     * @param table Cache of the searched positions.
+     */
+    public Engine(long timeBudget, long nodeBudget, int maxDepth, int threads, TranspositionTable table) {
+        this.table = table;
+        this.tablebase = Tablebase.getDefault();
+        this.timeBudget = timeBudget;
+        this.nodeBudget = nodeBudget;
+        this.maxDepth = Math.min(maxDepth, MAX_PLY);
+        this.threads = Math.max(1, threads);
+        this.pool = this.threads > 1 ? new ForkJoinPool(this.threads) : null;
+    }
+
+    /**
+     * Search the best move of a position.
+     * @param root The position (not modified).
+     * @param pColor Color of the player to move.
+     * @param raidSquare The tile of the pawn in raid, or -1.
+     * @return The best move found, or 0 if the player can't move.
+     */
+    public long search(BitBoard root, PlayerColor pColor, int raidSquare) {
+        long start = System.nanoTime();
+        BitBoard position = new BitBoard(root);
+        nodes.set(0);
+        threadNodes.clear();
+        stopped = false;
+        deadline = timeBudget > 0 ? start + timeBudget * 1_000_000 : Long.MAX_VALUE;
+        lastDepth = 0;
+        lastScore = 0;
+        Arrays.fill(history, 0);
+        table.newSearch();
+
+        MoveList rootMoves = new MoveList();
+        MoveGenerator.generate(position, pColor, raidSquare, rootMoves);
+        if (rootMoves.size() <= 1) {
+            elapsed = System.nanoTime() - start;
+            return rootMoves.isEmpty() ? 0 : rootMoves.get(0);
+        }
+
+        long bestMove = rootMoves.get(0);
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            Searcher searcher = new Searcher(this, null, 0);
+            int score = searchRoot(searcher, position, pColor, depth, rootMoves);
+            if (searcher.isAborted()) {
+                // The moves of the partial iteration are fully searched, so the best one can be kept.
+                if (searcher.getBestMove() != 0) {
+                    bestMove = searcher.getBestMove();
+                }
+                break;
+            }
+            bestMove = searcher.getBestMove();
+            lastDepth = depth;
+            lastScore = score;
+            moveToFront(rootMoves, bestMove);
+            if (Math.abs(score) >= WIN - MAX_PLY) {
+                break;
+            }
+        }
+        elapsed = System.nanoTime() - start;
+        return bestMove;
+    }
+
+    private int searchRoot(Searcher searcher, BitBoard position, PlayerColor pColor, int depth, MoveList rootMoves) {
+        if (pool == null) {
+            int score = searcher.searchRoot(position, pColor, depth, rootMoves);
+            searcher.flushNodes();
+            return score;
+        }
+        return pool.invoke(new RecursiveTask<Integer>() {
+            @Override
+            protected Integer compute() {
+                int score = searcher.searchRoot(position, pColor, depth, rootMoves);
+                searcher.flushNodes();
+                return score;
+            }
+        });
+    }
+
+    /**
+     * Convert a tablebase value to a score.
+     * @param value The value (see {@link Tablebase}).
+     * @param ply Ply of the position in the search.
+     * @return The score for the player to move.
+     */
+    static int tablebaseScore(int value, int ply) {
+        if (Tablebase.isWin(value)) {
+            return WIN - ply - Tablebase.distance(value);
+        }
+        if (Tablebase.isLoss(value)) {
+            return -WIN + ply + Tablebase.distance(value);
+        }
+        return 0;
+    }
+
+    private static void moveToFront(MoveList moves, long move) {
+        for (int i = 0; i < moves.size(); i++) {
+            if (moves.get(i) == move) {
+                for (int j = i; j > 0; j--) {
+                    moves.set(j, moves.get(j - 1));
+                }
+                moves.set(0, move);
+                return;
+            }
+        }
+    }
+
+    static PlayerColor opponent(PlayerColor pColor) {
+        return pColor == PlayerColor.WHITE ? PlayerColor.BLACK : PlayerColor.WHITE;
+    }
+
+    boolean isParallel() {
+        return pool != null;
+    }
+
+    TranspositionTable getTable() {
+        return table;
+    }
+
+    Tablebase getTablebase() {
+        return tablebase;
+    }
+
+    /**
+     * Set the endgame tablebase (by default, the one of the system property {@link Tablebase#PROPERTY}).
+     * @param tablebase The tablebase, or null to search without.
+     */
+    public void setTablebase(Tablebase tablebase) {
+        this.tablebase = tablebase;
+    }
+
+    Evaluator getEvaluator() {
+        return evaluator;
+    }
+
+    /**
+     * Set the static evaluation of the positions (by default, {@link Evaluator#standard()}).
+     * @param evaluator The evaluator.
+     */
+    public void setEvaluator(Evaluator evaluator) {
+        this.evaluator = evaluator;
+    }
+
+    int[] getHistory() {
+        return history;
+    }
+
+    /**
+     * Count the nodes visited by a searcher (on the current thread).
+     * @param count The number of nodes.
+     */
+    void addNodes(long count) {
+        nodes.addAndGet(count);
+        threadNodes.computeIfAbsent(Thread.currentThread().getName(), (__) -> new LongAdder()).add(count);
+    }
+
+    /**
+     * Check if the budget of the search is reached (the search is then stopped).
+     * @return If the search must stop.
+     */
+    boolean isOutOfBudget() {
+        if (!stopped && ((nodeBudget > 0 && nodes.get() >= nodeBudget) || System.nanoTime() >= deadline)) {
+            stopped = true;
+        }
+        return stopped;
+    }
+
+    /**
+     * Release the threads of the engine.
+     */
+    public void shutdown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Get the number of nodes visited by the last search.
+     * @return The number of nodes.
+     */
+    public long getNodes() {
+        return nodes.get();
+    }
+
+    /**
+     * Get the number of nodes by second of the last search.
+     * @return The number of nodes by second.
+     */
+    public long getNodesPerSecond() {
+        return elapsed == 0 ? 0 : nodes.get() * 1_000_000_000L / elapsed;
+    }
+
+    /**
+     * Get the number of nodes by second of each thread during the last search.
+     * @return The nodes by second, by thread name.
+     */
+    public Map<String, Long> getNodesPerSecondByThread() {
+        Map<String, Long> result = new TreeMap<>();
+        threadNodes.forEach((name, count) -> result.put(name, elapsed == 0 ? 0 : count.sum() * 1_000_000_000L / elapsed));
+        return result;
+    }
+
+    /**
+     * Get the depth of the last completed iteration of the last search.
+     * @return The depth.
+     */
+    public int getLastDepth() {
+        return lastDepth;
+    }
+
+    /**
+     * Get the score of the last completed iteration of the last search.
+     * @return The score (for the player to move).
+     */
+    public int getLastScore() {
+        return lastScore;
+    }
+}
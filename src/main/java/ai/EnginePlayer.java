@@ -0,0 +1,73 @@
+package ai;
+
+import model.Board;
+import model.AutomatedPlayer;
+import model.enums.PlayerColor;
+
+import java.util.Random;
+
+/**
+ * Player played by the computer, using an {@link Engine} to choose its moves.
+ */
+public class EnginePlayer extends AutomatedPlayer {
+
+    /**
+     * Default time budget for a move (in milliseconds).
+     */
+    public static final long DEFAULT_TIME_BUDGET = 1000;
+
+    /**
+     * The search engine (not serialized, it only holds search tables).
+     */
+    private final transient Engine engine;
+
+    /**
+     * Book of the opening moves, played without search while the position is in the book (null if there is none).
+     */
+    private final transient OpeningBook book;
+
+    /**
+     * Random generator to choose among the moves of the book.
+     */
+    private final transient Random random;
+
+    /**
+     * Create a player with the default engine and the default opening book (see {@link OpeningBook#getDefault()}).
+     * @param name Name of the player.
+     * @param color Color of the player.
+     */
+    public EnginePlayer(String name, PlayerColor color) {
+        this(name, color, new Engine(DEFAULT_TIME_BUDGET, 0, Engine.MAX_PLY), OpeningBook.getDefault(),
+                System.nanoTime());
+    }
+
+    public EnginePlayer(String name, PlayerColor color, Engine engine) {
+        this(name, color, engine, null, 0);
+    }
+
+    public EnginePlayer(String name, PlayerColor color, Engine engine, OpeningBook book, long seed) {
+        super(name, color);
+        this.engine = engine;
+        this.book = book;
+        this.random = new Random(seed);
+    }
+
+    @Override
+    public long chooseMove(Board board) {
+        if (book != null && board.getRaidSquare() == -1) {
+            long move = book.choose(board.getPosition(), getColor(), random);
+            if (move != 0) {
+                return move;
+            }
+        }
+        return engine.search(board.getPosition(), getColor(), board.getRaidSquare());
+    }
+
+    public Engine getEngine() {
+        return engine;
+    }
+
+    public OpeningBook getBook() {
+        return book;
+    }
+}
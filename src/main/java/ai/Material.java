@@ -0,0 +1,178 @@
+package ai;
+
+import model.bitboard.BitBoard;
+import model.enums.CaseType;
+import model.enums.PlayerColor;
+
+/**
+ * Number of pieces of each type of a tablebase slice, and the index of the positions of the slice. The tiles of the
+ * pieces of each type are ranked as a combination of the 50 tiles (so the pieces of a type are not ordered), and the
+ * index is the mixed radix number of the ranks of the white pawns, white ladies, black pawns and black ladies, times
+ * 2 for the player to move. Some indexes are not valid positions (pieces of different types on the same tile, or a
+ * pawn on its promotion line).
+ */
+final class Material {
+
+    /**
+     * Maximum number of pieces of a type.
+     */
+    static final int MAX_COUNT = 8;
+
+    /**
+     * Number of combinations of k tiles among n (indexed by n, k).
+     */
+    private static final long[][] BINOMIALS = new long[BitBoard.SIZE + 1][MAX_COUNT + 1];
+
+    static {
+        for (int n = 0; n <= BitBoard.SIZE; n++) {
+            BINOMIALS[n][0] = 1;
+            for (int k = 1; k <= MAX_COUNT; k++) {
+                BINOMIALS[n][k] = n == 0 ? 0 : BINOMIALS[n - 1][k - 1] + BINOMIALS[n - 1][k];
+            }
+        }
+    }
+
+    final int whitePawns;
+    final int whiteLadies;
+    final int blackPawns;
+    final int blackLadies;
+
+    /**
+     * Number of indexes of the slice.
+     */
+    final long size;
+
+    Material(int whitePawns, int whiteLadies, int blackPawns, int blackLadies) {
+        this.whitePawns = whitePawns;
+        this.whiteLadies = whiteLadies;
+        this.blackPawns = blackPawns;
+        this.blackLadies = blackLadies;
+        this.size = 2 * BINOMIALS[BitBoard.SIZE][whitePawns] * BINOMIALS[BitBoard.SIZE][whiteLadies]
+                * BINOMIALS[BitBoard.SIZE][blackPawns] * BINOMIALS[BitBoard.SIZE][blackLadies];
+    }
+
+    /**
+     * Get the material of a code (see {@link #code()}).
+     * @param code The code.
+     * @return The material.
+     */
+    static Material of(int code) {
+        return new Material(code & 0xFF, (code >>> 8) & 0xFF, (code >>> 16) & 0xFF, code >>> 24);
+    }
+
+    /**
+     * Get the code of the material of a position.
+     * @param position The position.
+     * @return The code.
+     */
+    static int codeOf(BitBoard position) {
+        return codeOf(position.getCount(CaseType.WHITE_PAWN), position.getCount(CaseType.WHITE_LADY),
+                position.getCount(CaseType.BLACK_PAWN), position.getCount(CaseType.BLACK_LADY));
+    }
+
+    static int codeOf(int whitePawns, int whiteLadies, int blackPawns, int blackLadies) {
+        return whitePawns | (whiteLadies << 8) | (blackPawns << 16) | (blackLadies << 24);
+    }
+
+    /**
+     * Get the code of the material (one byte by type of piece).
+     * @return The code.
+     */
+    int code() {
+        return codeOf(whitePawns, whiteLadies, blackPawns, blackLadies);
+    }
+
+    int pieces() {
+        return whitePawns + whiteLadies + blackPawns + blackLadies;
+    }
+
+    int pawns() {
+        return whitePawns + blackPawns;
+    }
+
+    /**
+     * Compute the index of a position of this material.
+     * @param white The white pieces.
+     * @param black The black pieces.
+     * @param ladies The ladies.
+     * @param pColor The player to move.
+     * @return The index.
+     */
+    long index(long white, long black, long ladies, PlayerColor pColor) {
+        long index = rank(white & ~ladies);
+        index = index * BINOMIALS[BitBoard.SIZE][whiteLadies] + rank(white & ladies);
+        index = index * BINOMIALS[BitBoard.SIZE][blackPawns] + rank(black & ~ladies);
+        index = index * BINOMIALS[BitBoard.SIZE][blackLadies] + rank(black & ladies);
+        return index * 2 + (pColor == PlayerColor.BLACK ? 1 : 0);
+    }
+
+    /**
+     * Compute the position of an index.
+     * @param index The index.
+     * @param masks Array filled with the white pieces, the black pieces and the ladies.
+     * @return The player to move, or null if the index is not a valid position.
+     */
+    PlayerColor decode(long index, long[] masks) {
+        PlayerColor pColor = (index & 1) != 0 ? PlayerColor.BLACK : PlayerColor.WHITE;
+        index >>>= 1;
+        long size = BINOMIALS[BitBoard.SIZE][blackLadies];
+        long blackLadyMask = unrank(index % size, blackLadies);
+        index /= size;
+        size = BINOMIALS[BitBoard.SIZE][blackPawns];
+        long blackPawnMask = unrank(index % size, blackPawns);
+        index /= size;
+        size = BINOMIALS[BitBoard.SIZE][whiteLadies];
+        long whiteLadyMask = unrank(index % size, whiteLadies);
+        long whitePawnMask = unrank(index / size, whitePawns);
+
+        long all = whitePawnMask | whiteLadyMask | blackPawnMask | blackLadyMask;
+        if (Long.bitCount(all) != pieces()
+                || (whitePawnMask & BitBoard.WHITE_PROMOTION) != 0 || (blackPawnMask & BitBoard.BLACK_PROMOTION) != 0) {
+            return null;
+        }
+        masks[0] = whitePawnMask | whiteLadyMask;
+        masks[1] = blackPawnMask | blackLadyMask;
+        masks[2] = whiteLadyMask | blackLadyMask;
+        return pColor;
+    }
+
+    /**
+     * Rank a set of tiles among the combinations of the same number of tiles.
+     */
+    private static long rank(long mask) {
+        long rank = 0;
+        for (int k = 1; mask != 0; k++) {
+            rank += BINOMIALS[Long.numberOfTrailingZeros(mask)][k];
+            mask &= mask - 1;
+        }
+        return rank;
+    }
+
+    private static long unrank(long rank, int count) {
+        long mask = 0;
+        int sq = BitBoard.SIZE - 1;
+        for (int k = count; k > 0; k--) {
+            while (BINOMIALS[sq][k] > rank) {
+                sq--;
+            }
+            rank -= BINOMIALS[sq][k];
+            mask |= 1L << sq;
+            sq--;
+        }
+        return mask;
+    }
+
+    /**
+     * Get the name of the material, like {@code 0102} (white pawns, white ladies, black pawns and black ladies), used
+     * as name of the files.
+     * @return The name.
+     */
+    String name() {
+        return "" + whitePawns + whiteLadies + blackPawns + blackLadies;
+    }
+
+    @Override
+    public String toString() {
+        return name();
+    }
+}
@@ -0,0 +1,198 @@
+package ai;
+
+import model.bitboard.BitBoard;
+import model.bitboard.MoveList;
+import model.bitboard.Zobrist;
+import model.enums.PlayerColor;
+import model.io.GameRecord;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+/**
+ * Book of the opening moves, read from a file mapped in memory (it is not copied in the heap, and the pages are shared
+ * by all the processes using the same file). The file is built by {@link OpeningBookBuilder}.
+ * <p>
+ * The file starts with a header of 16 bytes (the magic number {@code JDOB}, the version and the number of records),
+ * followed by records of 16 bytes sorted by hash: the hash of the position (see {@link Zobrist}), the packed move (see
+ * {@link GameRecord}), 2 unused bytes and the weight of the move. All the values are little endian.
+ */
+public class OpeningBook implements Closeable {
+
+    /**
+     * Magic number at the start of the files ("JDOB").
+     */
+    public static final int MAGIC = 0x424F444A;
+
+    public static final int VERSION = 1;
+
+    static final int HEADER_SIZE = 16;
+    static final int RECORD_SIZE = 16;
+
+    /**
+     * System property of the book file used by the automated players.
+     */
+    public static final String PROPERTY = "opening.book";
+
+    /**
+     * Book of the system property, opened the first time it is needed.
+     */
+    private static OpeningBook defaultBook;
+
+    private static boolean isDefaultOpened;
+
+    private final FileChannel channel;
+
+    private final MappedByteBuffer buffer;
+
+    /**
+     * Number of records.
+     */
+    private final int size;
+
+    /**
+     * Open a book file.
+     * @param path The file.
+     * @throws IOException If the file can't be read, or is not a book.
+     */
+    public OpeningBook(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        long length = channel.size();
+        if (length < HEADER_SIZE || length > Integer.MAX_VALUE) {
+            channel.close();
+            throw new IOException("Invalid opening book size " + length);
+        }
+        this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+        this.buffer.order(ByteOrder.LITTLE_ENDIAN);
+        long count = buffer.getLong(8);
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION
+                || count < 0 || HEADER_SIZE + count * RECORD_SIZE != length) {
+            channel.close();
+            throw new IOException("Not an opening book file");
+        }
+        this.size = (int) count;
+    }
+
+    /**
+     * Get the book of the system property {@link #PROPERTY}, if any (it is opened once and shared by all the players).
+     * @return The book, or null if there is no book (or it can't be read).
+     */
+    public static synchronized OpeningBook getDefault() {
+        if (!isDefaultOpened) {
+            isDefaultOpened = true;
+            String path = System.getProperty(PROPERTY);
+            if (path != null) {
+                try {
+                    defaultBook = new OpeningBook(Path.of(path));
+                } catch (IOException e) {
+                    System.err.println("Can't open the opening book " + path + ": " + e.getMessage());
+                }
+            }
+        }
+        return defaultBook;
+    }
+
+    /**
+     * Compute the hash of a position in the book (without pawn in raid).
+     * @param position The position.
+     * @param pColor The player to move.
+     * @return The hash.
+     */
+    public static long keyOf(BitBoard position, PlayerColor pColor) {
+        return position.getKey()
+                ^ Zobrist.side(position.getSideToMove()) ^ Zobrist.side(pColor)
+                ^ Zobrist.raid(position.getRaidSquare());
+    }
+
+    /**
+     * Choose a move of the book at random, in proportion to the weights of the moves.
+     * @param position The position.
+     * @param pColor The player to move.
+     * @param random The random generator.
+     * @return The move (see {@link model.bitboard.Move}), or 0 if the position is not in the book.
+     */
+    public long choose(BitBoard position, PlayerColor pColor, Random random) {
+        long key = keyOf(position, pColor);
+        int first = find(key);
+        long total = 0;
+        int last = first;
+        while (last < size && keyAt(last) == key) {
+            total += weightAt(last);
+            last++;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long chosen = (long) (random.nextDouble() * total);
+        MoveList legalMoves = new MoveList();
+        for (int i = first; i < last; i++) {
+            chosen -= weightAt(i);
+            if (chosen < 0) {
+                return GameRecord.decodeMove(position, pColor, moveAt(i), legalMoves);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Get the number of moves of a position in the book.
+     * @param position The position.
+     * @param pColor The player to move.
+     * @return The number of moves (0 if the position is not in the book).
+     */
+    public int count(BitBoard position, PlayerColor pColor) {
+        long key = keyOf(position, pColor);
+        int i = find(key);
+        int count = 0;
+        while (i + count < size && keyAt(i + count) == key) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Find the first record of a hash (binary search).
+     * @param key The hash.
+     * @return The index of the first record with the hash, or of the first record with a bigger hash.
+     */
+    private int find(long key) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (Long.compareUnsigned(keyAt(middle), key) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private long keyAt(int index) {
+        return buffer.getLong(HEADER_SIZE + index * RECORD_SIZE);
+    }
+
+    private short moveAt(int index) {
+        return buffer.getShort(HEADER_SIZE + index * RECORD_SIZE + 8);
+    }
+
+    private int weightAt(int index) {
+        return buffer.getInt(HEADER_SIZE + index * RECORD_SIZE + 12);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,192 @@
+package ai;
+
+import model.bitboard.BitBoard;
+import model.bitboard.MoveList;
+import model.enums.GameOutcome;
+import model.enums.PlayerColor;
+import model.io.GameRecord;
+import model.io.GameRecordReader;
+import model.io.PdnException;
+import model.io.PdnGame;
+import model.io.PdnReader;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Build an {@link OpeningBook} file from collections of games (PDN files or binary game records). Each move played in
+ * the first plies of the games is counted, with a weight from the result of the game for the player who played it
+ * (2 for a win, 1 for a draw or an unknown result, 0 for a loss).
+ */
+public class OpeningBookBuilder {
+
+    /**
+     * A move played from a position.
+     * @param key The hash of the position (see {@link OpeningBook#keyOf}).
+     * @param move The packed move (see {@link GameRecord}).
+     */
+    private record BookMove(long key, short move) {
+    }
+
+    /**
+     * Number of games and weight of each move.
+     */
+    private final Map<BookMove, int[]> moves = new HashMap<>();
+
+    /**
+     * Number of plies of each game added to the book.
+     */
+    private final int maxPlies;
+
+    private final MoveList legalMoves = new MoveList();
+
+    private long games;
+
+    public OpeningBookBuilder(int maxPlies) {
+        this.maxPlies = maxPlies;
+    }
+
+    /**
+     * Add the first moves of a game.
+     * @param record The game.
+     * @throws IllegalArgumentException If a move of the game is not legal.
+     */
+    public void add(GameRecord record) {
+        BitBoard position = record.getStartPosition();
+        PlayerColor pColor = record.getSideToMove();
+        short[] packedMoves = record.getMoves();
+        int plies = Math.min(maxPlies, packedMoves.length);
+        for (int i = 0; i < plies; i++) {
+            long move = GameRecord.decodeMove(position, pColor, packedMoves[i], legalMoves);
+            if (move == 0) {
+                throw new IllegalArgumentException("Move " + (i + 1) + " of the game is not legal");
+            }
+            int[] stats = moves.computeIfAbsent(new BookMove(OpeningBook.keyOf(position, pColor), packedMoves[i]),
+                    k -> new int[2]);
+            stats[0]++;
+            stats[1] += weightOf(record.getOutcome(), pColor);
+            position.makeMove(move);
+            pColor = pColor == PlayerColor.WHITE ? PlayerColor.BLACK : PlayerColor.WHITE;
+        }
+        games++;
+    }
+
+    private static int weightOf(GameOutcome outcome, PlayerColor pColor) {
+        return switch (outcome) {
+            case WHITE_WIN -> pColor == PlayerColor.WHITE ? 2 : 0;
+            case BLACK_WIN -> pColor == PlayerColor.BLACK ? 2 : 0;
+            case DRAW, UNKNOWN -> 1;
+        };
+    }
+
+    /**
+     * Add the games of a file.
+     * @param path A PDN file (with the {@code .pdn} extension) or a binary game record file.
+     * @throws IOException If the file can't be read.
+     */
+    public void addFile(Path path) throws IOException {
+        if (path.getFileName().toString().toLowerCase().endsWith(".pdn")) {
+            try (var reader = new PdnReader(path)) {
+                while (true) {
+                    PdnGame game;
+                    try {
+                        game = reader.read();
+                    } catch (PdnException e) {
+                        System.err.println(path + ": " + e.getMessage());
+                        continue;
+                    }
+                    if (game == null) {
+                        break;
+                    }
+                    add(game.toRecord());
+                }
+            }
+        } else {
+            try (var reader = new GameRecordReader(path)) {
+                GameRecord record;
+                while ((record = reader.read()) != null) {
+                    add(record);
+                }
+            }
+        }
+    }
+
+    /**
+     * Write the book, sorted by hash of the position.
+     * @param path The book file (replaced if it exists).
+     * @param minGames Minimum number of games a move must be played in to be kept.
+     * @return The number of moves in the book.
+     * @throws IOException If the file can't be written.
+     */
+    public int write(Path path, int minGames) throws IOException {
+        List<Map.Entry<BookMove, int[]>> entries = new ArrayList<>();
+        for (var entry : moves.entrySet()) {
+            if (entry.getValue()[0] >= minGames && entry.getValue()[1] > 0) {
+                entries.add(entry);
+            }
+        }
+        entries.sort(Comparator.<Map.Entry<BookMove, int[]>, Long>comparing(e -> e.getKey().key(), Long::compareUnsigned)
+                .thenComparingInt(e -> e.getKey().move()));
+
+        ByteBuffer buffer = ByteBuffer.allocate(OpeningBook.HEADER_SIZE + entries.size() * OpeningBook.RECORD_SIZE)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(OpeningBook.MAGIC).putInt(OpeningBook.VERSION).putLong(entries.size());
+        for (var entry : entries) {
+            buffer.putLong(entry.getKey().key()).putShort(entry.getKey().move()).putShort((short) 0)
+                    .putInt(entry.getValue()[1]);
+        }
+        buffer.flip();
+        try (var channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        return entries.size();
+    }
+
+    public long getGames() {
+        return games;
+    }
+
+    /**
+     * Options: {@code --plies=20} (number of plies of each game in the book) and {@code --min-games=2} (minimum number
+     * of games of a move).
+     * @param args The book file, the game files and the options.
+     */
+    public static void main(String[] args) throws IOException {
+        int plies = 20;
+        int minGames = 2;
+        List<Path> inputs = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--plies=")) {
+                plies = Integer.parseInt(arg.substring("--plies=".length()));
+            } else if (arg.startsWith("--min-games=")) {
+                minGames = Integer.parseInt(arg.substring("--min-games=".length()));
+            } else {
+                inputs.add(Path.of(arg));
+            }
+        }
+        if (inputs.size() < 2) {
+            System.err.println("Usage: OpeningBookBuilder <book> <game files...> [--plies=20] [--min-games=2]");
+            System.exit(1);
+        }
+        long start = System.nanoTime();
+        OpeningBookBuilder builder = new OpeningBookBuilder(plies);
+        for (Path input : inputs.subList(1, inputs.size())) {
+            builder.addFile(input);
+        }
+        int size = builder.write(inputs.get(0), minGames);
+        long elapsed = (System.nanoTime() - start) / 1_000_000;
+        System.out.printf("%d games, %d moves in the book in %d ms%n", builder.getGames(), size, elapsed);
+    }
+}
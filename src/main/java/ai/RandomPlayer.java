@@ -0,0 +1,32 @@
+package ai;
+
+import model.Board;
+import model.AutomatedPlayer;
+import model.bitboard.MoveList;
+import model.enums.PlayerColor;
+
+import java.util.Random;
+
+/**
+ * Player played by the computer, choosing a random legal move (a baseline to test the engines).
+ */
+public class RandomPlayer extends AutomatedPlayer {
+
+    private final transient Random random;
+
+    /**
+     * Legal moves of the current position (reused for each move).
+     */
+    private final transient MoveList moves = new MoveList();
+
+    public RandomPlayer(String name, PlayerColor color, long seed) {
+        super(name, color);
+        this.random = new Random(seed);
+    }
+
+    @Override
+    public long chooseMove(Board board) {
+        board.generateLegalMoves(getColor(), moves);
+        return moves.isEmpty() ? 0 : moves.get(random.nextInt(moves.size()));
+    }
+}
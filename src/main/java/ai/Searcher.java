@@ -0,0 +1,486 @@
+package ai;
+
+import model.bitboard.BitBoard;
+import model.bitboard.Move;
+import model.bitboard.MoveGenerator;
+import model.bitboard.MoveList;
+import model.enums.PlayerColor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Alpha-beta search of a part of the tree, with its own move lists and killer moves. When the engine is parallel, a
+ * node deep enough is split after its first move (young brothers wait): the other moves are searched by fork/join
+ * tasks, each one with its own copy of the position and its own searcher.
+ */
+class Searcher {
+
+    /**
+     * Minimal remaining depth to split a node between threads.
+     */
+    private static final int SPLIT_DEPTH = 4;
+
+    /**
+     * Number of nodes between two checks of the budget.
+     */
+    private static final int CHECK_INTERVAL = 1024;
+
+    private final Engine engine;
+
+    /**
+     * Split point which created this searcher (null for the main searcher).
+     */
+    private final SplitPoint splitPoint;
+
+    /**
+     * Moves of each ply (created when the ply is reached).
+     */
+    private final MoveList[] moveLists = new MoveList[Engine.MAX_PLY + 1];
+
+    /**
+     * Order score of the moves of each ply.
+     */
+    private final int[][] moveScores = new int[Engine.MAX_PLY + 1][];
+
+    /**
+     * Two killer moves by ply (moves which made a cut in a sibling node).
+     */
+    private final long[][] killers = new long[Engine.MAX_PLY + 1][2];
+
+    /**
+     * Hash of the positions of the current line (indexed by ply), to detect the repetitions.
+     */
+    private final long[] path = new long[Engine.MAX_PLY + 1];
+
+    /**
+     * First ply searched by this searcher (the line before is not known).
+     */
+    private final int firstPly;
+
+    /**
+     * Best move of the last split node.
+     */
+    private long splitBestMove = 0;
+
+    /**
+     * Nodes visited and not yet given to the engine.
+     */
+    private long nodes = 0;
+
+    /**
+     * If the search has been stopped (budget reached or cut of a parent split point).
+     */
+    private boolean aborted = false;
+
+    /**
+     * Best move found by the last root search.
+     */
+    private long bestMove = 0;
+
+    Searcher(Engine engine, SplitPoint splitPoint, int firstPly) {
+        this.engine = engine;
+        this.splitPoint = splitPoint;
+        this.firstPly = firstPly;
+    }
+
+    /**
+     * Search all the moves of the root, in the given order.
+     * @return The score of the best move (see {@link #getBestMove()}).
+     */
+    int searchRoot(BitBoard position, PlayerColor pColor, int depth, MoveList rootMoves) {
+        bestMove = 0;
+        path[0] = position.getKey();
+        int alpha = -Engine.INFINITY;
+        for (int i = 0; i < rootMoves.size(); i++) {
+            long move = rootMoves.get(i);
+            if (i == 1 && engine.isParallel() && depth >= 2) {
+                int score = split(position, pColor, depth, 0, alpha, Engine.INFINITY, alpha, rootMoves, i, true);
+                if (!aborted) {
+                    engine.getTable().store(path[0], score, depth, TranspositionTable.EXACT, bestMove);
+                }
+                return score;
+            }
+            position.makeMove(move);
+            int score = -alphaBeta(position, Engine.opponent(pColor), depth - 1, 1, -Engine.INFINITY, -alpha);
+            position.unmakeMove();
+            if (aborted) {
+                return alpha;
+            }
+            if (score > alpha) {
+                alpha = score;
+                bestMove = move;
+            }
+        }
+        return alpha;
+    }
+
+    int alphaBeta(BitBoard position, PlayerColor pColor, int depth, int ply, int alpha, int beta) {
+        nodes++;
+        if ((nodes % CHECK_INTERVAL) == 0 && checkAbort()) {
+            return 0;
+        }
+        long key = position.getKey();
+        path[ply] = key;
+        if (isRepetition(key, ply)) {
+            return 0;
+        }
+        Tablebase tablebase = engine.getTablebase();
+        if (tablebase != null) {
+            int value = tablebase.probe(position, pColor);
+            if (value != Tablebase.UNKNOWN) {
+                return Engine.tablebaseScore(value, ply);
+            }
+        }
+        boolean constraint = position.constraints(pColor) != 0;
+        if ((depth <= 0 && !constraint) || ply >= Engine.MAX_PLY) {
+            return engine.getEvaluator().evaluate(position, pColor);
+        }
+
+        TranspositionTable table = engine.getTable();
+        long entry = table.probe(key);
+        if (entry != 0 && TranspositionTable.depth(entry) >= depth) {
+            int score = fromTable(TranspositionTable.score(entry), ply);
+            int bound = TranspositionTable.bound(entry);
+            if (bound == TranspositionTable.EXACT
+                    || (bound == TranspositionTable.LOWER && score >= beta)
+                    || (bound == TranspositionTable.UPPER && score <= alpha)) {
+                return score;
+            }
+        }
+
+        MoveList moves = getMoveList(ply);
+        MoveGenerator.generate(position, pColor, moves);
+        if (moves.isEmpty()) {
+            return -Engine.WIN + ply;
+        }
+        scoreMoves(moves, ply, entry);
+
+        int originalAlpha = alpha;
+        int best = -Engine.INFINITY;
+        long bestMove = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            long move = pickNext(moves, ply, i);
+            if (i == 1 && engine.isParallel() && depth >= SPLIT_DEPTH && moves.size() > 2) {
+                best = split(position, pColor, depth, ply, alpha, beta, best, moves, i, false);
+                if (aborted) {
+                    return 0;
+                }
+                if (splitBestMove != 0) {
+                    bestMove = splitBestMove;
+                }
+                break;
+            }
+            position.makeMove(move);
+            int score = -alphaBeta(position, Engine.opponent(pColor), depth - 1, ply + 1, -beta, -alpha);
+            position.unmakeMove();
+            if (aborted) {
+                return 0;
+            }
+            if (score > best) {
+                best = score;
+                bestMove = move;
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) {
+                        storeCut(move, depth, ply);
+                        break;
+                    }
+                }
+            }
+        }
+        int bound = best >= beta ? TranspositionTable.LOWER
+                : best > originalAlpha ? TranspositionTable.EXACT : TranspositionTable.UPPER;
+        table.store(key, toTable(best, ply), depth, bound, bestMove);
+        return best;
+    }
+
+    /**
+     * Check if a position is already in the current line (the line is then a draw). Only the positions of the same
+     * player to move (each two plies) are compared.
+     */
+    private boolean isRepetition(long key, int ply) {
+        for (int p = ply - 2; p >= firstPly; p -= 2) {
+            if (path[p] == key) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Convert a score to store it in the table (the win scores are relative to the stored position).
+     */
+    private static int toTable(int score, int ply) {
+        if (score >= Engine.WIN - Engine.MAX_PLY) {
+            return score + ply;
+        }
+        if (score <= -Engine.WIN + Engine.MAX_PLY) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        if (score >= Engine.WIN - Engine.MAX_PLY) {
+            return score - ply;
+        }
+        if (score <= -Engine.WIN + Engine.MAX_PLY) {
+            return score + ply;
+        }
+        return score;
+    }
+
+    /**
+     * Search the remaining moves of a node in parallel.
+     * @param best Best score of the moves already searched.
+     * @param first Index of the first move to search in parallel.
+     * @param root If the node is the root (the best move is kept).
+     * @return The score of the node.
+     */
+    private int split(BitBoard position, PlayerColor pColor, int depth, int ply, int alpha, int beta, int best,
+                      MoveList moves, int first, boolean root) {
+        SplitPoint sp = new SplitPoint(splitPoint, Math.max(alpha, best), beta);
+        splitBestMove = 0;
+        List<SiblingTask> tasks = new ArrayList<>(moves.size() - first);
+        for (int i = first; i < moves.size(); i++) {
+            long move = root ? moves.get(i) : pickNext(moves, ply, i);
+            BitBoard copy = new BitBoard(position);
+            copy.makeMove(move);
+            tasks.add(new SiblingTask(engine, sp, copy, Engine.opponent(pColor), depth - 1, ply + 1, beta, move));
+        }
+        flushNodes();
+        ForkJoinTask.invokeAll(tasks);
+        for (SiblingTask task : tasks) {
+            int score = task.join();
+            if (task.isAborted()) {
+                continue;
+            }
+            if (score > best) {
+                best = score;
+                splitBestMove = task.move;
+                if (root) {
+                    bestMove = task.move;
+                }
+                if (score >= beta) {
+                    storeCut(task.move, depth, ply);
+                }
+            }
+        }
+        if (checkAbort()) {
+            return 0;
+        }
+        return best;
+    }
+
+    private MoveList getMoveList(int ply) {
+        if (moveLists[ply] == null) {
+            moveLists[ply] = new MoveList();
+            moveScores[ply] = new int[64];
+        }
+        return moveLists[ply];
+    }
+
+    private void scoreMoves(MoveList moves, int ply, long entry) {
+        if (moveScores[ply].length < moves.size()) {
+            moveScores[ply] = new int[moves.size() * 2];
+        }
+        int[] scores = moveScores[ply];
+        int[] history = engine.getHistory();
+        for (int i = 0; i < moves.size(); i++) {
+            long move = moves.get(i);
+            int score;
+            if (TranspositionTable.hasMove(entry) && Move.from(move) == TranspositionTable.from(entry)
+                    && Move.to(move) == TranspositionTable.to(entry)) {
+                score = 2_000_000;
+            } else if (Move.isCapture(move)) {
+                score = 1_000_000 + Long.bitCount(Move.taken(move)) * 1000;
+            } else if (move == killers[ply][0]) {
+                score = 900_000;
+            } else if (move == killers[ply][1]) {
+                score = 800_000;
+            } else {
+                score = history[Move.from(move) * BitBoard.SIZE + Move.to(move)];
+            }
+            if (Move.isPromotion(move)) {
+                score += 500;
+            }
+            scores[i] = score;
+        }
+    }
+
+    /**
+     * Move the best remaining move (following the order score) at a given index and return it.
+     */
+    private long pickNext(MoveList moves, int ply, int index) {
+        int[] scores = moveScores[ply];
+        int best = index;
+        for (int i = index + 1; i < moves.size(); i++) {
+            if (scores[i] > scores[best]) {
+                best = i;
+            }
+        }
+        if (best != index) {
+            long move = moves.get(best);
+            moves.set(best, moves.get(index));
+            moves.set(index, move);
+            int score = scores[best];
+            scores[best] = scores[index];
+            scores[index] = score;
+        }
+        return moves.get(index);
+    }
+
+    /**
+     * Remember a move which made a cut (killer move and history).
+     */
+    private void storeCut(long move, int depth, int ply) {
+        if (Move.isCapture(move)) {
+            return;
+        }
+        if (killers[ply][0] != move) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+        // The history is shared between the threads, a lost update only changes the order of the moves.
+        engine.getHistory()[Move.from(move) * BitBoard.SIZE + Move.to(move)] += depth * depth;
+    }
+
+    /**
+     * Check if the search must stop, and give the visited nodes to the engine.
+     * @return If the search is aborted.
+     */
+    private boolean checkAbort() {
+        flushNodes();
+        if (engine.isOutOfBudget() || (splitPoint != null && splitPoint.isCut())) {
+            aborted = true;
+        }
+        return aborted;
+    }
+
+    void flushNodes() {
+        if (nodes != 0) {
+            engine.addNodes(nodes);
+            nodes = 0;
+        }
+    }
+
+    boolean isAborted() {
+        return aborted;
+    }
+
+    long getBestMove() {
+        return bestMove;
+    }
+
+    /**
+     * Node searched by several threads. The alpha bound is shared to narrow the window of the siblings.
+     */
+    static class SplitPoint {
+
+        private final SplitPoint parent;
+
+        private final AtomicInteger alpha;
+
+        private final int beta;
+
+        private volatile boolean cut = false;
+
+        SplitPoint(SplitPoint parent, int alpha, int beta) {
+            this.parent = parent;
+            this.alpha = new AtomicInteger(alpha);
+            this.beta = beta;
+        }
+
+        int getAlpha() {
+            return alpha.get();
+        }
+
+        /**
+         * Give the score of a searched move.
+         * @param score The score.
+         */
+        void update(int score) {
+            int current = alpha.get();
+            while (score > current && !alpha.compareAndSet(current, score)) {
+                current = alpha.get();
+            }
+            if (score >= beta) {
+                cut = true;
+            }
+        }
+
+        /**
+         * Check if this split point or one of its parents has been cut (so the search is useless).
+         * @return If the split point is cut.
+         */
+        boolean isCut() {
+            for (SplitPoint sp = this; sp != null; sp = sp.parent) {
+                if (sp.cut) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Search of one move of a split point.
+     */
+    static class SiblingTask extends RecursiveTask<Integer> {
+
+        private final Engine engine;
+
+        private final SplitPoint splitPoint;
+
+        private final BitBoard position;
+
+        private final PlayerColor pColor;
+
+        private final int depth;
+
+        private final int ply;
+
+        private final int beta;
+
+        private final long move;
+
+        private boolean aborted = false;
+
+        SiblingTask(Engine engine, SplitPoint splitPoint, BitBoard position, PlayerColor pColor, int depth, int ply,
+                    int beta, long move) {
+            this.engine = engine;
+            this.splitPoint = splitPoint;
+            this.position = position;
+            this.pColor = pColor;
+            this.depth = depth;
+            this.ply = ply;
+            this.beta = beta;
+            this.move = move;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (splitPoint.isCut() || engine.isOutOfBudget()) {
+                aborted = true;
+                return 0;
+            }
+            Searcher searcher = new Searcher(engine, splitPoint, ply);
+            int score = -searcher.alphaBeta(position, pColor, depth, ply, -beta, -splitPoint.getAlpha());
+            searcher.flushNodes();
+            if (searcher.isAborted()) {
+                aborted = true;
+                return 0;
+            }
+            splitPoint.update(score);
+            return score;
+        }
+
+        boolean isAborted() {
+            return aborted;
+        }
+    }
+}
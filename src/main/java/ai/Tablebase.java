@@ -0,0 +1,281 @@
+package ai;
+
+import model.bitboard.BitBoard;
+import model.enums.PlayerColor;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Endgame tablebase: the exact value (win, loss or draw, with the distance to the end of the game) of the positions
+ * with few pieces, built by {@link TablebaseGenerator}. There is one file by material (see {@link Material}), mapped
+ * in memory. The values are stored by blocks compressed with deflate, and a block is decompressed the first time it
+ * is probed (it is kept in memory until the memory is needed).
+ * <p>
+ * The values are for the player to move: 0 is a draw, {@code n + 1} is a win in {@code n} plies and {@code -(n + 1)}
+ * is a loss in {@code n} plies (the end of the game is when the player to move has no piece or can't move).
+ */
+public class Tablebase implements Closeable {
+
+    /**
+     * Value of the positions which are not in the tablebase.
+     */
+    public static final int UNKNOWN = Integer.MIN_VALUE;
+
+    /**
+     * Magic number at the start of the files ("JDTB").
+     */
+    static final int MAGIC = 0x4254444A;
+
+    static final int VERSION = 1;
+
+    /**
+     * Size of the header of the files (followed by the offsets of the blocks).
+     */
+    static final int HEADER_SIZE = 32;
+
+    /**
+     * Number of values by block.
+     */
+    static final int BLOCK_SIZE = 4096;
+
+    /**
+     * Extension of the files.
+     */
+    static final String EXTENSION = ".jdt";
+
+    /**
+     * System property of the tablebase directory used by the engines.
+     */
+    public static final String PROPERTY = "tablebase.dir";
+
+    /**
+     * Tablebase of the system property, opened the first time it is needed.
+     */
+    private static Tablebase defaultTablebase;
+
+    private static boolean isDefaultOpened;
+
+    /**
+     * Slices of the tablebase, by material code.
+     */
+    private final Map<Integer, Slice> slices = new ConcurrentHashMap<>();
+
+    /**
+     * Maximum number of pieces of the slices.
+     */
+    private volatile int maxPieces = 0;
+
+    /**
+     * Open the tablebase files of a directory.
+     * @param directory The directory (created if it doesn't exist).
+     * @throws IOException If a file can't be read.
+     */
+    public Tablebase(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        try (var files = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+            for (Path file : files) {
+                add(file);
+            }
+        }
+    }
+
+    /**
+     * Get the tablebase of the system property {@link #PROPERTY}, if any (it is opened once and shared by all the
+     * engines).
+     * @return The tablebase, or null if there is none (or it can't be read).
+     */
+    public static synchronized Tablebase getDefault() {
+        if (!isDefaultOpened) {
+            isDefaultOpened = true;
+            String path = System.getProperty(PROPERTY);
+            if (path != null) {
+                try {
+                    defaultTablebase = new Tablebase(Path.of(path));
+                } catch (IOException e) {
+                    System.err.println("Can't open the tablebase " + path + ": " + e.getMessage());
+                }
+            }
+        }
+        return defaultTablebase;
+    }
+
+    /**
+     * Add a slice file to the tablebase.
+     * @param file The file.
+     * @throws IOException If the file can't be read.
+     */
+    void add(Path file) throws IOException {
+        Slice slice = new Slice(file);
+        slices.put(slice.material.code(), slice);
+        synchronized (this) {
+            maxPieces = Math.max(maxPieces, slice.material.pieces());
+        }
+    }
+
+    /**
+     * Check if the slice of a material is in the tablebase.
+     * @param material The material.
+     * @return If the slice is there.
+     */
+    boolean contains(Material material) {
+        return slices.containsKey(material.code());
+    }
+
+    /**
+     * Get the value of a position (without pawn in raid).
+     * @param position The position.
+     * @param pColor The player to move.
+     * @return The value for the player to move, or {@link #UNKNOWN} if the position is not in the tablebase.
+     */
+    public int probe(BitBoard position, PlayerColor pColor) {
+        if (position.getPieces(pColor) == 0) {
+            return -1;
+        }
+        long white = position.getWhite();
+        long black = position.getBlack();
+        if (Long.bitCount(white | black) > maxPieces) {
+            return UNKNOWN;
+        }
+        Slice slice = slices.get(Material.codeOf(position));
+        if (slice == null) {
+            return UNKNOWN;
+        }
+        return slice.get(slice.material.index(white, black, position.getLadies(), pColor));
+    }
+
+    public static boolean isWin(int value) {
+        return value > 0 && value != UNKNOWN;
+    }
+
+    public static boolean isLoss(int value) {
+        return value < 0 && value != UNKNOWN;
+    }
+
+    /**
+     * Get the number of plies to the end of the game of a value.
+     * @param value A win or loss value.
+     * @return The number of plies.
+     */
+    public static int distance(int value) {
+        return Math.abs(value) - 1;
+    }
+
+    /**
+     * Get the maximum number of pieces of the positions in the tablebase.
+     * @return The number of pieces.
+     */
+    public int getMaxPieces() {
+        return maxPieces;
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (Slice slice : slices.values()) {
+            slice.channel.close();
+        }
+        slices.clear();
+    }
+
+    /**
+     * Values of the positions of a material, read from a file.
+     */
+    private static class Slice {
+
+        private final Material material;
+
+        private final FileChannel channel;
+
+        private final MappedByteBuffer buffer;
+
+        /**
+         * Offset of each block in the file (and the end of the last block).
+         */
+        private final long[] offsets;
+
+        /**
+         * Decompressed blocks (null if not yet read).
+         */
+        private final AtomicReferenceArray<SoftReference<short[]>> blocks;
+
+        Slice(Path file) throws IOException {
+            channel = FileChannel.open(file, StandardOpenOption.READ);
+            try {
+                long length = channel.size();
+                if (length < HEADER_SIZE || length > Integer.MAX_VALUE) {
+                    throw new IOException("Invalid tablebase file size " + length);
+                }
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+                buffer.order(ByteOrder.LITTLE_ENDIAN);
+                if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                    throw new IOException("Not a tablebase file: " + file);
+                }
+                material = new Material(buffer.get(8), buffer.get(9), buffer.get(10), buffer.get(11));
+                int blockCount = buffer.getInt(20);
+                if (buffer.getLong(12) != material.size || buffer.getInt(24) != BLOCK_SIZE
+                        || blockCount != (int) ((material.size + BLOCK_SIZE - 1) / BLOCK_SIZE)
+                        || HEADER_SIZE + 8L * (blockCount + 1) > length) {
+                    throw new IOException("Invalid tablebase file: " + file);
+                }
+                offsets = new long[blockCount + 1];
+                for (int i = 0; i <= blockCount; i++) {
+                    offsets[i] = buffer.getLong(HEADER_SIZE + 8 * i);
+                }
+                blocks = new AtomicReferenceArray<>(blockCount);
+            } catch (IOException e) {
+                channel.close();
+                throw e;
+            }
+        }
+
+        int get(long index) {
+            int blockIndex = (int) (index / BLOCK_SIZE);
+            SoftReference<short[]> reference = blocks.get(blockIndex);
+            short[] block = reference != null ? reference.get() : null;
+            if (block == null) {
+                block = decompress(blockIndex);
+                blocks.set(blockIndex, new SoftReference<>(block));
+            }
+            return block[(int) (index % BLOCK_SIZE)];
+        }
+
+        private short[] decompress(int blockIndex) {
+            int count = (int) Math.min(BLOCK_SIZE, material.size - (long) blockIndex * BLOCK_SIZE);
+            ByteBuffer values = ByteBuffer.allocate(count * 2).order(ByteOrder.LITTLE_ENDIAN);
+            Inflater inflater = new Inflater();
+            try {
+                inflater.setInput(buffer.slice((int) offsets[blockIndex],
+                        (int) (offsets[blockIndex + 1] - offsets[blockIndex])));
+                while (values.hasRemaining() && !inflater.finished()) {
+                    if (inflater.inflate(values) == 0 && inflater.needsInput()) {
+                        break;
+                    }
+                }
+            } catch (DataFormatException e) {
+                throw new IllegalStateException("Corrupted tablebase " + material + ", block " + blockIndex, e);
+            } finally {
+                inflater.end();
+            }
+            if (values.hasRemaining()) {
+                throw new IllegalStateException("Truncated tablebase " + material + ", block " + blockIndex);
+            }
+            short[] block = new short[count];
+            values.flip();
+            values.asShortBuffer().get(block);
+            return block;
+        }
+    }
+}
@@ -0,0 +1,534 @@
+package ai;
+
+import model.bitboard.BitBoard;
+import model.bitboard.Move;
+import model.bitboard.MoveGenerator;
+import model.bitboard.MoveList;
+import model.enums.CaseType;
+import model.enums.PlayerColor;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.LongStream;
+import java.util.zip.Deflater;
+
+/**
+ * Build the slices of a {@link Tablebase} by retrograde analysis, for all the materials up to a number of pieces.
+ * <p>
+ * A take or a promotion always goes to a slice with less pieces or less pawns, so the slices are built from the
+ * smallest ones, and the slices of the same size are built in parallel. For each slice, a first pass (in parallel)
+ * plays the moves of each position: the moves going to another slice get their value from the tablebase, the other
+ * ones are only counted. Then the values are set by increasing distance to the end of the game, going back from each
+ * solved position to the positions which can reach it with a slide (a loss makes a win for the previous positions, and
+ * a position is lost when all its moves are wins for the opponent). The positions left are draws. Each slice is
+ * written to its file as soon as it is built, and only its file is then used.
+ * <p>
+ * The work arrays of a slice (6 bytes by position) are temporary files mapped in memory, so a slice doesn't have to
+ * fit in the heap: its size is only limited by the disk, and the system keeps in memory the pages being used.
+ */
+public class TablebaseGenerator {
+
+    /**
+     * Value of the positions not yet solved.
+     */
+    private static final short UNSOLVED = Short.MIN_VALUE;
+
+    /**
+     * Number of positions of each task of the first pass.
+     */
+    private static final int CHUNK_SIZE = 1 << 14;
+
+    private final Path directory;
+
+    private final Tablebase tablebase;
+
+    private final int maxPieces;
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Create a generator.
+     * @param directory The directory of the tablebase (the existing slices are kept).
+     * @param maxPieces Maximum number of pieces of the positions.
+     * @param threads Number of threads.
+     * @throws IOException If the existing slices can't be read.
+     */
+    public TablebaseGenerator(Path directory, int maxPieces, int threads) throws IOException {
+        this.directory = directory;
+        this.tablebase = new Tablebase(directory);
+        this.maxPieces = maxPieces;
+        this.pool = new ForkJoinPool(Math.max(1, threads));
+    }
+
+    /**
+     * Build all the missing slices.
+     * @throws IOException If a slice can't be written.
+     */
+    public void generate() throws IOException {
+        // The slices of a level only reach the slices of the previous levels.
+        Map<Integer, List<Material>> levels = new TreeMap<>();
+        for (int pieces = 2; pieces <= maxPieces; pieces++) {
+            for (int whitePawns = 0; whitePawns < pieces; whitePawns++) {
+                for (int whiteLadies = 0; whitePawns + whiteLadies < pieces; whiteLadies++) {
+                    for (int blackPawns = 0; whitePawns + whiteLadies + blackPawns <= pieces; blackPawns++) {
+                        int blackLadies = pieces - whitePawns - whiteLadies - blackPawns;
+                        Material material = new Material(whitePawns, whiteLadies, blackPawns, blackLadies);
+                        if (whitePawns + whiteLadies > 0 && blackPawns + blackLadies > 0
+                                && !tablebase.contains(material)) {
+                            levels.computeIfAbsent(pieces * 2 * Material.MAX_COUNT + material.pawns(),
+                                    k -> new ArrayList<>()).add(material);
+                        }
+                    }
+                }
+            }
+        }
+        try {
+            for (List<Material> level : levels.values()) {
+                pool.submit(() -> level.parallelStream().forEach(this::generate)).get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UncheckedIOException cause) {
+                throw cause.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private void generate(Material material) {
+        long start = System.nanoTime();
+        try (SliceBuilder builder = new SliceBuilder(material)) {
+            builder.build();
+            long length = write(material, builder.values);
+            System.out.printf("%s: %,d positions, %,d wins, %,d losses, longest %d plies, %,d bytes in %d ms%n",
+                    material, builder.positions, builder.wins, builder.losses, builder.longest, length,
+                    (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Write the values of a slice, compressed by blocks.
+     * @return The size of the file.
+     */
+    private long write(Material material, ShortFile values) throws IOException {
+        Path file = directory.resolve(material.name() + Tablebase.EXTENSION);
+        Path temporary = directory.resolve(material.name() + ".tmp");
+        int blockCount = (int) ((material.size + Tablebase.BLOCK_SIZE - 1) / Tablebase.BLOCK_SIZE);
+        ByteBuffer header = ByteBuffer.allocate(Tablebase.HEADER_SIZE + 8 * (blockCount + 1))
+                .order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(Tablebase.MAGIC).putInt(Tablebase.VERSION)
+                .put((byte) material.whitePawns).put((byte) material.whiteLadies)
+                .put((byte) material.blackPawns).put((byte) material.blackLadies)
+                .putLong(material.size).putInt(blockCount).putInt(Tablebase.BLOCK_SIZE)
+                .position(Tablebase.HEADER_SIZE);
+
+        ByteBuffer raw = ByteBuffer.allocate(Tablebase.BLOCK_SIZE * 2).order(ByteOrder.LITTLE_ENDIAN);
+        ByteBuffer compressed = ByteBuffer.allocate(Tablebase.BLOCK_SIZE * 2);
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        long offset = header.capacity();
+        try (var channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.position(offset);
+            for (int block = 0; block < blockCount; block++) {
+                header.putLong(offset);
+                long first = (long) block * Tablebase.BLOCK_SIZE;
+                long end = Math.min(material.size, first + Tablebase.BLOCK_SIZE);
+                raw.clear();
+                for (long index = first; index < end; index++) {
+                    raw.putShort(values.get(index));
+                }
+                raw.flip();
+                deflater.reset();
+                deflater.setInput(raw);
+                deflater.finish();
+                compressed.clear();
+                while (!deflater.finished()) {
+                    if (!compressed.hasRemaining()) {
+                        compressed = ByteBuffer.allocate(compressed.capacity() * 2).put(compressed.flip());
+                    }
+                    deflater.deflate(compressed);
+                }
+                compressed.flip();
+                offset += compressed.remaining();
+                while (compressed.hasRemaining()) {
+                    channel.write(compressed);
+                }
+            }
+            header.putLong(offset).flip();
+            channel.write(header, 0);
+        } finally {
+            deflater.end();
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        tablebase.add(file);
+        return offset;
+    }
+
+    /**
+     * Retrograde analysis of a slice.
+     */
+    private class SliceBuilder implements Closeable {
+
+        private final Material material;
+
+        /**
+         * Value of each position (see {@link Tablebase}), {@link #UNSOLVED} while it is not known.
+         */
+        private final ShortFile values;
+
+        /**
+         * Number of slides to a position of the slice which are not yet solved, -1 if the position has a take (so no
+         * position of the slice can come from it) or is not valid.
+         */
+        private final ShortFile pending;
+
+        /**
+         * Longest distance of the wins of the opponent after the moves solved, -1 if the position can't be lost (one
+         * of its moves is a draw or a loss of the opponent).
+         */
+        private final ShortFile longestWin;
+
+        /**
+         * Positions to solve at each distance (odd distances are wins, even distances are losses).
+         */
+        private final List<LongList> distances = new ArrayList<>();
+
+        private long positions;
+        private long wins;
+        private long losses;
+        private int longest;
+
+        SliceBuilder(Material material) throws IOException {
+            this.material = material;
+            this.values = new ShortFile(directory.resolve(material.name() + ".values"), material.size);
+            this.pending = new ShortFile(directory.resolve(material.name() + ".pending"), material.size);
+            this.longestWin = new ShortFile(directory.resolve(material.name() + ".longest"), material.size);
+        }
+
+        void build() {
+            long chunks = (material.size + CHUNK_SIZE - 1) / CHUNK_SIZE;
+            List<List<LongList>> found = LongStream.range(0, chunks).parallel()
+                    .mapToObj(chunk -> scan(chunk * CHUNK_SIZE, Math.min(material.size, (chunk + 1) * CHUNK_SIZE)))
+                    .toList();
+            for (List<LongList> chunk : found) {
+                for (int distance = 0; distance < chunk.size(); distance++) {
+                    LongList list = chunk.get(distance);
+                    for (int i = 0; i < list.size; i++) {
+                        push(distances, distance, list.values[i]);
+                    }
+                }
+            }
+
+            long[] masks = new long[3];
+            for (int distance = 0; distance < distances.size(); distance++) {
+                LongList list = distances.get(distance);
+                // The positions found while solving this distance are at a bigger distance.
+                for (int k = 0; k < list.size; k++) {
+                    long index = list.values[k];
+                    if (values.get(index) == UNSOLVED) {
+                        values.set(index, (short) (distance % 2 == 1 ? distance + 1 : -(distance + 1)));
+                        if (distance % 2 == 1) {
+                            wins++;
+                        } else {
+                            losses++;
+                        }
+                        longest = distance;
+                        unmove(index, distance, masks);
+                    }
+                }
+                distances.set(distance, null);
+            }
+            for (long index = 0; index < material.size; index++) {
+                if (values.get(index) == UNSOLVED) {
+                    values.set(index, (short) 0);
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try (values; pending; longestWin) {
+                distances.clear();
+            }
+        }
+
+        /**
+         * Play the moves of the positions of a range.
+         * @return The positions solved by the moves going to other slices, by distance.
+         */
+        private List<LongList> scan(long first, long end) {
+            List<LongList> found = new ArrayList<>();
+            BitBoard position = new BitBoard();
+            MoveList moves = new MoveList();
+            long[] masks = new long[3];
+            int code = material.code();
+            long valid = 0;
+            for (long index = first; index < end; index++) {
+                PlayerColor pColor = material.decode(index, masks);
+                if (pColor == null) {
+                    values.set(index, (short) 0);
+                    pending.set(index, (short) -1);
+                    continue;
+                }
+                valid++;
+                values.set(index, UNSOLVED);
+                place(position, masks, false);
+                MoveGenerator.generate(position, pColor, moves);
+                PlayerColor opponent = Engine.opponent(pColor);
+                int slides = 0;
+                int shortestWin = Integer.MAX_VALUE;
+                int longestLoss = 0;
+                boolean canDraw = false;
+                for (int i = 0; i < moves.size(); i++) {
+                    position.makeMove(moves.get(i));
+                    if (Material.codeOf(position) == code) {
+                        slides++;
+                    } else {
+                        int value = tablebase.probe(position, opponent);
+                        if (value == Tablebase.UNKNOWN) {
+                            throw new IllegalStateException("Missing slice for " + Material.codeOf(position));
+                        }
+                        if (value == 0) {
+                            canDraw = true;
+                        } else if (Tablebase.isLoss(value)) {
+                            shortestWin = Math.min(shortestWin, Tablebase.distance(value) + 1);
+                        } else {
+                            longestLoss = Math.max(longestLoss, Tablebase.distance(value) + 1);
+                        }
+                    }
+                    position.unmakeMove();
+                }
+                place(position, masks, true);
+
+                boolean hasTake = !moves.isEmpty() && Move.isCapture(moves.get(0));
+                pending.set(index, (short) (hasTake ? -1 : slides));
+                if (shortestWin != Integer.MAX_VALUE) {
+                    longestWin.set(index, (short) -1);
+                    push(found, shortestWin, index);
+                } else if (canDraw) {
+                    longestWin.set(index, (short) -1);
+                } else {
+                    longestWin.set(index, (short) longestLoss);
+                    if (slides == 0) {
+                        push(found, longestLoss, index);
+                    }
+                }
+            }
+            synchronized (this) {
+                positions += valid;
+            }
+            return found;
+        }
+
+        /**
+         * Go back from a solved position to the positions which can reach it with a slide.
+         */
+        private void unmove(long index, int distance, long[] masks) {
+            PlayerColor pColor = Engine.opponent(material.decode(index, masks));
+            long white = masks[0];
+            long black = masks[1];
+            long ladies = masks[2];
+            long own = pColor == PlayerColor.WHITE ? white : black;
+            long empty = BitBoard.ALL & ~(white | black);
+            int backA = pColor == PlayerColor.WHITE ? BitBoard.BOTTOM_RIGHT : BitBoard.BOTTOM_LEFT;
+            int backB = pColor == PlayerColor.WHITE ? BitBoard.TOP_RIGHT : BitBoard.TOP_LEFT;
+            while (own != 0) {
+                int to = Long.numberOfTrailingZeros(own);
+                own &= own - 1;
+                boolean isLady = (ladies & (1L << to)) != 0;
+                for (int d = 0; d < 4; d++) {
+                    if (!isLady && d != backA && d != backB) {
+                        continue;
+                    }
+                    int from = BitBoard.neighbour(to, d);
+                    while (from != -1 && (empty & (1L << from)) != 0) {
+                        long change = (1L << to) | (1L << from);
+                        long previous = material.index(
+                                pColor == PlayerColor.WHITE ? white ^ change : white,
+                                pColor == PlayerColor.BLACK ? black ^ change : black,
+                                isLady ? ladies ^ change : ladies, pColor);
+                        solved(previous, distance);
+                        if (!isLady) {
+                            break;
+                        }
+                        from = BitBoard.neighbour(from, d);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Count a solved move of a position.
+         * @param index The position.
+         * @param distance The distance of the position reached by the move (for the opponent).
+         */
+        private void solved(long index, int distance) {
+            short left = pending.get(index);
+            if (values.get(index) != UNSOLVED || left < 0) {
+                return;
+            }
+            if (distance % 2 == 0) {
+                longestWin.set(index, (short) -1);
+                push(distances, distance + 1, index);
+                return;
+            }
+            pending.set(index, --left);
+            short longestLoss = longestWin.get(index);
+            if (longestLoss != -1) {
+                longestLoss = (short) Math.max(longestLoss, distance + 1);
+                longestWin.set(index, longestLoss);
+                if (left == 0) {
+                    push(distances, longestLoss, index);
+                }
+            }
+        }
+    }
+
+    /**
+     * Put the pieces of a position on a board, or remove them.
+     * @param position The board.
+     * @param masks The white pieces, the black pieces and the ladies.
+     * @param remove If the pieces are removed.
+     */
+    private static void place(BitBoard position, long[] masks, boolean remove) {
+        long pieces = masks[0] | masks[1];
+        while (pieces != 0) {
+            int sq = Long.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+            long bit = 1L << sq;
+            boolean isLady = (masks[2] & bit) != 0;
+            CaseType type;
+            if (remove) {
+                type = CaseType.EMPTY;
+            } else if ((masks[0] & bit) != 0) {
+                type = isLady ? CaseType.WHITE_LADY : CaseType.WHITE_PAWN;
+            } else {
+                type = isLady ? CaseType.BLACK_LADY : CaseType.BLACK_PAWN;
+            }
+            position.set(sq, type);
+        }
+    }
+
+    private static void push(List<LongList> lists, int distance, long index) {
+        while (lists.size() <= distance) {
+            lists.add(new LongList());
+        }
+        lists.get(distance).add(index);
+    }
+
+    /**
+     * Growable list of longs.
+     */
+    private static class LongList {
+
+        private long[] values = new long[16];
+
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+
+    /**
+     * Array of shorts in a temporary file mapped in memory. The file is deleted when the array is closed.
+     */
+    private static class ShortFile implements Closeable {
+
+        /**
+         * Number of values of each mapped segment (as a power of 2, so 1 GB by segment).
+         */
+        private static final int SEGMENT_SHIFT = 29;
+
+        private static final long SEGMENT_MASK = (1L << SEGMENT_SHIFT) - 1;
+
+        private final FileChannel channel;
+
+        private final ByteBuffer[] segments;
+
+        /**
+         * Create an array of zeros.
+         * @param file The temporary file.
+         * @param size The number of values.
+         * @throws IOException If the file can't be created.
+         */
+        ShortFile(Path file, long size) throws IOException {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE);
+            segments = new ByteBuffer[(int) ((size + SEGMENT_MASK) >>> SEGMENT_SHIFT)];
+            try {
+                for (int i = 0; i < segments.length; i++) {
+                    long first = (long) i << SEGMENT_SHIFT;
+                    long count = Math.min(size - first, 1L << SEGMENT_SHIFT);
+                    segments[i] = channel.map(FileChannel.MapMode.READ_WRITE, first * 2, count * 2)
+                            .order(ByteOrder.nativeOrder());
+                }
+            } catch (IOException e) {
+                channel.close();
+                throw e;
+            }
+        }
+
+        short get(long index) {
+            return segments[(int) (index >>> SEGMENT_SHIFT)].getShort((int) (index & SEGMENT_MASK) << 1);
+        }
+
+        void set(long index, short value) {
+            segments[(int) (index >>> SEGMENT_SHIFT)].putShort((int) (index & SEGMENT_MASK) << 1, value);
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    /**
+     * Options: {@code --pieces=4} (maximum number of pieces) and {@code --threads=<number of processors>}.
+     * @param args The directory of the tablebase and the options.
+     */
+    public static void main(String[] args) throws IOException {
+        int pieces = 4;
+        int threads = Runtime.getRuntime().availableProcessors();
+        Path directory = null;
+        for (String arg : args) {
+            if (arg.startsWith("--pieces=")) {
+                pieces = Integer.parseInt(arg.substring("--pieces=".length()));
+            } else if (arg.startsWith("--threads=")) {
+                threads = Integer.parseInt(arg.substring("--threads=".length()));
+            } else {
+                directory = Path.of(arg);
+            }
+        }
+        if (directory == null || pieces < 2 || pieces > Material.MAX_COUNT) {
+            System.err.println("Usage: TablebaseGenerator <directory> [--pieces=4] [--threads=N]");
+            System.exit(1);
+        }
+        long start = System.nanoTime();
+        new TablebaseGenerator(directory, pieces, threads).generate();
+        System.out.printf("Done in %d s%n", (System.nanoTime() - start) / 1_000_000_000);
+    }
+}
@@ -0,0 +1,164 @@
+package ai;
+
+import model.bitboard.Move;
+
+import java.util.Arrays;
+
+/**
+ * Fixed size cache of searched positions, indexed by their hash. It is stored in two primitive arrays and shared by
+ * all the search threads without lock: each entry keeps its data and the xor of the hash with the data, so an entry
+ * written by two threads at the same time is detected as invalid when read (lockless hashing).
+ * <p>
+ * Each bucket has two entries: the first one keeps the deepest search, the second one is always replaced.
+ * The data of an entry is packed in a long:
+ * <ul>
+ *     <li>bits 0 to 31: score</li>
+ *     <li>bits 32 to 39: depth</li>
+ *     <li>bits 40 to 41: bound type</li>
+ *     <li>bits 42 to 47: start tile of the best move</li>
+ *     <li>bits 48 to 53: destination tile of the best move</li>
+ *     <li>bits 54 to 61: generation (search) of the entry</li>
+ *     <li>bit 63: used entry</li>
+ * </ul>
+ */
+public class TranspositionTable {
+
+    /**
+     * The score is exact.
+     */
+    public static final int EXACT = 0;
+
+    /**
+     * The score is a lower bound (the search made a cut).
+     */
+    public static final int LOWER = 1;
+
+    /**
+     * The score is an upper bound (no move raised alpha).
+     */
+    public static final int UPPER = 2;
+
+    private static final long USED = 1L << 63;
+
+    /**
+     * Hash xor data of each entry.
+     */
+    private final long[] keys;
+
+    /**
+     * Data of each entry.
+     */
+    private final long[] data;
+
+    /**
+     * Mask to get the bucket of a hash.
+     */
+    private final int mask;
+
+    /**
+     * Generation of the current search (older entries are replaced first).
+     */
+    private volatile int generation = 0;
+
+    /**
+     * Create a table.
+     * @param bits Log2 of the number of buckets (each bucket has two entries of 16 bytes).
+     */
+    public TranspositionTable(int bits) {
+        int buckets = 1 << bits;
+        this.keys = new long[buckets * 2];
+        this.data = new long[buckets * 2];
+        this.mask = buckets - 1;
+    }
+
+    /**
+     * Start a new search (the entries of the previous ones become replaceable).
+     */
+    public void newSearch() {
+        generation = (generation + 1) & 0xFF;
+    }
+
+    /**
+     * Remove all the entries.
+     */
+    public void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(data, 0);
+    }
+
+    /**
+     * Look for a position.
+     * @param key Hash of the position.
+     * @return The data of the entry, or 0 if the position is not in the table.
+     */
+    public long probe(long key) {
+        int index = ((int) key & mask) << 1;
+        for (int i = index; i < index + 2; i++) {
+            long d = data[i];
+            if ((keys[i] ^ d) == key && (d & USED) != 0) {
+                return d;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Store the result of a search.
+     * @param key Hash of the position.
+     * @param score Score of the position.
+     * @param depth Depth of the search.
+     * @param bound Type of the score (EXACT, LOWER or UPPER).
+     * @param move Best move (or 0).
+     */
+    public void store(long key, int score, int depth, int bound, long move) {
+        int index = ((int) key & mask) << 1;
+        int gen = generation;
+        long d = (score & 0xFFFFFFFFL)
+                | ((long) Math.max(0, Math.min(depth, 255)) << 32)
+                | ((long) bound << 40)
+                | (move == 0 ? 0 : ((long) Move.from(move) << 42) | ((long) Move.to(move) << 48))
+                | ((long) gen << 54)
+                | USED;
+        long deep = data[index];
+        if ((keys[index] ^ deep) == key || depth(deep) <= depth || generation(deep) != gen) {
+            keys[index] = key ^ d;
+            data[index] = d;
+        } else {
+            keys[index + 1] = key ^ d;
+            data[index + 1] = d;
+        }
+    }
+
+    public static int score(long entry) {
+        return (int) entry;
+    }
+
+    public static int depth(long entry) {
+        return (int) ((entry >>> 32) & 0xFF);
+    }
+
+    public static int bound(long entry) {
+        return (int) ((entry >>> 40) & 0x3);
+    }
+
+    /**
+     * Check if an entry has a best move.
+     * @param entry The entry.
+     * @return If the best move is known.
+     */
+    public static boolean hasMove(long entry) {
+        return from(entry) != to(entry);
+    }
+
+    public static int from(long entry) {
+        return (int) ((entry >>> 42) & 0x3F);
+    }
+
+    public static int to(long entry) {
+        return (int) ((entry >>> 48) & 0x3F);
+    }
+
+    private static int generation(long entry) {
+        return (int) ((entry >>> 54) & 0xFF);
+    }
+}
@@ -0,0 +1,63 @@
+package ai.eval;
+
+import model.bitboard.BitBoard;
+import model.enums.PlayerColor;
+
+/**
+ * Bonus of the pawns by number of lines advanced toward the promotion.
+ * <p>
+ * The bonus of the tiles is stored by bit planes: the plane {@code k} holds the tiles whose bonus has the bit
+ * {@code k}, so the sum of the bonus of the pawns is the sum of {@code bitCount(pawns & plane[k]) << k}, a few bit
+ * counts instead of a loop over the lines.
+ */
+public final class AdvancementTerm implements EvaluationTerm {
+
+    /**
+     * Bit planes of the bonus of the tiles for the white pawns and the black pawns.
+     */
+    private final long[] whitePlanes;
+    private final long[] blackPlanes;
+
+    /**
+     * Create the term.
+     * @param bonus Bonus of a pawn by number of lines advanced from its side (10 positive values, from 0 to 9 lines).
+     */
+    public AdvancementTerm(int[] bonus) {
+        if (bonus.length != 10) {
+            throw new IllegalArgumentException("Expected a bonus for each of the 10 lines");
+        }
+        int max = 0;
+        for (int value : bonus) {
+            if (value < 0) {
+                throw new IllegalArgumentException("Negative advancement bonus " + value);
+            }
+            max = Math.max(max, value);
+        }
+        int planes = 32 - Integer.numberOfLeadingZeros(max);
+        whitePlanes = new long[planes];
+        blackPlanes = new long[planes];
+        // Each line is 5 tiles, the white pawns go to the line 0 and the black ones to the line 9.
+        for (int sq = 0; sq < BitBoard.SIZE; sq++) {
+            int line = sq / 5;
+            for (int k = 0; k < planes; k++) {
+                if ((bonus[9 - line] & (1 << k)) != 0) {
+                    whitePlanes[k] |= 1L << sq;
+                }
+                if ((bonus[line] & (1 << k)) != 0) {
+                    blackPlanes[k] |= 1L << sq;
+                }
+            }
+        }
+    }
+
+    @Override
+    public int score(BitBoard position, PlayerColor pColor) {
+        long whitePawns = position.getWhite() & ~position.getLadies();
+        long blackPawns = position.getBlack() & ~position.getLadies();
+        int score = 0;
+        for (int k = 0; k < whitePlanes.length; k++) {
+            score += (Long.bitCount(whitePawns & whitePlanes[k]) - Long.bitCount(blackPawns & blackPlanes[k])) << k;
+        }
+        return score;
+    }
+}
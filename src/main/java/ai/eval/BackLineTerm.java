@@ -0,0 +1,24 @@
+package ai.eval;
+
+import model.bitboard.BitBoard;
+import model.enums.PlayerColor;
+
+/**
+ * Bonus of the pawns kept on their first line, which guard the promotion tiles of the opponent.
+ */
+public final class BackLineTerm implements EvaluationTerm {
+
+    private final int value;
+
+    public BackLineTerm(int value) {
+        this.value = value;
+    }
+
+    @Override
+    public int score(BitBoard position, PlayerColor pColor) {
+        long pawns = ~position.getLadies();
+        // The first line of a side is the promotion line of the other one.
+        return value * (Long.bitCount(position.getWhite() & pawns & BitBoard.BLACK_PROMOTION)
+                - Long.bitCount(position.getBlack() & pawns & BitBoard.WHITE_PROMOTION));
+    }
+}
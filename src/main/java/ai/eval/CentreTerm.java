@@ -0,0 +1,36 @@
+package ai.eval;
+
+import model.bitboard.BitBoard;
+import model.enums.PlayerColor;
+
+/**
+ * Bonus of the pawns in the centre of the board (the lines 3 to 6, without the two columns of each border).
+ */
+public final class CentreTerm implements EvaluationTerm {
+
+    private static final long CENTRE;
+
+    static {
+        long centre = 0;
+        for (int sq = 0; sq < BitBoard.SIZE; sq++) {
+            int posX = BitBoard.posXOf(sq);
+            int posY = BitBoard.posYOf(sq);
+            if (posX >= 2 && posX <= 7 && posY >= 3 && posY <= 6) {
+                centre |= 1L << sq;
+            }
+        }
+        CENTRE = centre;
+    }
+
+    private final int value;
+
+    public CentreTerm(int value) {
+        this.value = value;
+    }
+
+    @Override
+    public int score(BitBoard position, PlayerColor pColor) {
+        long pawns = CENTRE & ~position.getLadies();
+        return value * (Long.bitCount(position.getWhite() & pawns) - Long.bitCount(position.getBlack() & pawns));
+    }
+}
@@ -0,0 +1,20 @@
+package ai.eval;
+
+import model.bitboard.BitBoard;
+import model.enums.PlayerColor;
+
+/**
+ * A feature of the static evaluation of a position (see {@link Evaluator}). The terms are called at each leaf of the
+ * search, from all the search threads, so they must be stateless and must not allocate: they only work on the masks
+ * and the counts of the position.
+ */
+public interface EvaluationTerm {
+
+    /**
+     * Score the feature in a position.
+     * @param position The position.
+     * @param pColor The player to move.
+     * @return The score for the white player.
+     */
+    int score(BitBoard position, PlayerColor pColor);
+}
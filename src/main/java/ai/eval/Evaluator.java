@@ -0,0 +1,59 @@
+package ai.eval;
+
+import model.bitboard.BitBoard;
+import model.enums.PlayerColor;
+
+/**
+ * Static evaluation of a position, as the sum of the scores of its terms. It holds no state, so it can be shared by
+ * the search threads.
+ */
+public final class Evaluator {
+
+    /**
+     * Bonus of a pawn by line advanced (the same for all the lines).
+     */
+    private static final int[] LINEAR_ADVANCEMENT = {0, 1, 2, 3, 4, 5, 6, 7, 8, 9};
+
+    private final EvaluationTerm[] terms;
+
+    public Evaluator(EvaluationTerm... terms) {
+        this.terms = terms.clone();
+    }
+
+    /**
+     * Create the evaluation used by default by the engines: material, advancement, centre, back line, tempo and
+     * mobility.
+     * @return The evaluator.
+     */
+    public static Evaluator standard() {
+        return new Evaluator(
+                new MaterialTerm(100, 300),
+                new AdvancementTerm(LINEAR_ADVANCEMENT),
+                new CentreTerm(4),
+                new BackLineTerm(5),
+                new TempoTerm(3),
+                new MobilityTerm(1));
+    }
+
+    /**
+     * Create the first evaluation of the engines: only the material and the advancement of the pawns.
+     * @return The evaluator.
+     */
+    public static Evaluator simple() {
+        return new Evaluator(new MaterialTerm(100, 300), new AdvancementTerm(LINEAR_ADVANCEMENT));
+    }
+
+    /**
+     * Evaluate a position.
+     * @param position The position.
+     * @param pColor The player to move.
+     * @return The score for the player to move.
+     */
+    public int evaluate(BitBoard position, PlayerColor pColor) {
+        int score = 0;
+        for (EvaluationTerm term : terms) {
+            score += term.score(position, pColor);
+        }
+        return pColor == PlayerColor.WHITE ? score : -score;
+    }
+}
@@ -0,0 +1,26 @@
+package ai.eval;
+
+import model.bitboard.BitBoard;
+import model.enums.CaseType;
+import model.enums.PlayerColor;
+
+/**
+ * Value of the pieces, from the counts kept by the position.
+ */
+public final class MaterialTerm implements EvaluationTerm {
+
+    private final int pawnValue;
+
+    private final int ladyValue;
+
+    public MaterialTerm(int pawnValue, int ladyValue) {
+        this.pawnValue = pawnValue;
+        this.ladyValue = ladyValue;
+    }
+
+    @Override
+    public int score(BitBoard position, PlayerColor pColor) {
+        return pawnValue * (position.getCount(CaseType.WHITE_PAWN) - position.getCount(CaseType.BLACK_PAWN))
+                + ladyValue * (position.getCount(CaseType.WHITE_LADY) - position.getCount(CaseType.BLACK_LADY));
+    }
+}
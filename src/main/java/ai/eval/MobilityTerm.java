@@ -0,0 +1,54 @@
+package ai.eval;
+
+import model.bitboard.BitBoard;
+import model.enums.PlayerColor;
+
+/**
+ * Bonus by move without take of the pieces (the takes are resolved by the search). The slides of the ladies are
+ * counted by destination tile and direction, so two ladies reaching the same tile count once.
+ */
+public final class MobilityTerm implements EvaluationTerm {
+
+    private final int value;
+
+    public MobilityTerm(int value) {
+        this.value = value;
+    }
+
+    @Override
+    public int score(BitBoard position, PlayerColor pColor) {
+        long white = position.getWhite();
+        long black = position.getBlack();
+        long ladies = position.getLadies();
+        long empty = position.getEmpty();
+        int moves = Long.bitCount(BitBoard.shift(white & ~ladies, BitBoard.TOP_LEFT) & empty)
+                + Long.bitCount(BitBoard.shift(white & ~ladies, BitBoard.BOTTOM_LEFT) & empty)
+                - Long.bitCount(BitBoard.shift(black & ~ladies, BitBoard.TOP_RIGHT) & empty)
+                - Long.bitCount(BitBoard.shift(black & ~ladies, BitBoard.BOTTOM_RIGHT) & empty);
+        if (ladies != 0) {
+            // Each direction is a constant, so the shifts are simple masks once inlined.
+            moves += slides(white & ladies, black & ladies, empty, BitBoard.TOP_LEFT)
+                    + slides(white & ladies, black & ladies, empty, BitBoard.TOP_RIGHT)
+                    + slides(white & ladies, black & ladies, empty, BitBoard.BOTTOM_LEFT)
+                    + slides(white & ladies, black & ladies, empty, BitBoard.BOTTOM_RIGHT);
+        }
+        return value * moves;
+    }
+
+    /**
+     * Count the slides of the ladies in a direction. The slides of all the ladies of a side are filled together, one
+     * step by iteration.
+     * @return The number of white slides minus the number of black slides.
+     */
+    private static int slides(long whiteLadies, long blackLadies, long empty, int direction) {
+        long whiteSlides = 0;
+        long blackSlides = 0;
+        while ((whiteLadies | blackLadies) != 0) {
+            whiteLadies = BitBoard.shift(whiteLadies, direction) & empty;
+            blackLadies = BitBoard.shift(blackLadies, direction) & empty;
+            whiteSlides |= whiteLadies;
+            blackSlides |= blackLadies;
+        }
+        return Long.bitCount(whiteSlides) - Long.bitCount(blackSlides);
+    }
+}
@@ -0,0 +1,21 @@
+package ai.eval;
+
+import model.bitboard.BitBoard;
+import model.enums.PlayerColor;
+
+/**
+ * Bonus of the player to move.
+ */
+public final class TempoTerm implements EvaluationTerm {
+
+    private final int value;
+
+    public TempoTerm(int value) {
+        this.value = value;
+    }
+
+    @Override
+    public int score(BitBoard position, PlayerColor pColor) {
+        return pColor == PlayerColor.WHITE ? value : -value;
+    }
+}
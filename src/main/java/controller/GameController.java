@@ -1,19 +1,36 @@
 package controller;
 
+import ai.EnginePlayer;
+import model.AutomatedPlayer;
 import model.Game;
+import model.Player;
+import model.enums.PlayerColor;
 import view.GameView;
 import view.LaunchView;
 import view.viewListener.GameViewListener;
 import view.viewListener.LaunchViewListener;
 
 import javax.swing.*;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.concurrent.ExecutionException;
 
-public class GameController implements GameViewListener, LaunchViewListener {
+public class GameController implements GameViewListener, LaunchViewListener, PropertyChangeListener {
 
     private Game model;
 
     private final JFrame view = new JFrame();
 
+    /**
+     * Search of the automated player in progress (null if none).
+     */
+    private SwingWorker<Long, Void> search;
+
+    /**
+     * If moves are being undone or redone (the automated players wait the end to play).
+     */
+    private boolean isNavigating = false;
+
     public GameController() {
         LaunchView lv = new LaunchView();
         lv.addListener(this);
@@ -34,24 +51,125 @@ public class GameController implements GameViewListener, LaunchViewListener {
         LaunchView lv = new LaunchView();
         lv.addListener(this);
         this.view.setContentPane(lv);
+        if (this.model != null) {
+            this.model.removePropertyChangeListener(this);
+        }
         this.model = null;
         this.view.revalidate();
     }
 
     @Override
     public void onBoardAction(int posX, int posY) {
-        if (model != null) {
+        if (model != null && !(model.getCurrentPlayer() instanceof AutomatedPlayer)) {
             model.caseAction(posX, posY);
         }
     }
 
     @Override
-    public void onPlayerValidated(String nameP1, String nameP2) {
-        this.model = new Game(nameP1, nameP2);
+    public void onUndo() {
+        navigate(true);
+    }
+
+    @Override
+    public void onRedo() {
+        navigate(false);
+    }
+
+    /**
+     * Undo or redo a move, and then the moves of the automated players (so a human player has the hand again). Nothing
+     * is done while an automated player is searching its move.
+     * @param isUndo If the moves are undone (else they are redone).
+     */
+    private void navigate(boolean isUndo) {
+        if (model == null || (search != null && !search.isDone())) {
+            return;
+        }
+        isNavigating = true;
+        try {
+            boolean isDone = isUndo ? model.undo() : model.redo();
+            while (isDone && model.getCurrentPlayer() instanceof AutomatedPlayer
+                    && (isUndo ? model.canUndo() : model.canRedo())) {
+                isDone = isUndo ? model.undo() : model.redo();
+            }
+        } finally {
+            isNavigating = false;
+        }
+        playAutomatedMove();
+    }
+
+    @Override
+    public void onPlayerValidated(String nameP1, boolean isP1Automated, String nameP2, boolean isP2Automated) {
+        Player black = isP1Automated
+                ? new EnginePlayer(nameP1, PlayerColor.BLACK) : new Player(nameP1, PlayerColor.BLACK);
+        Player white = isP2Automated
+                ? new EnginePlayer(nameP2, PlayerColor.WHITE) : new Player(nameP2, PlayerColor.WHITE);
+        this.model = new Game(black, white);
+        this.model.addPropertyChangeListener(this);
         GameView gv = new GameView(this.model);
         gv.addGameViewListener(this);
         ((LaunchView)this.view.getContentPane()).removeListener(this);
         this.view.setContentPane(gv);
         this.view.revalidate();
+        playAutomatedMove();
+    }
+
+    @Override
+    public void propertyChange(PropertyChangeEvent evt) {
+        if (evt.getPropertyName().equals(Game.PLAYER_CHANGED) && !isNavigating) {
+            playAutomatedMove();
+        }
+    }
+
+    /**
+     * Let the current player play if it is automated. The search is done outside of the Swing thread, and the move is
+     * played back on it.
+     */
+    private void playAutomatedMove() {
+        Game game = this.model;
+        if (game == null || game.isOver() || !(game.getCurrentPlayer() instanceof AutomatedPlayer player)) {
+            return;
+        }
+        search = new SwingWorker<>() {
+            @Override
+            protected Long doInBackground() {
+                return player.chooseMove(game.getBoard());
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    long move = get();
+                    if (model == game && move != 0 && !game.isOver()) {
+                        game.playMove(move);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    onSearchFailed(game, player, e.getCause());
+                }
+            }
+        };
+        search.execute();
+    }
+
+    /**
+     * Report that an automated player failed to choose its move. The game is left as it is: the search can be
+     * started again, or the moves undone.
+     * @param game The game of the search.
+     * @param player The player.
+     * @param cause Why the search failed.
+     */
+    private void onSearchFailed(Game game, AutomatedPlayer player, Throwable cause) {
+        System.err.println("The search of " + player.getName() + " failed:");
+        cause.printStackTrace();
+        if (model != game) {
+            return;
+        }
+        int answer = JOptionPane.showConfirmDialog(view,
+                player.getName() + " could not choose a move (" + cause + ").\nTry again?",
+                "Automated player error", JOptionPane.YES_NO_OPTION, JOptionPane.ERROR_MESSAGE);
+        if (answer == JOptionPane.YES_OPTION && model == game) {
+            playAutomatedMove();
+        }
     }
 }
@@ -0,0 +1,98 @@
+package match;
+
+import model.enums.GameOutcome;
+import model.enums.PlayerColor;
+import model.io.GameRecord;
+import model.io.GameRecorder;
+
+/**
+ * Result of a game of a match.
+ */
+public class GameResult {
+
+    /**
+     * Index of the game in the match.
+     */
+    private final int index;
+
+    /**
+     * If the first player of the match had the white pawns.
+     */
+    private final boolean isFirstWhite;
+
+    /**
+     * Color of the winner, or null for a draw (by the rules of the game or too many moves).
+     */
+    private final PlayerColor winner;
+
+    /**
+     * Number of moves played (by both players).
+     */
+    private final int plies;
+
+    /**
+     * The moves of the game.
+     */
+    private final GameRecord record;
+
+    public GameResult(int index, boolean isFirstWhite, PlayerColor winner, int plies, GameRecorder recorder) {
+        this.index = index;
+        this.isFirstWhite = isFirstWhite;
+        this.winner = winner;
+        this.plies = plies;
+        this.record = recorder.toRecord(getOutcome());
+    }
+
+    /**
+     * Get the result of the game.
+     * @return The outcome.
+     */
+    public GameOutcome getOutcome() {
+        if (winner == null) {
+            return GameOutcome.DRAW;
+        }
+        return winner == PlayerColor.WHITE ? GameOutcome.WHITE_WIN : GameOutcome.BLACK_WIN;
+    }
+
+    /**
+     * Get the score of the first player of the match.
+     * @return 1 for a win, 0 for a loss and 0.5 for a draw.
+     */
+    public double getFirstScore() {
+        if (winner == null) {
+            return 0.5;
+        }
+        return (winner == PlayerColor.WHITE) == isFirstWhite ? 1 : 0;
+    }
+
+    /**
+     * Get the result in PDN notation (white score first).
+     * @return The result.
+     */
+    public String getNotation() {
+        if (winner == null) {
+            return "1/2-1/2";
+        }
+        return winner == PlayerColor.WHITE ? "1-0" : "0-1";
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public boolean isFirstWhite() {
+        return isFirstWhite;
+    }
+
+    public PlayerColor getWinner() {
+        return winner;
+    }
+
+    public int getPlies() {
+        return plies;
+    }
+
+    public GameRecord getRecord() {
+        return record;
+    }
+}
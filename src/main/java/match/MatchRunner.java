@@ -0,0 +1,207 @@
+package match;
+
+import model.Board;
+import model.Game;
+import model.AutomatedPlayer;
+import model.bitboard.MoveList;
+import model.enums.NotificationMode;
+import model.enums.PlayerColor;
+import model.io.GameRecordWriter;
+import model.io.GameRecorder;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Play a match of many games between two automated players, without any window. The games are played at the same
+ * time on a pool of threads, the players swap their colors at each game.
+ * <p>
+ * A game ends with the rules of the game (see {@link model.GameReferee}), or is a draw when it reaches the maximum
+ * number of moves. The first moves of each game can be random (from a seed), so the games of deterministic players
+ * are not all the same.
+ * <p>
+ * Usage: {@code MatchRunner [--option=value]...}, see {@link #main(String[])} for the options.
+ */
+public class MatchRunner {
+
+    /**
+     * The first player of the match (white in the even games).
+     */
+    private final PlayerSpec first;
+
+    /**
+     * The second player of the match.
+     */
+    private final PlayerSpec second;
+
+    /**
+     * Number of moves (by both players) after which a game is a draw.
+     */
+    private final int maxPlies;
+
+    /**
+     * Number of random moves at the start of each game.
+     */
+    private final int openingPlies;
+
+    /**
+     * Seed of the random moves at the start of the games.
+     */
+    private final long seed;
+
+    public MatchRunner(PlayerSpec first, PlayerSpec second, int maxPlies, int openingPlies, long seed) {
+        this.first = first;
+        this.second = second;
+        this.maxPlies = maxPlies;
+        this.openingPlies = openingPlies;
+        this.seed = seed;
+    }
+
+    /**
+     * Play a game of the match (can be called by many threads at once).
+     * @param index Index of the game.
+     * @return The result of the game.
+     */
+    public GameResult playGame(int index) {
+        boolean isFirstWhite = index % 2 == 0;
+        AutomatedPlayer white = (isFirstWhite ? first : second).create(PlayerColor.WHITE, index);
+        AutomatedPlayer black = (isFirstWhite ? second : first).create(PlayerColor.BLACK, index);
+        try {
+            Game game = new Game(black, white);
+            Board board = game.getBoard();
+            board.setNotificationMode(NotificationMode.NONE);
+            MoveList moves = new MoveList();
+            GameRecorder recorder = new GameRecorder(board.getPosition(), PlayerColor.WHITE);
+            Random random = new Random(seed + index);
+            int plies = 0;
+            while (plies < maxPlies && !game.isOver()) {
+                AutomatedPlayer player = game.getCurrentPlayer().getColor() == PlayerColor.WHITE ? white : black;
+                long move;
+                if (plies < openingPlies) {
+                    board.generateLegalMoves(player.getColor(), moves);
+                    move = moves.get(random.nextInt(moves.size()));
+                } else {
+                    move = player.chooseMove(board);
+                }
+                recorder.play(move);
+                game.playMove(move);
+                plies++;
+            }
+            PlayerColor winner = switch (game.getOutcome()) {
+                case WHITE_WIN -> PlayerColor.WHITE;
+                case BLACK_WIN -> PlayerColor.BLACK;
+                case DRAW, UNKNOWN -> null;
+            };
+            return new GameResult(index, isFirstWhite, winner, plies, recorder);
+        } finally {
+            PlayerSpec.release(white);
+            PlayerSpec.release(black);
+        }
+    }
+
+    /**
+     * Play all the games of the match.
+     * @param games Number of games.
+     * @param threads Number of games played at once.
+     * @param output Where to write the result of each game (as CSV), or null.
+     * @param records Where to write the moves of each game, or null.
+     * @return The statistics of the match.
+     * @throws IOException If the output can't be written.
+     */
+    public MatchStatistics run(int games, int threads, PrintWriter output, GameRecordWriter records)
+            throws IOException {
+        MatchStatistics statistics = new MatchStatistics();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            var completion = new ExecutorCompletionService<GameResult>(pool);
+            for (int i = 0; i < games; i++) {
+                int index = i;
+                completion.submit(() -> playGame(index));
+            }
+            if (output != null) {
+                output.println("game,white,black,result,plies");
+            }
+            for (int i = 0; i < games; i++) {
+                GameResult result = completion.take().get();
+                statistics.add(result);
+                if (records != null) {
+                    records.write(result.getRecord());
+                }
+                if (output != null) {
+                    output.printf("%d,%s,%s,%s,%d%n", result.getIndex(),
+                            result.isFirstWhite() ? first : second, result.isFirstWhite() ? second : first,
+                            result.getNotation(), result.getPlies());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Match interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A game failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        return statistics;
+    }
+
+    /**
+     * Options (with their default value): {@code --games=100}, {@code --threads=<number of processors>},
+     * {@code --first=engine}, {@code --second=random}, {@code --max-plies=200}, {@code --opening-plies=4},
+     * {@code --seed=0}, {@code --output=<CSV file of the games>} and {@code --record=<game record file, the games are
+     * added at its end>}.
+     * @param args The options.
+     */
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                System.err.println("Invalid option " + arg + ", expected --option=value");
+                System.exit(1);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        int games = Integer.parseInt(options.getOrDefault("games", "100"));
+        int threads = Integer.parseInt(options.getOrDefault("threads",
+                String.valueOf(Runtime.getRuntime().availableProcessors())));
+        MatchRunner runner = new MatchRunner(
+                PlayerSpec.parse(options.getOrDefault("first", "engine")),
+                PlayerSpec.parse(options.getOrDefault("second", "random")),
+                Integer.parseInt(options.getOrDefault("max-plies", "200")),
+                Integer.parseInt(options.getOrDefault("opening-plies", "4")),
+                Long.parseLong(options.getOrDefault("seed", "0")));
+
+        long start = System.nanoTime();
+        MatchStatistics statistics;
+        PrintWriter output = null;
+        GameRecordWriter records = null;
+        try {
+            if (options.containsKey("output")) {
+                output = new PrintWriter(Files.newBufferedWriter(Path.of(options.get("output"))));
+            }
+            if (options.containsKey("record")) {
+                records = new GameRecordWriter(Path.of(options.get("record")));
+            }
+            statistics = runner.run(games, threads, output, records);
+        } finally {
+            if (output != null) {
+                output.close();
+            }
+            if (records != null) {
+                records.close();
+            }
+        }
+        long elapsed = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.printf("%s vs %s: %s%n", runner.first, runner.second, statistics);
+        System.out.printf("%d games in %d ms on %d threads%n", games, elapsed, threads);
+    }
+}
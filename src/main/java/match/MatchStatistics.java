@@ -0,0 +1,88 @@
+package match;
+
+/**
+ * Win / draw / loss statistics of a match, for its first player.
+ */
+public class MatchStatistics {
+
+    private int wins = 0;
+    private int draws = 0;
+    private int losses = 0;
+
+    /**
+     * Wins of the first player with the white pawns.
+     */
+    private int whiteWins = 0;
+
+    /**
+     * Total number of moves of the games.
+     */
+    private long plies = 0;
+
+    private int minPlies = Integer.MAX_VALUE;
+    private int maxPlies = 0;
+
+    /**
+     * Add the result of a game.
+     * @param result The result.
+     */
+    public void add(GameResult result) {
+        double score = result.getFirstScore();
+        if (score == 1) {
+            wins++;
+            if (result.isFirstWhite()) {
+                whiteWins++;
+            }
+        } else if (score == 0) {
+            losses++;
+        } else {
+            draws++;
+        }
+        plies += result.getPlies();
+        minPlies = Math.min(minPlies, result.getPlies());
+        maxPlies = Math.max(maxPlies, result.getPlies());
+    }
+
+    public int getGames() {
+        return wins + draws + losses;
+    }
+
+    public int getWins() {
+        return wins;
+    }
+
+    public int getDraws() {
+        return draws;
+    }
+
+    public int getLosses() {
+        return losses;
+    }
+
+    public int getWhiteWins() {
+        return whiteWins;
+    }
+
+    /**
+     * Get the score of the first player.
+     * @return The score, from 0 (all games lost) to 1 (all games won).
+     */
+    public double getScore() {
+        return getGames() == 0 ? 0 : (wins + draws * 0.5) / getGames();
+    }
+
+    /**
+     * Get the average number of moves of the games.
+     * @return The number of moves.
+     */
+    public double getAveragePlies() {
+        return getGames() == 0 ? 0 : (double) plies / getGames();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("+%d =%d -%d (%.1f%%, %d wins with white), moves by game: %.1f average, %d min, %d max",
+                wins, draws, losses, getScore() * 100, whiteWins, getAveragePlies(),
+                getGames() == 0 ? 0 : minPlies, maxPlies);
+    }
+}
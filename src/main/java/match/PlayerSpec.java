@@ -0,0 +1,114 @@
+package match;
+
+import ai.Engine;
+import ai.EnginePlayer;
+import ai.OpeningBook;
+import ai.RandomPlayer;
+import ai.TranspositionTable;
+import ai.eval.Evaluator;
+import model.AutomatedPlayer;
+import model.Player;
+import model.enums.PlayerColor;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Description of an automated player of a match, parsed from a string like {@code engine:depth=6,time=0} or
+ * {@code random:seed=3}. A new player is created for each game, so the games don't share anything.
+ * <p>
+ * Options of {@code engine}: {@code time} (ms by move, 0 for no limit), {@code nodes} (by move, 0 for no limit),
+ * {@code depth} (6 by default), {@code hash} (log2 of the number of buckets of the transposition table),
+ * {@code book} (1 to play the moves of the opening book of the system property {@code opening.book}) and {@code eval}
+ * (0 for the simple evaluation of {@link Evaluator#simple()}, 1 for the standard one).
+ * Options of {@code random}: {@code seed}.
+ */
+public class PlayerSpec {
+
+    /**
+     * Default size of the transposition table of the engines (2^16 buckets, 2 MB), small as many games run at once.
+     */
+    private static final int DEFAULT_TABLE_BITS = 16;
+
+    /**
+     * Default depth of the engines (the time and nodes are not limited by default, so the games are reproducible).
+     */
+    private static final long DEFAULT_DEPTH = 6;
+
+    /**
+     * The string of the description (also used as name of the player).
+     */
+    private final String spec;
+
+    private final boolean isEngine;
+
+    private final Map<String, Long> options = new HashMap<>();
+
+    private PlayerSpec(String spec, boolean isEngine) {
+        this.spec = spec;
+        this.isEngine = isEngine;
+    }
+
+    /**
+     * Parse a description.
+     * @param spec The description.
+     * @return The description parsed.
+     * @throws IllegalArgumentException If the description is invalid.
+     */
+    public static PlayerSpec parse(String spec) {
+        String[] parts = spec.split(":", 2);
+        PlayerSpec result = switch (parts[0]) {
+            case "engine" -> new PlayerSpec(spec, true);
+            case "random" -> new PlayerSpec(spec, false);
+            default -> throw new IllegalArgumentException("Unknown player " + parts[0] + ", expected engine or random");
+        };
+        if (parts.length > 1 && !parts[1].isEmpty()) {
+            for (String option : parts[1].split(",")) {
+                String[] keyValue = option.split("=", 2);
+                if (keyValue.length != 2) {
+                    throw new IllegalArgumentException("Invalid option " + option + " of " + spec);
+                }
+                result.options.put(keyValue[0], Long.parseLong(keyValue[1]));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Create the player for a game.
+     * @param color Color of the player.
+     * @param game Index of the game (to have a different random player for each game).
+     * @return The player.
+     */
+    public AutomatedPlayer create(PlayerColor color, int game) {
+        if (!isEngine) {
+            return new RandomPlayer(spec, color, options.getOrDefault("seed", 0L) + game);
+        }
+        Engine engine = new Engine(
+                options.getOrDefault("time", 0L),
+                options.getOrDefault("nodes", 0L),
+                (int) Math.min(options.getOrDefault("depth", DEFAULT_DEPTH), Engine.MAX_PLY),
+                1,
+                new TranspositionTable((int) (long) options.getOrDefault("hash", (long) DEFAULT_TABLE_BITS)));
+        if (options.getOrDefault("eval", 1L) == 0) {
+            engine.setEvaluator(Evaluator.simple());
+        }
+        OpeningBook book = options.getOrDefault("book", 0L) != 0 ? OpeningBook.getDefault() : null;
+        return new EnginePlayer(spec, color, engine, book, options.getOrDefault("seed", 0L) + game);
+    }
+
+    /**
+     * Release the resources of a player created by {@link #create(PlayerColor, int)}.
+     * @param player The player.
+     */
+    public static void release(Player player) {
+        if (player instanceof EnginePlayer enginePlayer) {
+            enginePlayer.getEngine().shutdown();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return spec;
+    }
+}
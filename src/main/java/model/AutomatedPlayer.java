@@ -0,0 +1,20 @@
+package model;
+
+import model.enums.PlayerColor;
+
+/**
+ * Player played by the computer: the game asks it its moves, instead of waiting for the clicks on the board.
+ */
+public abstract class AutomatedPlayer extends Player {
+
+    protected AutomatedPlayer(String name, PlayerColor color) {
+        super(name, color);
+    }
+
+    /**
+     * Choose the next move of the player.
+     * @param board The board of the game.
+     * @return The move to play (see {@link model.bitboard.Move}), or 0 if there is none.
+     */
+    public abstract long chooseMove(Board board);
+}
@@ -1,13 +1,23 @@
 package model;
 
+import model.BoardFactory.BoardFactory;
 import model.BoardFactory.BoardFactoryImpl;
 import model.BoardFactory.BoardTest.BoardFactoryLadyMovement;
 import model.BoardFactory.BoardTest.BoardFactoryLadyTest;
 import model.BoardFactory.BoardTest.BoardFactoryMultipleChoiceRaid;
+import model.bitboard.BitBoard;
+import model.bitboard.Move;
+import model.bitboard.MoveGenerator;
+import model.bitboard.MoveList;
 import model.enums.CaseType;
+import model.enums.GameOutcome;
 import model.enums.MovementType;
+import model.enums.NotificationMode;
 import model.enums.PlayerColor;
 
+import java.beans.PropertyChangeListener;
+import java.beans.PropertyChangeSupport;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
@@ -17,17 +27,126 @@ import java.util.List;
 public class Board {
 
     /**
-     * All cases in the graph (to compose a board).
+     * Property name when cases of the board changed (in {@link NotificationMode#BATCH} mode), the new value is a
+     * {@link BoardChange}.
      */
-    private final List<Case> cases;
+    public static final String BOARD_CHANGED = "board_changed";
+
+    /**
+     * Property change boiler code to implement listener (modern way).
+     */
+    private final PropertyChangeSupport propertyChangeSupport = new PropertyChangeSupport(this);
+    public void addPropertyChangeListener(PropertyChangeListener propertyChangeListener) {
+        this.propertyChangeSupport.addPropertyChangeListener(propertyChangeListener);
+    }
+    public void removePropertyChangeListener(PropertyChangeListener propertyChangeListener) {
+        this.propertyChangeSupport.removePropertyChangeListener(propertyChangeListener);
+    }
+
+    /**
+     * All cases in the graph (to compose a board), indexed by posX * 10 + posY.
+     */
+    private final Case[] cases;
+
+    /**
+     * Unmodifiable view of the cases, given to the outside.
+     */
+    private final List<Case> casesView;
+
+    /**
+     * Compact copy of the position, used to compute all the rules (constraint, reachable tiles and takes).
+     */
+    private final BitBoard position = new BitBoard();
+
+    /**
+     * Number of tiles of each type (8 bits by type, indexed by the ordinal of the type), kept up to date by the cases
+     * when their type changes. The changes made during an update are published at once when it ends (see
+     * {@link #pendingCounts}), so this single value can be read from any thread without seeing a move in progress.
+     */
+    private volatile long counts = 0;
+
+    /**
+     * Change of the counts during the current update, added to {@link #counts} when the last update ends.
+     */
+    private long pendingCounts = 0;
 
     /**
      * Compute if one of the tile in the board is constraint.
      */
     private boolean isBoardConstraint = false;
 
+    /**
+     * Mask of the constraint tiles.
+     */
+    private long constraints = 0;
+
+    /**
+     * Tile of the selected case (-1 if none).
+     */
+    private int selected = -1;
+
+    /**
+     * Mask of the reachable tiles.
+     */
+    private long reachable = 0;
+
+    /**
+     * Tile of the pawn in raid (-1 if none).
+     */
+    private int raidSquare = -1;
+
+    /**
+     * Constraint mask before each move played with {@link #makeMove(long)}.
+     */
+    private long[] constraintHistory = new long[128];
+
+    /**
+     * Raid tile before each move played with {@link #makeMove(long)}.
+     */
+    private int[] raidHistory = new int[128];
+
+    /**
+     * Number of moves played with {@link #makeMove(long)}.
+     */
+    private int historySize = 0;
+
+    /**
+     * How the changes of the cases are notified.
+     */
+    private NotificationMode notificationMode = NotificationMode.CASES;
+
+    /**
+     * Number of updates in progress (the changes are published when the last one ends).
+     */
+    private int updateDepth = 0;
+
+    /**
+     * Tiles changed during the current update, by property (see {@link BoardChange}).
+     */
+    private long changedTypes = 0;
+    private long changedSelections = 0;
+    private long changedReachables = 0;
+    private long changedConstraints = 0;
+
     public Board() {
-        this.cases = new BoardFactoryImpl().generateGraph();
+        this(new BoardFactoryImpl());
+    }
+
+    /**
+     * Create a board from a given factory (to start from a specific position).
+     * @param factory The factory of the graph.
+     */
+    public Board(BoardFactory factory) {
+        this.cases = factory.generateGraph();
+        this.casesView = Collections.unmodifiableList(Arrays.asList(cases));
+        for (Case aCase : cases) {
+            int square = BitBoard.squareOf(aCase.getPosX(), aCase.getPosY());
+            if (square != -1) {
+                position.set(square, aCase.getType());
+                counts += 1L << (8 * aCase.getType().ordinal());
+            }
+            aCase.setBoard(this);
+        }
         this.computeConstraint(PlayerColor.WHITE);
     }
 
@@ -39,62 +158,235 @@ public class Board {
      * @return The type of movement computed by the selection.
      */
     public MovementType computeSelected(PlayerColor pColor, int posX, int posY) {
-        Case c = getCase(posX, posY);
-        MovementType mt = MovementType.MOVEMENT_WITHOUT_TAKE;
-        if (c.isReachable()) {
-            Case selectedCase = getSelected();
-            assert selectedCase != null;
-            mt = selectedCase.eat(c);
-            if (mt == MovementType.MOVEMENT_WITH_TAKE) {
-                c.setInRaid(true);
+        beginUpdate();
+        try {
+            int square = BitBoard.squareOf(posX, posY);
+            if (square == -1) {
+                // A light tile is never played, even if a test board put a piece on it.
+                return MovementType.NO_MOVEMENT;
+            }
+            Case c = getCase(posX, posY);
+            if ((reachable & (1L << square)) != 0) {
+                Case selectedCase = getCase(selected);
+                long taken = position.between(selected, square);
+                MovementType mt = taken == 0 ? MovementType.MOVEMENT_WITHOUT_TAKE : MovementType.MOVEMENT_WITH_TAKE;
+                while (taken != 0) {
+                    int sq = Long.numberOfTrailingZeros(taken);
+                    taken &= taken - 1;
+                    setType(getCase(sq), CaseType.EMPTY);
+                }
+                setRaidSquare(mt == MovementType.MOVEMENT_WITH_TAKE ? square : -1);
+                setType(c, selectedCase.getType());
+                setType(selectedCase, CaseType.EMPTY);
+                resetState();
+                return mt;
             }
-            c.setType(selectedCase.getType());
-            selectedCase.setType(CaseType.EMPTY);
-            this.cases.forEach(Case::resetState);
-            return mt;
-        }
-
-        this.cases.forEach(Case::resetState);
-        boolean isOk = c.computeSelected(pColor);
-        if (isOk) {
-            if (!isBoardConstraint) {
-                getCase(posX, posY).computeReachable(pColor);
-            } else {
-                if (c.isConstraint()) {
-                    getCase(posX, posY).computeReachable(pColor);
+
+            resetState();
+            if (c.computeSelected(pColor)) {
+                selected = square;
+                if (!isBoardConstraint || c.isConstraint()) {
+                    reachable = position.reachable(square, c.isConstraint());
+                    long r = reachable;
+                    while (r != 0) {
+                        int sq = Long.numberOfTrailingZeros(r);
+                        r &= r - 1;
+                        getCase(sq).setReachable(true);
+                    }
                 }
             }
             return MovementType.NO_MOVEMENT;
+        } finally {
+            endUpdate();
         }
-        return MovementType.NO_MOVEMENT;
     }
 
     /**
-     * Compute the constraint on the board.
+     * Compute the constraint on the board. Only the cases whose constraint changed are updated.
      * @param pColor Color of the last player.
      * @return if a constraint has been detected.
      */
     public boolean computeConstraint(PlayerColor pColor) {
-        this.cases.forEach(Case::resetState);
-        this.cases.forEach(Case::resetConstraint);
-        this.isBoardConstraint = false;
-        if (getPawnInRaid() != null) {
-            var isConstraint = getPawnInRaid().computeConstraint(pColor);
-            if (isConstraint) {
-                this.isBoardConstraint = true;
-            } else {
-                this.cases.forEach(c -> c.setInRaid(false));
+        beginUpdate();
+        try {
+            resetState();
+            position.setSideToMove(pColor);
+            if (raidSquare != -1) {
+                if (position.canCapture(raidSquare)) {
+                    setConstraints(1L << raidSquare);
+                    return this.isBoardConstraint;
+                }
+                setRaidSquare(-1);
+                setConstraints(0);
+                return this.isBoardConstraint;
             }
+            setConstraints(position.constraints(pColor));
             return this.isBoardConstraint;
+        } finally {
+            endUpdate();
         }
+    }
 
-        for (Case aCase : cases) {
-            var isConstraint = aCase.computeConstraint(pColor);
-            if (isConstraint) {
-                this.isBoardConstraint = true;
+    /**
+     * Play a complete move (see {@link Move}) and compute the constraint of the opponent. Only the cases touched by
+     * the move and the ones whose constraint changed are updated.
+     * @param move The move to play.
+     */
+    public void makeMove(long move) {
+        beginUpdate();
+        try {
+            resetState();
+            if (historySize == raidHistory.length) {
+                constraintHistory = Arrays.copyOf(constraintHistory, historySize * 2);
+                raidHistory = Arrays.copyOf(raidHistory, historySize * 2);
+            }
+            constraintHistory[historySize] = constraints;
+            raidHistory[historySize] = raidSquare;
+            historySize++;
+
+            PlayerColor opponent = (position.getWhite() & (1L << Move.from(move))) != 0
+                    ? PlayerColor.BLACK : PlayerColor.WHITE;
+            position.makeMove(move);
+            updateCases(move);
+            setRaidSquare(-1);
+            setConstraints(position.constraints(opponent));
+        } finally {
+            endUpdate();
+        }
+    }
+
+    /**
+     * Undo the last move played with {@link #makeMove(long)}, restoring exactly the previous state.
+     */
+    public void unmakeMove() {
+        beginUpdate();
+        try {
+            resetState();
+            long move = position.unmakeMove();
+            updateCases(move);
+            historySize--;
+            setRaidSquare(raidHistory[historySize]);
+            setConstraints(constraintHistory[historySize]);
+        } finally {
+            endUpdate();
+        }
+    }
+
+    /**
+     * Put the board in the state of a snapshot. Only the cases which differ are updated, and the moves played before
+     * can't be undone anymore.
+     * @param snapshot The snapshot.
+     */
+    void restore(GameSnapshot snapshot) {
+        beginUpdate();
+        try {
+            resetState();
+            long changed = (position.getWhite() ^ snapshot.getWhite()) | (position.getBlack() ^ snapshot.getBlack())
+                    | (position.getLadies() ^ snapshot.getLadies());
+            while (changed != 0) {
+                int sq = Long.numberOfTrailingZeros(changed);
+                changed &= changed - 1;
+                setType(getCase(sq), snapshot.get(sq));
+            }
+            position.setSideToMove(snapshot.getCurrentColor());
+            setRaidSquare(snapshot.getRaidSquare());
+            setConstraints(snapshot.getConstraints());
+            position.clearHistory();
+            historySize = 0;
+        } finally {
+            endUpdate();
+        }
+    }
+
+    /**
+     * Start an update of the board: in {@link NotificationMode#BATCH} mode, the changes of the cases are gathered
+     * until the matching {@link #endUpdate()}, then published in one {@link #BOARD_CHANGED} event. The updates can
+     * be nested (to replay many moves in one event), each public change of the board is an update.
+     */
+    public void beginUpdate() {
+        updateDepth++;
+    }
+
+    /**
+     * End an update of the board (see {@link #beginUpdate()}).
+     */
+    public void endUpdate() {
+        if (--updateDepth > 0) {
+            return;
+        }
+        updateDepth = 0;
+        if (pendingCounts != 0) {
+            counts += pendingCounts;
+            pendingCounts = 0;
+        }
+        if ((changedTypes | changedSelections | changedReachables | changedConstraints) != 0) {
+            BoardChange change = new BoardChange(changedTypes, changedSelections, changedReachables,
+                    changedConstraints);
+            changedTypes = 0;
+            changedSelections = 0;
+            changedReachables = 0;
+            changedConstraints = 0;
+            propertyChangeSupport.firePropertyChange(BOARD_CHANGED, null, change);
+        }
+    }
+
+    /**
+     * Called by a case when one of its properties changed.
+     * @param c The case.
+     * @param propertyName Name of the property (see {@link Case}).
+     * @return If the case must fire its own event.
+     */
+    boolean onCaseChanged(Case c, String propertyName) {
+        int square = squareOf(c);
+        if (notificationMode == NotificationMode.CASES || square == -1) {
+            return notificationMode != NotificationMode.NONE;
+        }
+        if (notificationMode == NotificationMode.BATCH) {
+            long bit = 1L << square;
+            switch (propertyName) {
+                case Case.TYPE_CHANGED -> changedTypes |= bit;
+                case Case.IS_SELECTED_CHANGED -> changedSelections |= bit;
+                case Case.IS_REACHABLE_CHANGED -> changedReachables |= bit;
+                case Case.IS_CONSTRAINT_CHANGED -> changedConstraints |= bit;
+            }
+            if (updateDepth == 0) {
+                beginUpdate();
+                endUpdate();
             }
         }
-        return this.isBoardConstraint ;
+        return false;
+    }
+
+    /**
+     * Change how the changes of the cases are notified (see {@link NotificationMode}).
+     * @param notificationMode The new mode.
+     */
+    public void setNotificationMode(NotificationMode notificationMode) {
+        this.notificationMode = notificationMode;
+    }
+
+    public NotificationMode getNotificationMode() {
+        return notificationMode;
+    }
+
+    /**
+     * Generate all the legal moves of a player, without changing the board (no event is fired).
+     * @param pColor Color of the player.
+     * @return The list of encoded moves (see {@link Move}).
+     */
+    public MoveList generateLegalMoves(PlayerColor pColor) {
+        MoveList moves = new MoveList();
+        generateLegalMoves(pColor, moves);
+        return moves;
+    }
+
+    /**
+     * Generate all the legal moves of a player, without changing the board (no event is fired).
+     * @param pColor Color of the player.
+     * @param moves The list to fill (cleared before).
+     */
+    public void generateLegalMoves(PlayerColor pColor, MoveList moves) {
+        MoveGenerator.generate(position, pColor, raidSquare, moves);
     }
 
     /**
@@ -104,7 +396,7 @@ public class Board {
      * @return The case (or null if not in the graph).
      */
     public Case getCase(int posX, int posY) {
-        return cases.get(posX * 10 + posY);
+        return cases[posX * 10 + posY];
     }
 
     /**
@@ -112,69 +404,214 @@ public class Board {
      * @return An unmodifiable list of cases.
      */
     public List<Case> getCases() {
-        return Collections.unmodifiableList(cases);
+        return casesView;
+    }
+
+    /**
+     * Get the compact position of the board (must not be modified).
+     * @return The position.
+     */
+    public BitBoard getPosition() {
+        return position;
     }
 
     public boolean isBoardConstraint() {
         return isBoardConstraint;
     }
 
-    private Case getSelected() {
-        for (Case aCase : cases) {
-            if (aCase.isSelected()) {
-                return aCase;
-            }
+    /**
+     * Get the constraint tiles.
+     * @return The mask of the tiles (see {@link BitBoard}).
+     */
+    public long getConstraints() {
+        return constraints;
+    }
+
+    /**
+     * Get the tile of the selected case.
+     * @return The tile (or -1 if no case is selected).
+     */
+    public int getSelected() {
+        return selected;
+    }
+
+    /**
+     * Get the reachable tiles of the selected case.
+     * @return The mask of the tiles (see {@link BitBoard}).
+     */
+    public long getReachable() {
+        return reachable;
+    }
+
+    /**
+     * Get the hash of the position (pieces, player to move and pawn in raid).
+     * @return The hash (see {@link model.bitboard.Zobrist}).
+     */
+    public long getKey() {
+        return position.getKey();
+    }
+
+    /**
+     * Get the tile of the pawn in raid.
+     * @return The tile (or -1 if no pawn is in raid).
+     */
+    public int getRaidSquare() {
+        return raidSquare;
+    }
+
+    /**
+     * Unselect the selected case and the reachable ones.
+     */
+    private void resetState() {
+        if (selected != -1) {
+            getCase(selected).resetState();
+            selected = -1;
+        }
+        while (reachable != 0) {
+            int sq = Long.numberOfTrailingZeros(reachable);
+            reachable &= reachable - 1;
+            getCase(sq).resetState();
         }
-        return null;
     }
 
-    private Case getPawnInRaid() {
-        for (Case aCase : cases) {
-            if (aCase.isInRaid()) {
-                return aCase;
-            }
+    /**
+     * Change the constraint tiles, updating only the cases which changed.
+     * @param newConstraints The new mask of constraint tiles.
+     */
+    private void setConstraints(long newConstraints) {
+        long changed = constraints ^ newConstraints;
+        while (changed != 0) {
+            int sq = Long.numberOfTrailingZeros(changed);
+            changed &= changed - 1;
+            getCase(sq).setConstraint((newConstraints & (1L << sq)) != 0);
         }
-        return null;
+        this.constraints = newConstraints;
+        this.isBoardConstraint = newConstraints != 0;
     }
 
-    public int getNumberOfWhitePawn() {
-        int n = 0;
-        for (Case aCase : cases) {
-            if (aCase.getType() == CaseType.WHITE_PAWN) {
-                n++;
-            }
+    private void setRaidSquare(int square) {
+        if (raidSquare != -1) {
+            getCase(raidSquare).setInRaid(false);
+        }
+        raidSquare = square;
+        position.setRaidSquare(square);
+        if (raidSquare != -1) {
+            getCase(raidSquare).setInRaid(true);
         }
-        return n;
     }
 
-    public int getNumberOfBlackPawn() {
-        int n = 0;
-        for (Case aCase : cases) {
-            if (aCase.getType() == CaseType.BLACK_PAWN) {
-                n++;
+    /**
+     * Copy the compact position on the cases touched by a move.
+     * @param move The move.
+     */
+    private void updateCases(long move) {
+        long touched = Move.taken(move) | (1L << Move.from(move)) | (1L << Move.to(move));
+        while (touched != 0) {
+            int sq = Long.numberOfTrailingZeros(touched);
+            touched &= touched - 1;
+            Case c = getCase(sq);
+            CaseType type = position.get(sq);
+            if (c.getType() != type) {
+                c.setType(type);
             }
         }
-        return n;
     }
 
-    public int getNumberOfWhiteLady() {
-        int n = 0;
-        for (Case aCase : cases) {
-            if (aCase.getType() == CaseType.WHITE_LADY) {
-                n++;
-            }
+    private Case getCase(int square) {
+        return getCase(BitBoard.posXOf(square), BitBoard.posYOf(square));
+    }
+
+    private int squareOf(Case c) {
+        return BitBoard.squareOf(c.getPosX(), c.getPosY());
+    }
+
+    /**
+     * Change the type of a case, keeping the compact position up to date.
+     * @param c The case to change.
+     * @param type The new type.
+     */
+    private void setType(Case c, CaseType type) {
+        c.setType(type);
+        position.set(squareOf(c), c.getType());
+    }
+
+    /**
+     * Called by a case when its type changed, to update the counts.
+     * @param c The case.
+     * @param old The old type.
+     * @param type The new type.
+     */
+    void onTypeChanged(Case c, CaseType old, CaseType type) {
+        if (squareOf(c) == -1) {
+            return;
+        }
+        long change = (1L << (8 * type.ordinal())) - (1L << (8 * old.ordinal()));
+        if (updateDepth > 0) {
+            pendingCounts += change;
+        } else {
+            counts += change;
         }
-        return n;
     }
 
-    public int getNumberOfBlackLady() {
-        int n = 0;
-        for (Case aCase : cases) {
-            if (aCase.getType() == CaseType.BLACK_LADY) {
-                n++;
-            }
+    /**
+     * Get the number of tiles of a type, as published by the last update.
+     * @param type The type.
+     * @return The number of tiles.
+     */
+    public int getCount(CaseType type) {
+        return (int) (counts >>> (8 * type.ordinal())) & 0xFF;
+    }
+
+    /**
+     * Get the number of pieces of each type after the last update, all read at the same time (it can be called from
+     * any thread, even during an update).
+     * @return The counts.
+     */
+    public PieceCounts getPieceCounts() {
+        long c = counts;
+        return new PieceCounts(
+                (int) (c >>> (8 * CaseType.WHITE_PAWN.ordinal())) & 0xFF,
+                (int) (c >>> (8 * CaseType.WHITE_LADY.ordinal())) & 0xFF,
+                (int) (c >>> (8 * CaseType.BLACK_PAWN.ordinal())) & 0xFF,
+                (int) (c >>> (8 * CaseType.BLACK_LADY.ordinal())) & 0xFF);
+    }
+
+    /**
+     * Compute if the game is over for the player to move: the player lost if no piece is left or no move is
+     * possible (see {@link GameReferee#lossOf(BitBoard, PlayerColor)}). The game is never over during a raid.
+     * @param pColor Color of the player to move.
+     * @return The winner as an outcome, or {@link GameOutcome#UNKNOWN} if the game goes on.
+     */
+    public GameOutcome getOutcome(PlayerColor pColor) {
+        if (raidSquare != -1 || GameReferee.lossOf(position, pColor) == GameReferee.Reason.NONE) {
+            return GameOutcome.UNKNOWN;
         }
-        return n;
+        return pColor == PlayerColor.WHITE ? GameOutcome.BLACK_WIN : GameOutcome.WHITE_WIN;
+    }
+
+    /**
+     * Compute if the player to move lost the game (see {@link #getOutcome(PlayerColor)}).
+     * @param pColor Color of the player to move.
+     * @return If the game is over.
+     */
+    public boolean isGameOver(PlayerColor pColor) {
+        return getOutcome(pColor) != GameOutcome.UNKNOWN;
+    }
+
+    public int getNumberOfWhitePawn() {
+        return getCount(CaseType.WHITE_PAWN);
+    }
+
+    public int getNumberOfBlackPawn() {
+        return getCount(CaseType.BLACK_PAWN);
+    }
+
+    public int getNumberOfWhiteLady() {
+        return getCount(CaseType.WHITE_LADY);
+    }
+
+    public int getNumberOfBlackLady() {
+        return getCount(CaseType.BLACK_LADY);
     }
 
 }
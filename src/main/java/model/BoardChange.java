@@ -0,0 +1,72 @@
+package model;
+
+import model.bitboard.BitBoard;
+
+/**
+ * Changes of the cases of a board during an update (see {@link Board#BOARD_CHANGED}). The changed tiles are given as
+ * masks of {@link BitBoard} tiles, one for each property of the cases.
+ */
+public class BoardChange {
+
+    /**
+     * Tiles whose type changed.
+     */
+    private final long types;
+
+    /**
+     * Tiles whose selection changed.
+     */
+    private final long selections;
+
+    /**
+     * Tiles whose reachable state changed.
+     */
+    private final long reachables;
+
+    /**
+     * Tiles whose constraint changed.
+     */
+    private final long constraints;
+
+    public BoardChange(long types, long selections, long reachables, long constraints) {
+        this.types = types;
+        this.selections = selections;
+        this.reachables = reachables;
+        this.constraints = constraints;
+    }
+
+    /**
+     * Get all the changed tiles.
+     * @return The mask of the tiles.
+     */
+    public long getTiles() {
+        return types | selections | reachables | constraints;
+    }
+
+    /**
+     * Check if a case changed.
+     * @param posX X position of the case.
+     * @param posY Y position of the case.
+     * @return If one of the properties of the case changed.
+     */
+    public boolean isChanged(int posX, int posY) {
+        int square = BitBoard.squareOf(posX, posY);
+        return square != -1 && (getTiles() & (1L << square)) != 0;
+    }
+
+    public long getTypes() {
+        return types;
+    }
+
+    public long getSelections() {
+        return selections;
+    }
+
+    public long getReachables() {
+        return reachables;
+    }
+
+    public long getConstraints() {
+        return constraints;
+    }
+}
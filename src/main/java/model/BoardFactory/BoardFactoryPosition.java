@@ -0,0 +1,25 @@
+package model.BoardFactory;
+
+import model.Case;
+import model.bitboard.BitBoard;
+
+/**
+ * Factory of a board with the pieces of a given position (to load a saved game).
+ */
+public class BoardFactoryPosition extends BoardFactory {
+
+    private final BitBoard position;
+
+    public BoardFactoryPosition(BitBoard position) {
+        this.position = new BitBoard(position);
+    }
+
+    @Override
+    public Case[] generateGraph() {
+        var cases = createGraph();
+        for (int sq = 0; sq < BitBoard.SIZE; sq++) {
+            cases[BitBoard.posXOf(sq) * 10 + BitBoard.posYOf(sq)].setType(position.get(sq));
+        }
+        return cases;
+    }
+}
@@ -1,17 +1,14 @@
 package model;
 
 import model.enums.CaseType;
-import model.enums.MovementType;
 import model.enums.PlayerColor;
 
 import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Objects;
 
 /**
- * Hold all the logic of the cases.
+ * Hold the state of a case of the board. The rules are computed by {@link Board}, which updates the cases.
  */
 public class Case {
 
@@ -46,6 +43,11 @@ public class Case {
         this.propertyChangeSupport.removePropertyChangeListener(propertyChangeListener);
     }
 
+    /**
+     * The board of the case (null while the graph is created), which decides how the changes are notified.
+     */
+    private Board board;
+
     /**
      * Define the X position of the case in a graph.
      */
@@ -82,9 +84,9 @@ public class Case {
     private boolean isInRaid = false;
 
     /**
-     * Define all the neighbour of this case in a "Jeu de dame" game.
+     * Define all the neighbour of this case in a "Jeu de dame" game (indexed by direction).
      */
-    private Map<Direction, Case> neighbour = new HashMap<>();
+    private final Case[] neighbours = new Case[4];
 
     public Case(int posX, int posY) {
         this.posX = posX;
@@ -98,95 +100,14 @@ public class Case {
      * @return If the case as correctly be added.
      */
     public boolean addNeighbour(Direction direction, Case c) {
-        if (neighbour.containsKey(direction)) {
+        if (neighbours[direction.ordinal()] != null) {
             return false;
         } else {
-            neighbour.put(direction, c);
+            neighbours[direction.ordinal()] = c;
             return true;
         }
     }
 
-    /**
-     * Compute if this case constraint the player to play with it. Following the neighbours.
-     * @param pColor The color of the player to who compute the constraint.
-     * @return If the player is constraint.
-     */
-    public boolean computeConstraint(PlayerColor pColor) {
-        if (pColor == PlayerColor.BLACK && type == CaseType.BLACK_LADY) {
-            return computeLadyConstraint(Direction.TOP_RIGHT) ||
-                    computeLadyConstraint(Direction.TOP_LEFT) ||
-                    computeLadyConstraint(Direction.BOTTOM_RIGHT) ||
-                    computeLadyConstraint(Direction.BOTTOM_LEFT);
-        }
-
-        if (pColor == PlayerColor.WHITE && type == CaseType.WHITE_LADY) {
-            return computeLadyConstraint(Direction.TOP_RIGHT) ||
-                    computeLadyConstraint(Direction.TOP_LEFT) ||
-                    computeLadyConstraint(Direction.BOTTOM_RIGHT) ||
-                    computeLadyConstraint(Direction.BOTTOM_LEFT);
-        }
-
-        for (var entry : neighbour.entrySet()) {
-            Case c = entry.getValue();
-            if (pColor == PlayerColor.WHITE) {
-                if (computeColoredConstraint(entry,
-                        c, CaseType.WHITE_LADY, CaseType.WHITE_PAWN, CaseType.BLACK_LADY, CaseType.BLACK_PAWN))
-                    return true;
-            }
-            if (pColor == PlayerColor.BLACK) {
-                if (computeColoredConstraint((Map.Entry<Direction, Case>) entry,
-                        c, CaseType.BLACK_LADY, CaseType.BLACK_PAWN, CaseType.WHITE_LADY, CaseType.WHITE_PAWN))
-                    return true;
-            }
-        }
-        this.setConstraint(false);
-        return false;
-    }
-
-    private boolean computeLadyConstraint(Direction direction) {
-        Case c = getNeighbour(direction);
-        while (c != null) {
-            if (type == CaseType.WHITE_LADY) {
-                if (c.getType() == CaseType.BLACK_LADY || c.getType() == CaseType.BLACK_PAWN) {
-                    if (c.getNeighbour(direction) != null && c.getNeighbour(direction).getType() == CaseType.EMPTY) {
-                        this.setConstraint(true);
-                        return true;
-                    } else {
-                        return false;
-                    }
-                } else if (c.getType() != CaseType.EMPTY) {
-                    return false;
-                }
-            } else {
-                if (c.getType() == CaseType.WHITE_LADY || c.getType() == CaseType.WHITE_PAWN) {
-                    if (c.getNeighbour(direction) != null && c.getNeighbour(direction).getType() == CaseType.EMPTY) {
-                        this.setConstraint(true);
-                        return true;
-                    } else {
-                        return false;
-                    }
-                } else if (c.getType() != CaseType.EMPTY) {
-                    return false;
-                }
-            }
-            c = c.getNeighbour(direction);
-        }
-        return false;
-    }
-
-    private boolean computeColoredConstraint(Map.Entry<Direction, Case> entry, Case c, CaseType whiteLady, CaseType whitePawn, CaseType blackLady, CaseType blackPawn) {
-        if (this.getType() == whiteLady || this.getType() == whitePawn) {
-            if (c.getType() == blackLady || c.getType() == blackPawn) {
-                if (c.getNeighbour(entry.getKey()) != null
-                        && c.getNeighbour(entry.getKey()).getType() == CaseType.EMPTY ) {
-                    this.setConstraint(true);
-                    return true;
-                }
-            }
-        }
-        return false;
-    }
-
     /**
      * Compute if the player can select this case, following the player color.
      * @param pColor&
@@ -208,154 +129,6 @@ public class Case {
         return false;
     }
 
-    /**
-     * Compute all the reachable cases in the neighbourhood of this case.
-     * @param pColor Color of the current player.
-     */
-    public void computeReachable(PlayerColor pColor) {
-        if (this.isConstraint) {
-            if (this.type == CaseType.BLACK_LADY || this.type == CaseType.WHITE_LADY) {
-                computeLadyReachableConstrained(Direction.TOP_RIGHT);
-                computeLadyReachableConstrained(Direction.TOP_LEFT);
-                computeLadyReachableConstrained(Direction.BOTTOM_LEFT);
-                computeLadyReachableConstrained(Direction.BOTTOM_RIGHT);
-            }
-            if (pColor == PlayerColor.WHITE) {
-                for (var entry : neighbour.entrySet()) {
-                   Case nei = entry.getValue();
-                   if (nei != null && (nei.getType() == CaseType.BLACK_LADY || nei.getType() == CaseType.BLACK_PAWN)) {
-                       if (nei.getNeighbour(entry.getKey()).getType() == CaseType.EMPTY) {
-                           nei.getNeighbour(entry.getKey()).setReachable(true);
-                       }
-                   }
-                }
-            } else {
-                for (var entry : neighbour.entrySet()) {
-                    Case nei = entry.getValue();
-                    if (nei != null && (nei.getType() == CaseType.WHITE_PAWN || nei.getType() == CaseType.WHITE_LADY)) {
-                        if (nei.getNeighbour(entry.getKey()) != null && nei.getNeighbour(entry.getKey()).getType() == CaseType.EMPTY) {
-                            nei.getNeighbour(entry.getKey()).setReachable(true);
-                        }
-                    }
-                }
-            }
-        } else {
-            if (pColor == PlayerColor.BLACK) {
-                if (type == CaseType.BLACK_LADY) {
-                    computeLadyReachable(Direction.TOP_RIGHT);
-                    computeLadyReachable(Direction.TOP_LEFT);
-                    computeLadyReachable(Direction.BOTTOM_RIGHT);
-                    computeLadyReachable(Direction.BOTTOM_LEFT);
-                    return;
-                }
-
-                if (neighbour.get(Direction.BOTTOM_RIGHT) != null
-                        && neighbour.get(Direction.BOTTOM_RIGHT).getType() == CaseType.EMPTY) {
-                    neighbour.get(Direction.BOTTOM_RIGHT).setReachable(true);
-                }
-                if (neighbour.get(Direction.TOP_RIGHT) != null
-                        && neighbour.get(Direction.TOP_RIGHT).getType() == CaseType.EMPTY) {
-                    neighbour.get(Direction.TOP_RIGHT).setReachable(true);
-                }
-            } else {
-                if (type == CaseType.WHITE_LADY) {
-                    computeLadyReachable(Direction.TOP_RIGHT);
-                    computeLadyReachable(Direction.TOP_LEFT);
-                    computeLadyReachable(Direction.BOTTOM_RIGHT);
-                    computeLadyReachable(Direction.BOTTOM_LEFT);
-                    return;
-                }
-
-                if (neighbour.get(Direction.TOP_LEFT) != null
-                        && neighbour.get(Direction.TOP_LEFT).getType() == CaseType.EMPTY) {
-                    neighbour.get(Direction.TOP_LEFT).setReachable(true);
-                }
-                if (neighbour.get(Direction.BOTTOM_LEFT) != null
-                        && neighbour.get(Direction.BOTTOM_LEFT).getType() == CaseType.EMPTY) {
-                    neighbour.get(Direction.BOTTOM_LEFT).setReachable(true);
-                }
-            }
-        }
-    }
-
-    private void computeLadyReachable(Direction direction) {
-        Case c = getNeighbour(direction);
-        while (c != null && c.getType() == CaseType.EMPTY) {
-            c.setReachable(true);
-            c = c.getNeighbour(direction);
-        }
-    }
-    private void computeLadyReachableConstrained(Direction direction) {
-        Case c = getNeighbour(direction);
-        while (c != null) {
-            if (type == CaseType.WHITE_LADY) {
-                if (c.getType() == CaseType.BLACK_LADY || c.getType() == CaseType.BLACK_PAWN) {
-                    if (c.getNeighbour(direction) != null && c.getNeighbour(direction).getType() == CaseType.EMPTY) {
-                        c = c.getNeighbour(direction);
-                        while (c != null) {
-                            if (c.type == CaseType.EMPTY) {
-                                c.setReachable(true);
-                            } else {
-                                return;
-                            }
-                            c = c.getNeighbour(direction);
-                        }
-                        return;
-                    } else {
-                        return;
-                    }
-                }
-            } else {
-                if (c.getType() == CaseType.WHITE_LADY || c.getType() == CaseType.WHITE_PAWN) {
-                    if (c.getNeighbour(direction) != null && c.getNeighbour(direction).getType() == CaseType.EMPTY) {
-                        c = c.getNeighbour(direction);
-                        while (c != null) {
-                            if (c.type == CaseType.EMPTY) {
-                                c.setReachable(true);
-                            } else {
-                                return;
-                            }
-                            c = c.getNeighbour(direction);
-                        }
-                        return;
-                    } else {
-                        return;
-                    }
-                }
-            }
-            c = c.getNeighbour(direction);
-        }
-    }
-
-    /**
-     * Compute a pawn to eat another one.
-     * @param destination Destination of the moving pawn.
-     */
-    public MovementType eat(Case destination) {
-        Direction dir = null;
-        MovementType mt = MovementType.MOVEMENT_WITHOUT_TAKE;
-
-        if (destination.getPosX() < this.posX && destination.getPosY() < this.posY) {
-            dir = Direction.TOP_LEFT;
-        } else if (destination.getPosX() > this.posX && destination.getPosY() < this.posY) {
-            dir = Direction.BOTTOM_LEFT;
-        } else if (destination.getPosX() < this.posX && destination.getPosY() > this.posY) {
-            dir = Direction.TOP_RIGHT;
-        } else if (destination.getPosX() > this.posX && destination.getPosY() > this.posY) {
-            dir = Direction.BOTTOM_RIGHT;
-        }
-        Case c = getNeighbour(dir);
-
-        while (c != destination) {
-            if (c.getType() != CaseType.EMPTY) {
-                c.setType(CaseType.EMPTY);
-                mt = MovementType.MOVEMENT_WITH_TAKE;
-            }
-            c = c.getNeighbour(dir);
-        }
-        return mt;
-    }
-
     /**
      * Compute if the case is in the neighbourhood of this case.
      * @param c The case to be computed with.
@@ -378,7 +151,7 @@ public class Case {
     }
 
     public Case getNeighbour(Direction direction) {
-        return neighbour.get(direction);
+        return neighbours[direction.ordinal()];
     }
 
     public boolean isSelected() {
@@ -388,27 +161,33 @@ public class Case {
     private void setSelected(boolean selected) {
         boolean old = this.isSelected;
         this.isSelected = selected;
-        propertyChangeSupport.firePropertyChange(IS_SELECTED_CHANGED, old, this.isSelected);
+        if (old != this.isSelected) {
+            fireChange(IS_SELECTED_CHANGED, old, this.isSelected);
+        }
     }
 
     public boolean isConstraint() {
         return isConstraint;
     }
 
-    private void setConstraint(boolean constraint) {
+    void setConstraint(boolean constraint) {
         boolean old = this.isConstraint;
         isConstraint = constraint;
-        propertyChangeSupport.firePropertyChange(IS_CONSTRAINT_CHANGED, old, this.isConstraint);
+        if (old != this.isConstraint) {
+            fireChange(IS_CONSTRAINT_CHANGED, old, this.isConstraint);
+        }
     }
 
     public boolean isReachable() {
         return isReachable;
     }
 
-    private void setReachable(boolean reachable) {
+    void setReachable(boolean reachable) {
         boolean old = this.isReachable;
         isReachable = reachable;
-        propertyChangeSupport.firePropertyChange(IS_REACHABLE_CHANGED, old, this.isReachable);
+        if (old != this.isReachable) {
+            fireChange(IS_REACHABLE_CHANGED, old, this.isReachable);
+        }
     }
 
     public CaseType getType() {
@@ -428,7 +207,28 @@ public class Case {
             this.type = CaseType.BLACK_LADY;
         }
 
-        propertyChangeSupport.firePropertyChange(TYPE_CHANGED, old, this.type);
+        if (old != this.type) {
+            if (board != null) {
+                board.onTypeChanged(this, old, this.type);
+            }
+            fireChange(TYPE_CHANGED, old, this.type);
+        }
+    }
+
+    /**
+     * Notify a change of the case, as decided by its board.
+     * @param propertyName Name of the changed property.
+     * @param old Old value.
+     * @param value New value.
+     */
+    private void fireChange(String propertyName, Object old, Object value) {
+        if (board == null || board.onCaseChanged(this, propertyName)) {
+            propertyChangeSupport.firePropertyChange(propertyName, old, value);
+        }
+    }
+
+    void setBoard(Board board) {
+        this.board = board;
     }
 
     public int getPosX() {
@@ -468,13 +268,6 @@ public class Case {
         setSelected(false);
     }
 
-    /**
-     * Reset all constraint applied on this case.
-     */
-    public void resetConstraint() {
-        setConstraint(false);
-    }
-
     /**
      * The different direction of neighbour.
      */
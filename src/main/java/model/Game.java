@@ -1,10 +1,13 @@
 package model;
 
+import model.enums.GameOutcome;
 import model.enums.MovementType;
 import model.enums.PlayerColor;
 
 import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Hold all the game logics.
@@ -16,6 +19,16 @@ public class Game {
      */
     public static final String PLAYER_CHANGED = "player_changed";
 
+    /**
+     * Property name when a move is added to the history, undone or redone.
+     */
+    public static final String HISTORY_CHANGED = "history_changed";
+
+    /**
+     * Property name when the outcome of the game change (the game is over, or goes on again after an undo).
+     */
+    public static final String OUTCOME_CHANGED = "outcome_changed";
+
     /**
      * Property change boiler code to implement listener (modern way).
      */
@@ -47,11 +60,145 @@ public class Game {
      */
     private final Board board;
 
+    /**
+     * State of the game at the start and after each move, to undo and redo the moves.
+     */
+    private final List<GameSnapshot> history = new ArrayList<>();
+
+    /**
+     * State of the referee for each state of the history, so that moving in the history doesn't check again all the
+     * moves.
+     */
+    private final List<GameReferee> refereeHistory = new ArrayList<>();
+
+    /**
+     * Index in the history of the state of the last move played (the next states are the undone moves).
+     */
+    private int historyIndex = 0;
+
+    /**
+     * Decide the end of the game after each move.
+     */
+    private final GameReferee referee = new GameReferee();
+
     public Game(String playerOne, String playerTwo) {
-        this.playerBlack = new Player(playerOne, PlayerColor.BLACK);
-        this.playerWhite = new Player(playerTwo, PlayerColor.WHITE);
+        this(new Player(playerOne, PlayerColor.BLACK), new Player(playerTwo, PlayerColor.WHITE));
+    }
+
+    /**
+     * Create a game with given players (to use automated players).
+     * @param playerBlack The player with black pawn.
+     * @param playerWhite The player with white pawn.
+     */
+    public Game(Player playerBlack, Player playerWhite) {
+        this.playerBlack = playerBlack;
+        this.playerWhite = playerWhite;
         this.board = new Board();
         this.currentPlayer = playerWhite;
+        this.history.add(snapshot());
+        this.referee.reset(board.getPosition(), PlayerColor.WHITE);
+        this.refereeHistory.add(referee.copy());
+    }
+
+    /**
+     * Create a game with given players, in the state of a snapshot (to resume a saved game).
+     * @param playerBlack The player with black pawn.
+     * @param playerWhite The player with white pawn.
+     * @param snapshot The state of the game.
+     */
+    public Game(Player playerBlack, Player playerWhite, GameSnapshot snapshot) {
+        this(playerBlack, playerWhite);
+        this.board.restore(snapshot);
+        this.currentPlayer = snapshot.getCurrentColor() == PlayerColor.WHITE ? playerWhite : playerBlack;
+        this.history.set(0, snapshot);
+        this.referee.reset(board.getPosition(), snapshot.getCurrentColor());
+        this.refereeHistory.set(0, referee.copy());
+    }
+
+    /**
+     * Take a snapshot of the state of the game (see {@link GameSnapshot}).
+     * @return The snapshot.
+     */
+    public GameSnapshot snapshot() {
+        return GameSnapshot.of(board, currentPlayer.getColor());
+    }
+
+    /**
+     * Put the game back in the state of a snapshot. Only the cases which differ are updated, and the current player
+     * changes if needed. The history of the moves restarts from this state.
+     * @param snapshot The snapshot.
+     */
+    public void restore(GameSnapshot snapshot) {
+        apply(snapshot);
+        history.clear();
+        history.add(snapshot);
+        historyIndex = 0;
+        GameOutcome old = referee.getOutcome();
+        referee.reset(board.getPosition(), snapshot.getCurrentColor());
+        refereeHistory.clear();
+        refereeHistory.add(referee.copy());
+        propertyChangeSupport.firePropertyChange(OUTCOME_CHANGED, old, referee.getOutcome());
+        propertyChangeSupport.firePropertyChange(HISTORY_CHANGED, null, historyIndex);
+    }
+
+    /**
+     * Undo the last move (or the steps already played of the current raid). Only the cases touched by the move are
+     * updated.
+     * @return If something has been undone.
+     */
+    public boolean undo() {
+        if (isAtHistory()) {
+            if (historyIndex == 0) {
+                return false;
+            }
+            historyIndex--;
+        }
+        apply(history.get(historyIndex));
+        restoreReferee();
+        propertyChangeSupport.firePropertyChange(HISTORY_CHANGED, null, historyIndex);
+        return true;
+    }
+
+    /**
+     * Play again the last undone move. Only the cases touched by the move are updated.
+     * @return If a move has been redone.
+     */
+    public boolean redo() {
+        if (!canRedo()) {
+            return false;
+        }
+        historyIndex++;
+        apply(history.get(historyIndex));
+        restoreReferee();
+        propertyChangeSupport.firePropertyChange(HISTORY_CHANGED, null, historyIndex);
+        return true;
+    }
+
+    public boolean canUndo() {
+        return historyIndex > 0 || !isAtHistory();
+    }
+
+    /**
+     * Check if a move can be redone (the undone moves are forgotten when another move is played).
+     * @return If a move can be redone.
+     */
+    public boolean canRedo() {
+        return historyIndex < history.size() - 1 && isAtHistory();
+    }
+
+    /**
+     * Check if the game is in the state of the last move of the history (and not in the middle of a raid).
+     */
+    private boolean isAtHistory() {
+        return history.get(historyIndex).equals(snapshot());
+    }
+
+    private void apply(GameSnapshot snapshot) {
+        this.board.restore(snapshot);
+        Player player = snapshot.getCurrentColor() == PlayerColor.WHITE ? playerWhite : playerBlack;
+        if (player != currentPlayer) {
+            switchPlayer();
+        }
     }
 
     /**
@@ -61,6 +208,9 @@ public class Game {
      * @param posY Y position of the action.
      */
     public void caseAction(int posX, int posY) {
+        if (isOver()) {
+            return;
+        }
         MovementType movementType = MovementType.NO_MOVEMENT;
         if (currentPlayer == playerWhite) {
             movementType = this.board.computeSelected(PlayerColor.WHITE, posX, posY);
@@ -72,34 +222,91 @@ public class Game {
             case NO_MOVEMENT -> {
 
             }
-            case MOVEMENT_WITHOUT_TAKE -> {
-                switchPlayer();
-                if (currentPlayer == playerWhite) {
-                    this.board.computeConstraint(PlayerColor.WHITE);
-                } else {
-                    this.board.computeConstraint(PlayerColor.BLACK);
-                }
-            }
+            case MOVEMENT_WITHOUT_TAKE -> endMove();
             case MOVEMENT_WITH_TAKE -> {
+                boolean isRaidContinuing;
                 if (currentPlayer == playerWhite) {
-                    this.board.computeConstraint(PlayerColor.WHITE);
+                    isRaidContinuing = this.board.computeConstraint(PlayerColor.WHITE);
                 } else {
-                    this.board.computeConstraint(PlayerColor.BLACK);
-                }
-
-                if (!board.isBoardConstraint()) {
-                    switchPlayer();
+                    isRaidContinuing = this.board.computeConstraint(PlayerColor.BLACK);
                 }
 
-                if (currentPlayer == playerWhite) {
-                    this.board.computeConstraint(PlayerColor.WHITE);
-                } else {
-                    this.board.computeConstraint(PlayerColor.BLACK);
+                if (!isRaidContinuing) {
+                    endMove();
                 }
             }
         }
     }
 
+    /**
+     * Play a complete move (see {@link model.bitboard.Move}) for the current player, and give the hand to the other
+     * player.
+     * @param move The move to play (must be one of the legal moves of the current player).
+     * @throws IllegalStateException If the game is over.
+     */
+    public void playMove(long move) {
+        if (isOver()) {
+            throw new IllegalStateException("The game is over");
+        }
+        this.board.makeMove(move);
+        addToHistory(currentPlayer == playerWhite ? PlayerColor.BLACK : PlayerColor.WHITE);
+        switchPlayer();
+    }
+
+    /**
+     * Ask the current player to choose its move and play it, if the player is automated.
+     * @return If a move has been played.
+     */
+    public boolean playAutomatedMove() {
+        if (!(currentPlayer instanceof AutomatedPlayer player) || isOver()) {
+            return false;
+        }
+        long move = player.chooseMove(board);
+        if (move == 0) {
+            return false;
+        }
+        playMove(move);
+        return true;
+    }
+
+    /**
+     * End the move of the current player: compute the constraint of the other player, add the move to the history
+     * and give the hand to the other player.
+     */
+    private void endMove() {
+        PlayerColor next = currentPlayer == playerWhite ? PlayerColor.BLACK : PlayerColor.WHITE;
+        this.board.computeConstraint(next);
+        addToHistory(next);
+        switchPlayer();
+    }
+
+    /**
+     * Add the state after a move to the history (the undone moves are forgotten).
+     * @param next The player who plays the next move.
+     */
+    private void addToHistory(PlayerColor next) {
+        history.subList(historyIndex + 1, history.size()).clear();
+        history.add(GameSnapshot.of(board, next));
+        refereeHistory.subList(historyIndex + 1, refereeHistory.size()).clear();
+        historyIndex++;
+        GameOutcome old = referee.getOutcome();
+        referee.play(board.getPosition(), next);
+        refereeHistory.add(referee.copy());
+        propertyChangeSupport.firePropertyChange(HISTORY_CHANGED, null, historyIndex);
+        propertyChangeSupport.firePropertyChange(OUTCOME_CHANGED, old, referee.getOutcome());
+    }
+
+    /**
+     * Put the referee back in its state of the current state of the history, after moving in the history.
+     */
+    private void restoreReferee() {
+        GameOutcome old = referee.getOutcome();
+        referee.restore(refereeHistory.get(historyIndex));
+        if (old != referee.getOutcome()) {
+            propertyChangeSupport.firePropertyChange(OUTCOME_CHANGED, old, referee.getOutcome());
+        }
+    }
+
     private void switchPlayer() {
         Player old = this.currentPlayer;
         if (currentPlayer == playerWhite) {
@@ -118,7 +325,31 @@ public class Game {
         return playerWhite;
     }
 
+    public Player getCurrentPlayer() {
+        return currentPlayer;
+    }
+
     public Board getBoard() {
         return board;
     }
+
+    /**
+     * Get the outcome of the game, decided after each move (see {@link GameReferee}).
+     * @return The outcome, or {@link GameOutcome#UNKNOWN} if the game goes on.
+     */
+    public GameOutcome getOutcome() {
+        return referee.getOutcome();
+    }
+
+    /**
+     * Get why the game ended.
+     * @return The reason, or {@link GameReferee.Reason#NONE} if the game goes on.
+     */
+    public GameReferee.Reason getOutcomeReason() {
+        return referee.getReason();
+    }
+
+    public boolean isOver() {
+        return referee.getOutcome() != GameOutcome.UNKNOWN;
+    }
 }
@@ -0,0 +1,279 @@
+package model;
+
+import model.bitboard.BitBoard;
+import model.bitboard.MoveGenerator;
+import model.enums.CaseType;
+import model.enums.GameOutcome;
+import model.enums.PlayerColor;
+
+/**
+ * Decide the end of a game after each move, following the rules of the international draughts:
+ * <ul>
+ *     <li>the player to move loses if no piece is left or no move is possible;</li>
+ *     <li>the game is a draw when the same position comes for the third time with the same player to move;</li>
+ *     <li>the game is a draw after 25 moves of each player where only ladies moved without taking;</li>
+ *     <li>the game is a draw after 16 moves of each player with 3 pieces (at least one lady) against a lone lady,
+ *     or after 5 moves of each player with 2 pieces or less (at least one lady) against a lone lady.</li>
+ * </ul>
+ * A position can only come back while only ladies move without taking, which is at most 50 plies before the draw.
+ * So the keys of the positions since the last pawn move or take are kept in a small ring, and each move is checked in
+ * a bounded time. The state of the referee can be copied after each move (see {@link #copy()}), so that going back in
+ * the history of a game is a {@link #restore(GameReferee)} instead of checking again all the moves.
+ */
+public final class GameReferee {
+
+    /**
+     * Why the game ended.
+     */
+    public enum Reason {
+        NONE,
+        NO_PIECE,
+        NO_MOVE,
+        REPETITION,
+        LADY_MOVES,
+        ENDGAME
+    }
+
+    /**
+     * Number of plies with only ladies moving without taking before the draw (25 moves of each player).
+     */
+    public static final int LADY_MOVES_PLIES = 50;
+
+    /**
+     * Number of plies before the draw with 3 pieces against a lone lady (16 moves of each player).
+     */
+    public static final int LARGE_ENDGAME_PLIES = 32;
+
+    /**
+     * Number of plies before the draw with 2 pieces or less against a lone lady (5 moves of each player).
+     */
+    public static final int SMALL_ENDGAME_PLIES = 10;
+
+    /**
+     * Size of the ring of the keys (a power of 2 greater than {@link #LADY_MOVES_PLIES}).
+     */
+    private static final int RING_SIZE = 64;
+
+    /**
+     * Keys of the positions since the last pawn move or take, the last one at {@code head - 1}.
+     */
+    private final long[] keys = new long[RING_SIZE];
+
+    private int head = 0;
+
+    /**
+     * Number of plies since the last pawn move or take.
+     */
+    private int reversiblePlies = 0;
+
+    /**
+     * Pawns and number of pieces of the last position, to find the pawn moves and the takes.
+     */
+    private long pawns = 0;
+    private int pieces = 0;
+
+    /**
+     * Code of the material of the last position (see {@link #materialOf(BitBoard)}) and number of plies since it
+     * changed.
+     */
+    private int material = 0;
+    private int materialPlies = 0;
+
+    private GameOutcome outcome = GameOutcome.UNKNOWN;
+
+    private Reason reason = Reason.NONE;
+
+    /**
+     * Start a game from a position.
+     * @param position The position.
+     * @param next The player to move.
+     * @return The outcome of the position (only a loss of the player to move can end it).
+     */
+    public GameOutcome reset(BitBoard position, PlayerColor next) {
+        head = 0;
+        reversiblePlies = 0;
+        keys[head++] = position.getKey();
+        pawns = pawnsOf(position);
+        pieces = Long.bitCount(position.getWhite() | position.getBlack());
+        material = materialOf(position);
+        materialPlies = 0;
+        outcome = GameOutcome.UNKNOWN;
+        reason = Reason.NONE;
+        checkLoss(position, next);
+        return outcome;
+    }
+
+    /**
+     * Check the position after a complete move (with all the takes of the raid).
+     * @param position The position after the move.
+     * @param next The player to move.
+     * @return The outcome of the game ({@link GameOutcome#UNKNOWN} if it goes on).
+     */
+    public GameOutcome play(BitBoard position, PlayerColor next) {
+        long newPawns = pawnsOf(position);
+        int newPieces = Long.bitCount(position.getWhite() | position.getBlack());
+        if (newPawns != pawns || newPieces != pieces) {
+            reversiblePlies = 0;
+        } else {
+            reversiblePlies++;
+        }
+        pawns = newPawns;
+        pieces = newPieces;
+        long key = position.getKey();
+        keys[head] = key;
+        head = (head + 1) & (RING_SIZE - 1);
+
+        int newMaterial = materialOf(position);
+        if (newMaterial != material) {
+            material = newMaterial;
+            materialPlies = 0;
+        } else {
+            materialPlies++;
+        }
+
+        if (outcome != GameOutcome.UNKNOWN || checkLoss(position, next)) {
+            return outcome;
+        }
+        if (isThirdRepetition(key)) {
+            draw(Reason.REPETITION);
+        } else if (reversiblePlies >= LADY_MOVES_PLIES) {
+            draw(Reason.LADY_MOVES);
+        } else {
+            int limit = endgameLimit(position);
+            if (limit != 0 && materialPlies >= limit) {
+                draw(Reason.ENDGAME);
+            }
+        }
+        return outcome;
+    }
+
+    /**
+     * Copy the state of the referee (the ring of the keys, the counters and the outcome).
+     * @return The copy.
+     */
+    public GameReferee copy() {
+        GameReferee copy = new GameReferee();
+        copy.restore(this);
+        return copy;
+    }
+
+    /**
+     * Put the referee back in the state of a copy, in a constant time.
+     * @param state The copy (see {@link #copy()}).
+     */
+    public void restore(GameReferee state) {
+        System.arraycopy(state.keys, 0, keys, 0, RING_SIZE);
+        head = state.head;
+        reversiblePlies = state.reversiblePlies;
+        pawns = state.pawns;
+        pieces = state.pieces;
+        material = state.material;
+        materialPlies = state.materialPlies;
+        outcome = state.outcome;
+        reason = state.reason;
+    }
+
+    public GameOutcome getOutcome() {
+        return outcome;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+
+    /**
+     * Get the number of plies since the last pawn move or take (the draw comes at {@link #LADY_MOVES_PLIES}).
+     * @return The number of plies.
+     */
+    public int getReversiblePlies() {
+        return reversiblePlies;
+    }
+
+    /**
+     * Check if the player to move lost: no piece is left or no move is possible.
+     * @param position The position.
+     * @param next The player to move.
+     * @return Why the player lost, or {@link Reason#NONE} if the game goes on.
+     */
+    public static Reason lossOf(BitBoard position, PlayerColor next) {
+        if (position.getPieces(next) == 0) {
+            return Reason.NO_PIECE;
+        }
+        if (!MoveGenerator.hasMoves(position, next)) {
+            return Reason.NO_MOVE;
+        }
+        return Reason.NONE;
+    }
+
+    private boolean checkLoss(BitBoard position, PlayerColor next) {
+        Reason loss = lossOf(position, next);
+        if (loss == Reason.NONE) {
+            return false;
+        }
+        outcome = next == PlayerColor.WHITE ? GameOutcome.BLACK_WIN : GameOutcome.WHITE_WIN;
+        reason = loss;
+        return true;
+    }
+
+    private void draw(Reason drawReason) {
+        outcome = GameOutcome.DRAW;
+        reason = drawReason;
+    }
+
+    /**
+     * Count the previous positions with the same key and the same player to move (every 2 plies), since the last
+     * pawn move or take.
+     */
+    private boolean isThirdRepetition(long key) {
+        int count = 1;
+        int last = Math.min(reversiblePlies, RING_SIZE - 1);
+        for (int i = 2; i <= last; i += 2) {
+            if (keys[(head - 1 - i) & (RING_SIZE - 1)] == key && ++count >= 3) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get the number of plies before the draw of the material of a position (0 if no endgame rule applies).
+     */
+    private static int endgameLimit(BitBoard position) {
+        int whiteLadies = position.getCount(CaseType.WHITE_LADY);
+        int whitePawns = position.getCount(CaseType.WHITE_PAWN);
+        int blackLadies = position.getCount(CaseType.BLACK_LADY);
+        int blackPawns = position.getCount(CaseType.BLACK_PAWN);
+        if (blackLadies == 1 && blackPawns == 0) {
+            return endgameLimit(whiteLadies, whitePawns);
+        }
+        if (whiteLadies == 1 && whitePawns == 0) {
+            return endgameLimit(blackLadies, blackPawns);
+        }
+        return 0;
+    }
+
+    /**
+     * Get the number of plies before the draw of the pieces of a side against a lone lady.
+     */
+    private static int endgameLimit(int ladies, int pawns) {
+        if (ladies == 0) {
+            return 0;
+        }
+        if (ladies + pawns <= 2) {
+            return SMALL_ENDGAME_PLIES;
+        }
+        return ladies + pawns == 3 ? LARGE_ENDGAME_PLIES : 0;
+    }
+
+    private static long pawnsOf(BitBoard position) {
+        return (position.getWhite() | position.getBlack()) & ~position.getLadies();
+    }
+
+    /**
+     * Get the code of the material of a position (one byte by type of piece).
+     */
+    private static int materialOf(BitBoard position) {
+        return position.getCount(CaseType.WHITE_PAWN) | position.getCount(CaseType.WHITE_LADY) << 8
+                | position.getCount(CaseType.BLACK_PAWN) << 16 | position.getCount(CaseType.BLACK_LADY) << 24;
+    }
+}
@@ -0,0 +1,174 @@
+package model;
+
+import model.bitboard.BitBoard;
+import model.enums.CaseType;
+import model.enums.PlayerColor;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Snapshot of the state of a game: the pieces, the player to move, the pawn in raid and the constraint tiles. It only
+ * holds primitives (no case nor player), so it is cheap to take, to keep and to restore (see
+ * {@link Game#restore(GameSnapshot)}), and it can be written as {@link #SIZE} bytes (see {@link #toBytes()}). The
+ * selection of the current player is not kept.
+ */
+public final class GameSnapshot {
+
+    /**
+     * Size of the encoded snapshot in bytes.
+     */
+    public static final int SIZE = 4 * Long.BYTES + 3;
+
+    /**
+     * Version of the encoding (first byte).
+     */
+    private static final byte VERSION = 1;
+
+    private final long white;
+
+    private final long black;
+
+    private final long ladies;
+
+    /**
+     * Mask of the constraint tiles.
+     */
+    private final long constraints;
+
+    /**
+     * Tile of the pawn in raid (-1 if none).
+     */
+    private final int raidSquare;
+
+    /**
+     * The player to move.
+     */
+    private final PlayerColor currentColor;
+
+    public GameSnapshot(long white, long black, long ladies, long constraints, int raidSquare,
+                        PlayerColor currentColor) {
+        if ((white & black) != 0 || ((white | black | ladies) & ~BitBoard.ALL) != 0
+                || (ladies & ~(white | black)) != 0 || raidSquare < -1 || raidSquare >= BitBoard.SIZE) {
+            throw new IllegalArgumentException("Invalid game snapshot");
+        }
+        this.white = white;
+        this.black = black;
+        this.ladies = ladies;
+        this.constraints = constraints;
+        this.raidSquare = raidSquare;
+        this.currentColor = currentColor;
+    }
+
+    /**
+     * Take the snapshot of a board.
+     * @param board The board.
+     * @param currentColor The player to move.
+     * @return The snapshot.
+     */
+    static GameSnapshot of(Board board, PlayerColor currentColor) {
+        BitBoard position = board.getPosition();
+        return new GameSnapshot(position.getWhite(), position.getBlack(), position.getLadies(),
+                board.getConstraints(), board.getRaidSquare(), currentColor);
+    }
+
+    /**
+     * Encode the snapshot.
+     * @return The {@link #SIZE} bytes of the snapshot.
+     */
+    public byte[] toBytes() {
+        return ByteBuffer.allocate(SIZE)
+                .put(VERSION)
+                .putLong(white).putLong(black).putLong(ladies).putLong(constraints)
+                .put((byte) raidSquare)
+                .put((byte) (currentColor == PlayerColor.WHITE ? 0 : 1))
+                .array();
+    }
+
+    /**
+     * Decode a snapshot.
+     * @param bytes The bytes written by {@link #toBytes()}.
+     * @return The snapshot.
+     * @throws IllegalArgumentException If the bytes are not a valid snapshot.
+     */
+    public static GameSnapshot fromBytes(byte[] bytes) {
+        if (bytes.length != SIZE || bytes[0] != VERSION) {
+            throw new IllegalArgumentException("Invalid game snapshot");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, 1, SIZE - 1);
+        return new GameSnapshot(buffer.getLong(), buffer.getLong(), buffer.getLong(), buffer.getLong(),
+                buffer.get(), buffer.get() == 0 ? PlayerColor.WHITE : PlayerColor.BLACK);
+    }
+
+    /**
+     * Create the compact position of the snapshot (for example to analyse it in another thread).
+     * @return A new position, with the player to move and the pawn in raid.
+     */
+    public BitBoard toBitBoard() {
+        BitBoard position = new BitBoard();
+        long pieces = white | black;
+        while (pieces != 0) {
+            int sq = Long.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+            position.set(sq, get(sq));
+        }
+        position.setSideToMove(currentColor);
+        position.setRaidSquare(raidSquare);
+        return position;
+    }
+
+    /**
+     * Get the type of a tile.
+     * @param square The tile.
+     * @return The type of pawn on the tile.
+     */
+    public CaseType get(int square) {
+        long bit = 1L << square;
+        boolean isLady = (ladies & bit) != 0;
+        if ((white & bit) != 0) {
+            return isLady ? CaseType.WHITE_LADY : CaseType.WHITE_PAWN;
+        }
+        if ((black & bit) != 0) {
+            return isLady ? CaseType.BLACK_LADY : CaseType.BLACK_PAWN;
+        }
+        return CaseType.EMPTY;
+    }
+
+    public long getWhite() {
+        return white;
+    }
+
+    public long getBlack() {
+        return black;
+    }
+
+    public long getLadies() {
+        return ladies;
+    }
+
+    public long getConstraints() {
+        return constraints;
+    }
+
+    public int getRaidSquare() {
+        return raidSquare;
+    }
+
+    public PlayerColor getCurrentColor() {
+        return currentColor;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof GameSnapshot that)) return false;
+        return white == that.white && black == that.black && ladies == that.ladies
+                && constraints == that.constraints && raidSquare == that.raidSquare
+                && currentColor == that.currentColor;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(white * 31 + black) ^ Long.hashCode(ladies * 31 + constraints)
+                ^ (raidSquare * 2 + currentColor.ordinal());
+    }
+}
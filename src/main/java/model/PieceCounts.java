@@ -0,0 +1,19 @@
+package model;
+
+/**
+ * Number of pieces of each type on a board at a given time (see {@link Board#getPieceCounts()}).
+ * @param whitePawns Number of white pawns.
+ * @param whiteLadies Number of white ladies.
+ * @param blackPawns Number of black pawns.
+ * @param blackLadies Number of black ladies.
+ */
+public record PieceCounts(int whitePawns, int whiteLadies, int blackPawns, int blackLadies) {
+
+    public int white() {
+        return whitePawns + whiteLadies;
+    }
+
+    public int black() {
+        return blackPawns + blackLadies;
+    }
+}
@@ -0,0 +1,684 @@
+package model.bitboard;
+
+import model.enums.CaseType;
+import model.enums.PlayerColor;
+
+import java.util.Arrays;
+
+/**
+ * Compact representation of a board position. Only the 50 dark tiles can hold a pawn, so each of them is mapped to a
+ * bit of a long (tile 0 is the top left dark tile and tile 49 the bottom right one, like the international numbering
+ * minus one). The position is stored as three masks (white pieces, black pieces and ladies), so all the rules queries
+ * become mask operations instead of walking the graph of cases.
+ */
+public class BitBoard {
+
+    /**
+     * Number of dark tiles (the only playable ones).
+     */
+    public static final int SIZE = 50;
+
+    /**
+     * Mask with all the playable tiles.
+     */
+    public static final long ALL = (1L << SIZE) - 1;
+
+    /**
+     * Tiles where a white pawn become a lady (Y = 0).
+     */
+    public static final long WHITE_PROMOTION = 0x1FL;
+
+    /**
+     * Tiles where a black pawn become a lady (Y = 9).
+     */
+    public static final long BLACK_PROMOTION = 0x1FL << 45;
+
+    /**
+     * Directions index (same order than {@link model.Case.Direction}).
+     */
+    public static final int TOP_LEFT = 0;
+    public static final int TOP_RIGHT = 1;
+    public static final int BOTTOM_LEFT = 2;
+    public static final int BOTTOM_RIGHT = 3;
+
+    /**
+     * Tiles on the even lines (Y = 0, 2, 4...).
+     */
+    private static final long EVEN_LINES;
+
+    /**
+     * Tiles on the odd lines (Y = 1, 3, 5...).
+     */
+    private static final long ODD_LINES;
+
+    /**
+     * Tiles on the left border (X = 0).
+     */
+    private static final long LEFT_BORDER;
+
+    /**
+     * Tiles on the right border (X = 9).
+     */
+    private static final long RIGHT_BORDER;
+
+    /**
+     * X position of each tile.
+     */
+    private static final int[] POS_X = new int[SIZE];
+
+    /**
+     * Y position of each tile.
+     */
+    private static final int[] POS_Y = new int[SIZE];
+
+    /**
+     * Tile index of each position (indexed by posX * 10 + posY), -1 for the light positions.
+     */
+    private static final int[] TILES = new int[100];
+
+    /**
+     * Neighbour tile of each tile in each direction (-1 if outside the board).
+     */
+    private static final int[][] NEIGHBOURS = new int[4][SIZE];
+
+    /**
+     * Tiles of the diagonal going from each tile in each direction (without the tile itself), as a mask.
+     */
+    private static final long[][] RAYS = new long[4][SIZE];
+
+    /**
+     * Tiles of the diagonal going from each tile in each direction, ordered from the nearest one.
+     */
+    private static final int[][][] RAY_SQUARES = new int[4][SIZE][];
+
+    static {
+        long even = 0;
+        long left = 0;
+        long right = 0;
+        for (int i = 0; i < 100; i++) {
+            TILES[i] = -1;
+        }
+        for (int sq = 0; sq < SIZE; sq++) {
+            int y = sq / 5;
+            int x = 2 * (sq % 5) + (y % 2 == 0 ? 1 : 0);
+            POS_X[sq] = x;
+            POS_Y[sq] = y;
+            TILES[x * 10 + y] = sq;
+            if (y % 2 == 0) {
+                even |= 1L << sq;
+            }
+            if (x == 0) {
+                left |= 1L << sq;
+            }
+            if (x == 9) {
+                right |= 1L << sq;
+            }
+        }
+        EVEN_LINES = even;
+        ODD_LINES = ALL & ~even;
+        LEFT_BORDER = left;
+        RIGHT_BORDER = right;
+        for (int sq = 0; sq < SIZE; sq++) {
+            int x = POS_X[sq];
+            int y = POS_Y[sq];
+            NEIGHBOURS[TOP_LEFT][sq] = squareOf(x - 1, y - 1);
+            NEIGHBOURS[TOP_RIGHT][sq] = squareOf(x - 1, y + 1);
+            NEIGHBOURS[BOTTOM_LEFT][sq] = squareOf(x + 1, y - 1);
+            NEIGHBOURS[BOTTOM_RIGHT][sq] = squareOf(x + 1, y + 1);
+        }
+        for (int d = 0; d < 4; d++) {
+            for (int sq = 0; sq < SIZE; sq++) {
+                int[] squares = new int[9];
+                int length = 0;
+                for (int next = NEIGHBOURS[d][sq]; next != -1; next = NEIGHBOURS[d][next]) {
+                    squares[length++] = next;
+                    RAYS[d][sq] |= 1L << next;
+                }
+                RAY_SQUARES[d][sq] = Arrays.copyOf(squares, length);
+            }
+        }
+    }
+
+    /**
+     * White pieces (pawns and ladies).
+     */
+    private long white;
+
+    /**
+     * Black pieces (pawns and ladies).
+     */
+    private long black;
+
+    /**
+     * Ladies of both colors.
+     */
+    private long ladies;
+
+    /**
+     * Number of tiles of each type (indexed by the ordinal of {@link CaseType}).
+     */
+    private final int[] counts = new int[CaseType.values().length];
+
+    /**
+     * Moves played with {@link #makeMove(long)}, to be undone.
+     */
+    private long[] playedMoves = new long[32];
+
+    /**
+     * Ladies taken by each played move.
+     */
+    private long[] takenLadies = new long[32];
+
+    /**
+     * Raid tile before each played move.
+     */
+    private int[] raidSquares = new int[32];
+
+    /**
+     * Number of played moves.
+     */
+    private int ply = 0;
+
+    /**
+     * The player to move.
+     */
+    private PlayerColor sideToMove = PlayerColor.WHITE;
+
+    /**
+     * Tile of the pawn in raid (-1 if none).
+     */
+    private int raidSquare = -1;
+
+    /**
+     * Hash of the position (see {@link Zobrist}), kept up to date on each change.
+     */
+    private long key = 0;
+
+    public BitBoard() {
+        counts[CaseType.EMPTY.ordinal()] = SIZE;
+    }
+
+    /**
+     * Copy the pieces of a position (without the played moves).
+     * @param other The position to copy.
+     */
+    public BitBoard(BitBoard other) {
+        this.white = other.white;
+        this.black = other.black;
+        this.ladies = other.ladies;
+        this.sideToMove = other.sideToMove;
+        this.raidSquare = other.raidSquare;
+        this.key = other.key;
+        System.arraycopy(other.counts, 0, this.counts, 0, counts.length);
+    }
+
+    /**
+     * Get the tile at a given position.
+     * @param posX Position in X.
+     * @param posY Position in Y.
+     * @return The tile index (or -1 if the position is outside the board or a light tile).
+     */
+    public static int squareOf(int posX, int posY) {
+        if (posX < 0 || posX > 9 || posY < 0 || posY > 9) {
+            return -1;
+        }
+        return TILES[posX * 10 + posY];
+    }
+
+    public static int posXOf(int square) {
+        return POS_X[square];
+    }
+
+    public static int posYOf(int square) {
+        return POS_Y[square];
+    }
+
+    /**
+     * Get the neighbour of a tile.
+     * @param square The tile.
+     * @param direction The direction of the neighbour.
+     * @return The neighbour tile (or -1 if outside the board).
+     */
+    public static int neighbour(int square, int direction) {
+        return NEIGHBOURS[direction][square];
+    }
+
+    /**
+     * Get the tiles of the diagonal going from a tile in a direction, ordered from the nearest one.
+     * @param direction The direction.
+     * @param square The tile.
+     * @return The tiles (a shared array, which must not be modified).
+     */
+    public static int[] raySquares(int direction, int square) {
+        return RAY_SQUARES[direction][square];
+    }
+
+    /**
+     * Find the first occupied tile on the diagonal going from a tile in a direction.
+     * @param direction The direction.
+     * @param square The tile.
+     * @param occupied The occupied tiles.
+     * @return The nearest occupied tile (or -1 if the diagonal is free up to the border).
+     */
+    public static int firstBlocker(int direction, int square, long occupied) {
+        long blockers = RAYS[direction][square] & occupied;
+        if (blockers == 0) {
+            return -1;
+        }
+        // The tile index grows with Y, so toward the right directions.
+        return (direction == TOP_RIGHT || direction == BOTTOM_RIGHT)
+                ? Long.numberOfTrailingZeros(blockers) : 63 - Long.numberOfLeadingZeros(blockers);
+    }
+
+    /**
+     * Get the free tiles of the diagonal going from a tile in a direction, up to the first occupied one.
+     * @param direction The direction.
+     * @param square The tile.
+     * @param occupied The occupied tiles.
+     * @return The mask of the free tiles.
+     */
+    public static long freeRay(int direction, int square, long occupied) {
+        int blocker = firstBlocker(direction, square, occupied);
+        if (blocker == -1) {
+            return RAYS[direction][square];
+        }
+        return RAYS[direction][square] & ~RAYS[direction][blocker] & ~(1L << blocker);
+    }
+
+    /**
+     * Move all the tiles of a mask by one step in a direction. Tiles going outside the board are lost.
+     * @param mask The tiles to move.
+     * @param direction The direction.
+     * @return The moved mask.
+     */
+    public static long shift(long mask, int direction) {
+        return switch (direction) {
+            case TOP_LEFT -> ((mask & EVEN_LINES) >>> 5) | ((mask & ODD_LINES & ~LEFT_BORDER) >>> 6);
+            case TOP_RIGHT -> (((mask & EVEN_LINES) << 5) | ((mask & ODD_LINES & ~LEFT_BORDER) << 4)) & ALL;
+            case BOTTOM_LEFT -> ((mask & EVEN_LINES & ~RIGHT_BORDER) >>> 4) | ((mask & ODD_LINES) >>> 5);
+            default -> (((mask & EVEN_LINES & ~RIGHT_BORDER) << 6) | ((mask & ODD_LINES) << 5)) & ALL;
+        };
+    }
+
+    /**
+     * Get the opposite of a direction.
+     * @param direction The direction.
+     * @return The opposite direction.
+     */
+    public static int opposite(int direction) {
+        return 3 - direction;
+    }
+
+    /**
+     * Get the direction to go from a tile to another one (they must be on the same diagonal).
+     * @param from The start tile.
+     * @param to The destination tile.
+     * @return The direction.
+     */
+    public static int direction(int from, int to) {
+        boolean left = POS_X[to] < POS_X[from];
+        boolean up = POS_Y[to] < POS_Y[from];
+        if (left) {
+            return up ? TOP_LEFT : TOP_RIGHT;
+        }
+        return up ? BOTTOM_LEFT : BOTTOM_RIGHT;
+    }
+
+    /**
+     * Get the type of a tile.
+     * @param square The tile.
+     * @return The type of pawn on the tile.
+     */
+    public CaseType get(int square) {
+        long bit = 1L << square;
+        if ((white & bit) != 0) {
+            return (ladies & bit) != 0 ? CaseType.WHITE_LADY : CaseType.WHITE_PAWN;
+        }
+        if ((black & bit) != 0) {
+            return (ladies & bit) != 0 ? CaseType.BLACK_LADY : CaseType.BLACK_PAWN;
+        }
+        return CaseType.EMPTY;
+    }
+
+    /**
+     * Set the type of a tile.
+     * @param square The tile.
+     * @param type The type of pawn to put on it.
+     */
+    public void set(int square, CaseType type) {
+        CaseType old = get(square);
+        counts[old.ordinal()]--;
+        counts[type.ordinal()]++;
+        key ^= Zobrist.piece(old, square) ^ Zobrist.piece(type, square);
+        long bit = 1L << square;
+        white &= ~bit;
+        black &= ~bit;
+        ladies &= ~bit;
+        switch (type) {
+            case WHITE_PAWN -> white |= bit;
+            case BLACK_PAWN -> black |= bit;
+            case WHITE_LADY -> {
+                white |= bit;
+                ladies |= bit;
+            }
+            case BLACK_LADY -> {
+                black |= bit;
+                ladies |= bit;
+            }
+        }
+    }
+
+    /**
+     * Play a move (see {@link Move}). The taken pieces, the promotion, the counts and the hash are updated
+     * incrementally, and the other player has to move.
+     * @param move The move to play.
+     */
+    public void makeMove(long move) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        long fromBit = 1L << from;
+        long toBit = 1L << to;
+        long taken = Move.taken(move);
+        if (ply == playedMoves.length) {
+            playedMoves = Arrays.copyOf(playedMoves, ply * 2);
+            takenLadies = Arrays.copyOf(takenLadies, ply * 2);
+            raidSquares = Arrays.copyOf(raidSquares, ply * 2);
+        }
+        playedMoves[ply] = move;
+        takenLadies[ply] = taken & ladies;
+        raidSquares[ply] = raidSquare;
+        ply++;
+
+        CaseType moving = get(from);
+        CaseType landing = moving;
+        if (Move.isPromotion(move)) {
+            landing = moving == CaseType.WHITE_PAWN ? CaseType.WHITE_LADY : CaseType.BLACK_LADY;
+            counts[moving.ordinal()]--;
+            counts[landing.ordinal()]++;
+        }
+        key ^= Zobrist.piece(moving, from) ^ Zobrist.piece(landing, to);
+        boolean isWhite = (white & fromBit) != 0;
+        toggleTaken(taken, taken & ladies, !isWhite, -1);
+
+        if (isWhite) {
+            white = (white & ~fromBit) | toBit;
+            black &= ~taken;
+        } else {
+            black = (black & ~fromBit) | toBit;
+            white &= ~taken;
+        }
+        ladies &= ~taken;
+        if ((ladies & fromBit) != 0) {
+            ladies = (ladies & ~fromBit) | toBit;
+        } else if (Move.isPromotion(move)) {
+            ladies |= toBit;
+        }
+
+        key ^= Zobrist.raid(raidSquare) ^ Zobrist.side(sideToMove);
+        raidSquare = -1;
+        sideToMove = isWhite ? PlayerColor.BLACK : PlayerColor.WHITE;
+        key ^= Zobrist.side(sideToMove);
+    }
+
+    /**
+     * Undo the last move played with {@link #makeMove(long)}.
+     * @return The undone move.
+     */
+    public long unmakeMove() {
+        ply--;
+        long move = playedMoves[ply];
+        int from = Move.from(move);
+        int to = Move.to(move);
+        long fromBit = 1L << from;
+        long toBit = 1L << to;
+        long taken = Move.taken(move);
+        long ladiesTaken = takenLadies[ply];
+
+        CaseType landing = get(to);
+        CaseType moving = landing;
+        if (Move.isPromotion(move)) {
+            moving = landing == CaseType.WHITE_LADY ? CaseType.WHITE_PAWN : CaseType.BLACK_PAWN;
+            counts[landing.ordinal()]--;
+            counts[moving.ordinal()]++;
+        }
+        key ^= Zobrist.piece(landing, to) ^ Zobrist.piece(moving, from);
+        boolean isWhite = (white & toBit) != 0;
+
+        if (isWhite) {
+            white = (white & ~toBit) | fromBit;
+            black |= taken;
+        } else {
+            black = (black & ~toBit) | fromBit;
+            white |= taken;
+        }
+        if (Move.isPromotion(move)) {
+            ladies &= ~toBit;
+        } else if ((ladies & toBit) != 0) {
+            ladies = (ladies & ~toBit) | fromBit;
+        }
+        ladies |= ladiesTaken;
+        toggleTaken(taken, ladiesTaken, !isWhite, 1);
+
+        key ^= Zobrist.side(sideToMove);
+        sideToMove = isWhite ? PlayerColor.WHITE : PlayerColor.BLACK;
+        raidSquare = raidSquares[ply];
+        key ^= Zobrist.side(sideToMove) ^ Zobrist.raid(raidSquare);
+        return move;
+    }
+
+    /**
+     * Update the hash and the counts for the pieces taken by a move (or put back when the move is undone).
+     * @param taken The taken pieces.
+     * @param ladiesTaken The taken ladies.
+     * @param whiteTaken If the taken pieces are white.
+     * @param sign -1 when the pieces are taken, 1 when they are put back.
+     */
+    private void toggleTaken(long taken, long ladiesTaken, boolean whiteTaken, int sign) {
+        CaseType pawn = whiteTaken ? CaseType.WHITE_PAWN : CaseType.BLACK_PAWN;
+        CaseType lady = whiteTaken ? CaseType.WHITE_LADY : CaseType.BLACK_LADY;
+        int ladyCount = Long.bitCount(ladiesTaken);
+        int pawnCount = Long.bitCount(taken) - ladyCount;
+        counts[pawn.ordinal()] += sign * pawnCount;
+        counts[lady.ordinal()] += sign * ladyCount;
+        counts[CaseType.EMPTY.ordinal()] -= sign * (pawnCount + ladyCount);
+        while (taken != 0) {
+            int sq = Long.numberOfTrailingZeros(taken);
+            taken &= taken - 1;
+            key ^= Zobrist.piece((ladiesTaken & (1L << sq)) != 0 ? lady : pawn, sq);
+        }
+    }
+
+    /**
+     * Forget the moves played with {@link #makeMove(long)} (they can't be undone anymore).
+     */
+    public void clearHistory() {
+        ply = 0;
+    }
+
+    /**
+     * Get the number of tiles of a type.
+     * @param type The type.
+     * @return The number of tiles.
+     */
+    public int getCount(CaseType type) {
+        return counts[type.ordinal()];
+    }
+
+    public PlayerColor getSideToMove() {
+        return sideToMove;
+    }
+
+    /**
+     * Set the player to move (the hash is updated).
+     * @param pColor Color of the player.
+     */
+    public void setSideToMove(PlayerColor pColor) {
+        key ^= Zobrist.side(sideToMove) ^ Zobrist.side(pColor);
+        sideToMove = pColor;
+    }
+
+    public int getRaidSquare() {
+        return raidSquare;
+    }
+
+    /**
+     * Set the tile of the pawn in raid (the hash is updated).
+     * @param square The tile (or -1 if no pawn is in raid).
+     */
+    public void setRaidSquare(int square) {
+        key ^= Zobrist.raid(raidSquare) ^ Zobrist.raid(square);
+        raidSquare = square;
+    }
+
+    /**
+     * Get the hash of the position (see {@link Zobrist}).
+     * @return The hash.
+     */
+    public long getKey() {
+        return key;
+    }
+
+    public long getWhite() {
+        return white;
+    }
+
+    public long getBlack() {
+        return black;
+    }
+
+    public long getLadies() {
+        return ladies;
+    }
+
+    public long getEmpty() {
+        return ALL & ~(white | black);
+    }
+
+    /**
+     * Get the pieces of a player.
+     * @param pColor Color of the player.
+     * @return The mask of its pieces.
+     */
+    public long getPieces(PlayerColor pColor) {
+        return pColor == PlayerColor.WHITE ? white : black;
+    }
+
+    /**
+     * Compute all the pieces of a player which can take an opponent piece (and so constraint the player).
+     * @param pColor Color of the player.
+     * @return The mask of the constraint pieces.
+     */
+    public long constraints(PlayerColor pColor) {
+        long own = getPieces(pColor);
+        long opponent = pColor == PlayerColor.WHITE ? black : white;
+        long empty = getEmpty();
+        long pawns = own & ~ladies;
+        long result = 0;
+        for (int d = 0; d < 4; d++) {
+            int back = opposite(d);
+            result |= pawns & shift(opponent & shift(empty, back), back);
+        }
+        long ownLadies = own & ladies;
+        while (ownLadies != 0) {
+            int sq = Long.numberOfTrailingZeros(ownLadies);
+            ownLadies &= ownLadies - 1;
+            if (canLadyCapture(sq, opponent)) {
+                result |= 1L << sq;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Compute if the piece on a tile can take an opponent piece.
+     * @param square The tile of the piece.
+     * @return If a take is possible.
+     */
+    public boolean canCapture(int square) {
+        long bit = 1L << square;
+        long opponent = (white & bit) != 0 ? black : white;
+        if ((ladies & bit) != 0) {
+            return canLadyCapture(square, opponent);
+        }
+        return captureLandings(square, opponent) != 0;
+    }
+
+    /**
+     * Compute all the tiles reachable by the piece on a tile.
+     * @param square The tile of the piece.
+     * @param capture If the piece has to take (only the landing tiles after a take are reachable).
+     * @return The mask of the reachable tiles.
+     */
+    public long reachable(int square, boolean capture) {
+        long bit = 1L << square;
+        boolean isWhite = (white & bit) != 0;
+        long opponent = isWhite ? black : white;
+        if ((ladies & bit) != 0) {
+            return capture ? ladyCaptureLandings(square, opponent) : ladySlides(square);
+        }
+        if (capture) {
+            return captureLandings(square, opponent);
+        }
+        long empty = getEmpty();
+        if (isWhite) {
+            return (shift(bit, TOP_LEFT) | shift(bit, BOTTOM_LEFT)) & empty;
+        }
+        return (shift(bit, TOP_RIGHT) | shift(bit, BOTTOM_RIGHT)) & empty;
+    }
+
+    /**
+     * Compute the pieces between two tiles of the same diagonal (the ones taken by a move).
+     * @param from The start tile.
+     * @param to The destination tile.
+     * @return The mask of the pieces between the two tiles.
+     */
+    public long between(int from, int to) {
+        int direction = direction(from, to);
+        return RAYS[direction][from] & ~RAYS[direction][to] & ~(1L << to) & (white | black);
+    }
+
+    private long captureLandings(int square, long opponent) {
+        long bit = 1L << square;
+        long empty = getEmpty();
+        long result = 0;
+        for (int d = 0; d < 4; d++) {
+            result |= shift(shift(bit, d) & opponent, d) & empty;
+        }
+        return result;
+    }
+
+    private boolean canLadyCapture(int square, long opponent) {
+        long occupied = white | black;
+        for (int d = 0; d < 4; d++) {
+            int sq = firstBlocker(d, square, occupied);
+            if (sq != -1 && (opponent & (1L << sq)) != 0) {
+                int next = NEIGHBOURS[d][sq];
+                if (next != -1 && (occupied & (1L << next)) == 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private long ladyCaptureLandings(int square, long opponent) {
+        long occupied = white | black;
+        long result = 0;
+        for (int d = 0; d < 4; d++) {
+            int sq = firstBlocker(d, square, occupied);
+            if (sq != -1 && (opponent & (1L << sq)) != 0) {
+                result |= freeRay(d, sq, occupied);
+            }
+        }
+        return result;
+    }
+
+    private long ladySlides(int square) {
+        long occupied = white | black;
+        long result = 0;
+        for (int d = 0; d < 4; d++) {
+            result |= freeRay(d, square, occupied);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,62 @@
+package model.bitboard;
+
+/**
+ * Encoding of a complete move (with all the takes of a raid) in a single long, to avoid any allocation when moves are
+ * enumerated.
+ * <ul>
+ *     <li>bits 0 to 5: start tile</li>
+ *     <li>bits 6 to 11: destination tile</li>
+ *     <li>bit 12: the pawn become a lady during the move</li>
+ *     <li>bits 13 to 62: mask of the taken pieces</li>
+ * </ul>
+ */
+public final class Move {
+
+    private static final int TO_SHIFT = 6;
+    private static final int PROMOTION_SHIFT = 12;
+    private static final int TAKEN_SHIFT = 13;
+
+    private Move() {
+    }
+
+    /**
+     * Encode a move.
+     * @param from The start tile.
+     * @param to The destination tile.
+     * @param taken The mask of the taken pieces.
+     * @param promotion If the pawn become a lady.
+     * @return The encoded move.
+     */
+    public static long of(int from, int to, long taken, boolean promotion) {
+        return from | ((long) to << TO_SHIFT) | (promotion ? 1L << PROMOTION_SHIFT : 0) | (taken << TAKEN_SHIFT);
+    }
+
+    public static int from(long move) {
+        return (int) (move & 0x3F);
+    }
+
+    public static int to(long move) {
+        return (int) ((move >>> TO_SHIFT) & 0x3F);
+    }
+
+    public static long taken(long move) {
+        return move >>> TAKEN_SHIFT;
+    }
+
+    public static boolean isPromotion(long move) {
+        return (move & (1L << PROMOTION_SHIFT)) != 0;
+    }
+
+    public static boolean isCapture(long move) {
+        return (move >>> TAKEN_SHIFT) != 0;
+    }
+
+    /**
+     * Write a move with the international numbering (tiles from 1 to 50), like "32-28" or "19x30".
+     * @param move The move.
+     * @return The move as text.
+     */
+    public static String toString(long move) {
+        return (from(move) + 1) + (isCapture(move) ? "x" : "-") + (to(move) + 1);
+    }
+}
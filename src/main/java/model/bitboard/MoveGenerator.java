@@ -0,0 +1,227 @@
+package model.bitboard;
+
+import model.enums.PlayerColor;
+
+/**
+ * Enumerate all the legal moves of a position, without modifying it. The rules are the same than the ones applied by
+ * {@link model.Board} when the player click on the tiles:
+ * <ul>
+ *     <li>if a piece can take, the player must take (but not necessarily the maximum of pieces);</li>
+ *     <li>a raid continue as long as the moving piece can take, each move of the list is a complete raid;</li>
+ *     <li>a taken piece is removed immediately, and a pawn become a lady as soon as it land on the last line.</li>
+ * </ul>
+ */
+public final class MoveGenerator {
+
+    private MoveGenerator() {
+    }
+
+    /**
+     * Generate all the legal moves of a player.
+     * @param position The position.
+     * @param pColor Color of the player.
+     * @param moves The list to fill (cleared before).
+     */
+    public static void generate(BitBoard position, PlayerColor pColor, MoveList moves) {
+        generate(position, pColor, -1, moves);
+    }
+
+    /**
+     * Generate all the legal moves of a player.
+     * @param position The position.
+     * @param pColor Color of the player.
+     * @param raidSquare The tile of the pawn in raid (only this one can move), or -1.
+     * @param moves The list to fill (cleared before).
+     */
+    public static void generate(BitBoard position, PlayerColor pColor, int raidSquare, MoveList moves) {
+        moves.clear();
+        long constraints = position.constraints(pColor);
+        if (raidSquare != -1) {
+            constraints &= 1L << raidSquare;
+            generateTakes(position, pColor, constraints, moves);
+            return;
+        }
+        if (constraints != 0) {
+            generateTakes(position, pColor, constraints, moves);
+        } else {
+            generateSlides(position, pColor, moves);
+        }
+    }
+
+    /**
+     * Check if a player has at least one legal move.
+     * @param position The position.
+     * @param pColor Color of the player.
+     * @return If the player can move.
+     */
+    public static boolean hasMoves(BitBoard position, PlayerColor pColor) {
+        long own = position.getPieces(pColor);
+        long empty = position.getEmpty();
+        long pawns = own & ~position.getLadies();
+        if (pColor == PlayerColor.WHITE) {
+            if (((BitBoard.shift(pawns, BitBoard.TOP_LEFT) | BitBoard.shift(pawns, BitBoard.BOTTOM_LEFT)) & empty) != 0) {
+                return true;
+            }
+        } else {
+            if (((BitBoard.shift(pawns, BitBoard.TOP_RIGHT) | BitBoard.shift(pawns, BitBoard.BOTTOM_RIGHT)) & empty) != 0) {
+                return true;
+            }
+        }
+        long ladies = own & position.getLadies();
+        for (int d = 0; d < 4; d++) {
+            if ((BitBoard.shift(ladies, d) & empty) != 0) {
+                return true;
+            }
+        }
+        return position.constraints(pColor) != 0;
+    }
+
+    private static void generateSlides(BitBoard position, PlayerColor pColor, MoveList moves) {
+        long own = position.getPieces(pColor);
+        long empty = position.getEmpty();
+        long pawns = own & ~position.getLadies();
+        boolean white = pColor == PlayerColor.WHITE;
+        long promotion = white ? BitBoard.WHITE_PROMOTION : BitBoard.BLACK_PROMOTION;
+        int forwardA = white ? BitBoard.TOP_LEFT : BitBoard.TOP_RIGHT;
+        int forwardB = white ? BitBoard.BOTTOM_LEFT : BitBoard.BOTTOM_RIGHT;
+        addSlides(BitBoard.shift(pawns, forwardA) & empty, BitBoard.opposite(forwardA), promotion, moves);
+        addSlides(BitBoard.shift(pawns, forwardB) & empty, BitBoard.opposite(forwardB), promotion, moves);
+
+        long ladies = own & position.getLadies();
+        while (ladies != 0) {
+            int from = Long.numberOfTrailingZeros(ladies);
+            ladies &= ladies - 1;
+            long reachable = position.reachable(from, false);
+            while (reachable != 0) {
+                int to = Long.numberOfTrailingZeros(reachable);
+                reachable &= reachable - 1;
+                moves.add(Move.of(from, to, 0, false));
+            }
+        }
+    }
+
+    private static void addSlides(long destinations, int back, long promotion, MoveList moves) {
+        while (destinations != 0) {
+            int to = Long.numberOfTrailingZeros(destinations);
+            destinations &= destinations - 1;
+            int from = BitBoard.neighbour(to, back);
+            moves.add(Move.of(from, to, 0, ((1L << to) & promotion) != 0));
+        }
+    }
+
+    private static void generateTakes(BitBoard position, PlayerColor pColor, long pieces, MoveList moves) {
+        long opponent = pColor == PlayerColor.WHITE ? position.getBlack() : position.getWhite();
+        long promotion = pColor == PlayerColor.WHITE ? BitBoard.WHITE_PROMOTION : BitBoard.BLACK_PROMOTION;
+        long occupied = position.getWhite() | position.getBlack();
+        while (pieces != 0) {
+            int from = Long.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+            boolean lady = (position.getLadies() & (1L << from)) != 0;
+            int start = moves.size();
+            // The start tile is free during the raid.
+            raid(from, from, lady, false, opponent, occupied & ~(1L << from), 0, promotion, moves, start);
+        }
+    }
+
+    /**
+     * Explore all the continuations of a raid.
+     * @param from Start tile of the move.
+     * @param square Current tile of the moving piece.
+     * @param lady If the moving piece is a lady.
+     * @param promoted If the pawn become a lady during the raid.
+     * @param opponent Remaining opponent pieces.
+     * @param occupied Occupied tiles (without the moving piece).
+     * @param taken Pieces already taken.
+     * @param promotion Tiles where the pawn become a lady.
+     * @param moves The list to fill.
+     * @param start First move generated for this piece (to avoid duplicates).
+     */
+    private static void raid(int from, int square, boolean lady, boolean promoted, long opponent, long occupied,
+                             long taken, long promotion, MoveList moves, int start) {
+        boolean continued = false;
+        for (int d = 0; d < 4; d++) {
+            int sq = lady ? BitBoard.firstBlocker(d, square, occupied) : BitBoard.neighbour(square, d);
+            if (sq == -1 || (opponent & (1L << sq)) == 0) {
+                continue;
+            }
+            long victim = 1L << sq;
+            for (int landing : BitBoard.raySquares(d, sq)) {
+                if ((occupied & (1L << landing)) != 0) {
+                    break;
+                }
+                continued = true;
+                boolean becomeLady = !lady && ((1L << landing) & promotion) != 0;
+                raid(from, landing, lady || becomeLady, promoted || becomeLady, opponent & ~victim,
+                        occupied & ~victim, taken | victim, promotion, moves, start);
+                if (!lady) {
+                    break;
+                }
+            }
+        }
+        if (!continued && taken != 0) {
+            moves.addUnique(Move.of(from, square, taken, promoted), start);
+        }
+    }
+
+    /**
+     * Find the tiles where the piece lands at each take of a move (to write it with all its steps).
+     * @param position The position before the move.
+     * @param move The move (must be legal).
+     * @return The landing tiles, the last one is the destination (only the destination for a move without take).
+     */
+    public static int[] path(BitBoard position, long move) {
+        int from = Move.from(move);
+        long taken = Move.taken(move);
+        if (taken == 0) {
+            return new int[]{Move.to(move)};
+        }
+        long bit = 1L << from;
+        boolean white = (position.getWhite() & bit) != 0;
+        long opponent = white ? position.getBlack() : position.getWhite();
+        long promotion = white ? BitBoard.WHITE_PROMOTION : BitBoard.BLACK_PROMOTION;
+        long occupied = (position.getWhite() | position.getBlack()) & ~bit;
+        boolean lady = (position.getLadies() & bit) != 0;
+        int[] path = new int[Long.bitCount(taken)];
+        if (!findPath(Move.to(move), taken, from, lady, opponent, occupied, 0, promotion, path, 0)) {
+            throw new IllegalArgumentException("Move " + Move.toString(move) + " is not legal");
+        }
+        return path;
+    }
+
+    /**
+     * Explore the continuations of a raid taking only the pieces of a move, until it ends on its destination.
+     * @param to Destination of the move.
+     * @param target Pieces taken by the move.
+     * @param path Landing tiles (filled from depth).
+     * @param depth Number of takes already done.
+     * @return If the path is found.
+     */
+    private static boolean findPath(int to, long target, int square, boolean lady, long opponent, long occupied,
+                                    long taken, long promotion, int[] path, int depth) {
+        if (taken == target) {
+            return square == to;
+        }
+        for (int d = 0; d < 4; d++) {
+            int sq = lady ? BitBoard.firstBlocker(d, square, occupied) : BitBoard.neighbour(square, d);
+            if (sq == -1 || (opponent & target & ~taken & (1L << sq)) == 0) {
+                continue;
+            }
+            long victim = 1L << sq;
+            for (int landing : BitBoard.raySquares(d, sq)) {
+                if ((occupied & (1L << landing)) != 0) {
+                    break;
+                }
+                path[depth] = landing;
+                boolean becomeLady = !lady && ((1L << landing) & promotion) != 0;
+                if (findPath(to, target, landing, lady || becomeLady, opponent & ~victim, occupied & ~victim,
+                        taken | victim, promotion, path, depth + 1)) {
+                    return true;
+                }
+                if (!lady) {
+                    break;
+                }
+            }
+        }
+        return false;
+    }
+}
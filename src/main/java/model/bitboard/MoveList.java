@@ -0,0 +1,75 @@
+package model.bitboard;
+
+import java.util.Arrays;
+
+/**
+ * Growable list of encoded moves (see {@link Move}), backed by a primitive array so it can be reused without
+ * allocation.
+ */
+public class MoveList {
+
+    /**
+     * The encoded moves.
+     */
+    private long[] moves = new long[64];
+
+    /**
+     * Number of moves in the list.
+     */
+    private int size = 0;
+
+    public void add(long move) {
+        if (size == moves.length) {
+            moves = Arrays.copyOf(moves, size * 2);
+        }
+        moves[size++] = move;
+    }
+
+    /**
+     * Add a move only if it is not already in the list, starting the search at a given index.
+     * @param move The move.
+     * @param start First index to compare with.
+     */
+    void addUnique(long move, int start) {
+        for (int i = start; i < size; i++) {
+            if (moves[i] == move) {
+                return;
+            }
+        }
+        add(move);
+    }
+
+    public long get(int index) {
+        return moves[index];
+    }
+
+    public void set(int index, long move) {
+        moves[index] = move;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Check if a move is in the list.
+     * @param move The move.
+     * @return If the move is in the list.
+     */
+    public boolean contains(long move) {
+        for (int i = 0; i < size; i++) {
+            if (moves[i] == move) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,141 @@
+package model.bitboard;
+
+import model.Board;
+import model.BoardFactory.BoardFactory;
+import model.BoardFactory.BoardFactoryImpl;
+import model.BoardFactory.BoardTest.BoardFactoryLadyMovement;
+import model.BoardFactory.BoardTest.BoardFactoryLadyTest;
+import model.BoardFactory.BoardTest.BoardFactoryMultipleChoiceRaid;
+import model.enums.PlayerColor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Count the leaf nodes of the move tree to a given depth (perft). It gives a number to check the move generation
+ * against (any change in the rules changes it) and to measure its speed.
+ * <p>
+ * Usage: {@code Perft [depth] [position]}, the position being one of the names of {@link #POSITIONS} (all by
+ * default).
+ */
+public final class Perft {
+
+    /**
+     * Positions to test, by name.
+     */
+    public static final Map<String, BoardFactory> POSITIONS = new LinkedHashMap<>();
+
+    static {
+        POSITIONS.put("initial", new BoardFactoryImpl());
+        POSITIONS.put("lady-movement", new BoardFactoryLadyMovement());
+        POSITIONS.put("lady-test", new BoardFactoryLadyTest());
+        POSITIONS.put("multiple-choice-raid", new BoardFactoryMultipleChoiceRaid());
+    }
+
+    /**
+     * Moves of each depth (reused to avoid allocation).
+     */
+    private final MoveList[] moveLists;
+
+    private Perft(int depth) {
+        moveLists = new MoveList[depth + 1];
+        for (int i = 0; i <= depth; i++) {
+            moveLists[i] = new MoveList();
+        }
+    }
+
+    /**
+     * Count the leaf nodes of a position.
+     * @param position The position (restored at the end).
+     * @param pColor The player to move.
+     * @param depth The depth.
+     * @return The number of leaf nodes.
+     */
+    public static long perft(BitBoard position, PlayerColor pColor, int depth) {
+        return new Perft(depth).count(position, pColor, depth);
+    }
+
+    /**
+     * Count the leaf nodes under each move of a position.
+     * @param position The position (restored at the end).
+     * @param pColor The player to move.
+     * @param depth The depth (at least 1).
+     * @return The number of leaf nodes by move (the raids with the same start and destination are kept apart).
+     */
+    public static Map<Long, Long> divide(BitBoard position, PlayerColor pColor, int depth) {
+        Perft perft = new Perft(depth);
+        MoveList moves = new MoveList();
+        MoveGenerator.generate(position, pColor, position.getRaidSquare(), moves);
+        Map<Long, Long> result = new LinkedHashMap<>();
+        for (int i = 0; i < moves.size(); i++) {
+            long move = moves.get(i);
+            position.makeMove(move);
+            result.put(move, perft.count(position, opponent(pColor), depth - 1));
+            position.unmakeMove();
+        }
+        return result;
+    }
+
+    private long count(BitBoard position, PlayerColor pColor, int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+        MoveList moves = moveLists[depth];
+        MoveGenerator.generate(position, pColor, position.getRaidSquare(), moves);
+        if (depth == 1) {
+            return moves.size();
+        }
+        long nodes = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            position.makeMove(moves.get(i));
+            nodes += count(position, opponent(pColor), depth - 1);
+            position.unmakeMove();
+        }
+        return nodes;
+    }
+
+    /**
+     * Write a move with all the landing tiles of its takes, like "28x17x6".
+     */
+    private static String notation(BitBoard position, long move) {
+        if (!Move.isCapture(move)) {
+            return Move.toString(move);
+        }
+        StringBuilder builder = new StringBuilder().append(Move.from(move) + 1);
+        for (int square : MoveGenerator.path(position, move)) {
+            builder.append('x').append(square + 1);
+        }
+        return builder.toString();
+    }
+
+    private static PlayerColor opponent(PlayerColor pColor) {
+        return pColor == PlayerColor.WHITE ? PlayerColor.BLACK : PlayerColor.WHITE;
+    }
+
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 6;
+        Map<String, BoardFactory> positions = POSITIONS;
+        if (args.length > 1) {
+            if (!POSITIONS.containsKey(args[1])) {
+                System.err.println("Unknown position " + args[1] + ", expected one of " + POSITIONS.keySet());
+                System.exit(1);
+            }
+            positions = Map.of(args[1], POSITIONS.get(args[1]));
+        }
+
+        for (var entry : positions.entrySet()) {
+            BitBoard position = new BitBoard(new Board(entry.getValue()).getPosition());
+            System.out.println("Perft of " + entry.getKey());
+            for (int d = 1; d <= depth; d++) {
+                long start = System.nanoTime();
+                long nodes = perft(position, PlayerColor.WHITE, d);
+                long elapsed = Math.max(1, System.nanoTime() - start);
+                System.out.printf("  depth %d: %d nodes in %d ms (%d nodes/s)%n",
+                        d, nodes, elapsed / 1_000_000, nodes * 1_000_000_000L / elapsed);
+            }
+            System.out.println("  divide at depth " + depth + ":");
+            divide(position, PlayerColor.WHITE, depth).forEach((move, nodes) ->
+                    System.out.printf("    %s: %d%n", notation(position, move), nodes));
+        }
+    }
+}
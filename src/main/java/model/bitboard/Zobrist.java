@@ -0,0 +1,72 @@
+package model.bitboard;
+
+import model.enums.CaseType;
+import model.enums.PlayerColor;
+
+import java.util.SplittableRandom;
+
+/**
+ * Random keys used to compute the 64 bits hash of a position (Zobrist hashing). The hash is the xor of the keys of
+ * each piece on its tile, of the player to move (when black) and of the tile of the pawn in raid. The keys are
+ * generated from a fixed seed, so a hash is the same from one run to another (and can be stored in files).
+ */
+public final class Zobrist {
+
+    /**
+     * Key of each type of piece on each tile (the keys of the empty tiles are 0).
+     */
+    private static final long[][] PIECES = new long[CaseType.values().length][BitBoard.SIZE];
+
+    /**
+     * Key of the black player to move.
+     */
+    private static final long BLACK_TO_MOVE;
+
+    /**
+     * Key of each tile of the pawn in raid.
+     */
+    private static final long[] RAID = new long[BitBoard.SIZE];
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x4A65754465446D65L);
+        for (CaseType type : CaseType.values()) {
+            if (type != CaseType.EMPTY) {
+                for (int sq = 0; sq < BitBoard.SIZE; sq++) {
+                    PIECES[type.ordinal()][sq] = random.nextLong();
+                }
+            }
+        }
+        BLACK_TO_MOVE = random.nextLong();
+        for (int sq = 0; sq < BitBoard.SIZE; sq++) {
+            RAID[sq] = random.nextLong();
+        }
+    }
+
+    private Zobrist() {
+    }
+
+    public static long piece(CaseType type, int square) {
+        return PIECES[type.ordinal()][square];
+    }
+
+    public static long side(PlayerColor pColor) {
+        return pColor == PlayerColor.BLACK ? BLACK_TO_MOVE : 0;
+    }
+
+    public static long raid(int square) {
+        return square == -1 ? 0 : RAID[square];
+    }
+
+    /**
+     * Compute the hash of a position from scratch (the position keeps it up to date incrementally).
+     * @param position The position.
+     * @return The hash.
+     */
+    public static long compute(BitBoard position) {
+        long key = side(position.getSideToMove()) ^ raid(position.getRaidSquare());
+        for (int sq = 0; sq < BitBoard.SIZE; sq++) {
+            key ^= piece(position.get(sq), sq);
+        }
+        return key;
+    }
+}
@@ -0,0 +1,14 @@
+package model.enums;
+
+/**
+ * Define the result of a game.
+ */
+public enum GameOutcome {
+    /**
+     * The game is not finished (or its result is not known).
+     */
+    UNKNOWN,
+    WHITE_WIN,
+    BLACK_WIN,
+    DRAW
+}
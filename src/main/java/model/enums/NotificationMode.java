@@ -0,0 +1,19 @@
+package model.enums;
+
+/**
+ * How a board notifies the changes of its cases.
+ */
+public enum NotificationMode {
+    /**
+     * Each case fires an event for each of its changes.
+     */
+    CASES,
+    /**
+     * The cases don't fire events, the board fires one event with all the changes at the end of each update.
+     */
+    BATCH,
+    /**
+     * No event is fired (for the boards without view).
+     */
+    NONE
+}
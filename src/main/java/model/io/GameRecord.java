@@ -0,0 +1,186 @@
+package model.io;
+
+import model.bitboard.BitBoard;
+import model.bitboard.Move;
+import model.bitboard.MoveGenerator;
+import model.bitboard.MoveList;
+import model.enums.CaseType;
+import model.enums.GameOutcome;
+import model.enums.PlayerColor;
+
+/**
+ * A recorded game: its start position as masks of tiles, its moves packed in shorts and its result.
+ * <p>
+ * A move is packed as its start tile (bits 0 to 5), its destination tile (bits 6 to 11) and its index among the
+ * legal moves with the same start and destination (bits 12 to 15, for the raids which take different pieces). The
+ * taken pieces are not stored: they are found again by replaying the game (see {@link #decodeMoves()}).
+ */
+public class GameRecord {
+
+    /**
+     * Tiles of the black and white pawns at the start of a game.
+     */
+    public static final long INITIAL_BLACK = (1L << 20) - 1;
+    public static final long INITIAL_WHITE = ((1L << 20) - 1) << 30;
+
+    /**
+     * Maximum index of a move among the moves with the same start and destination.
+     */
+    private static final int MAX_INDEX = 15;
+
+    /**
+     * Tiles of the white pieces, of the black pieces and of the ladies at the start of the game.
+     */
+    private final long white;
+    private final long black;
+    private final long ladies;
+
+    /**
+     * The player who plays the first move.
+     */
+    private final PlayerColor sideToMove;
+
+    private final GameOutcome outcome;
+
+    /**
+     * The packed moves.
+     */
+    private final short[] moves;
+
+    public GameRecord(long white, long black, long ladies, PlayerColor sideToMove, GameOutcome outcome,
+                      short[] moves) {
+        this.white = white;
+        this.black = black;
+        this.ladies = ladies;
+        this.sideToMove = sideToMove;
+        this.outcome = outcome;
+        this.moves = moves;
+    }
+
+    /**
+     * Check if the game starts from the initial position of the board.
+     * @return If it is the initial position.
+     */
+    public boolean isInitialPosition() {
+        return white == INITIAL_WHITE && black == INITIAL_BLACK && ladies == 0 && sideToMove == PlayerColor.WHITE;
+    }
+
+    /**
+     * Create the start position of the game.
+     * @return The position (with the player to move and no raid).
+     */
+    public BitBoard getStartPosition() {
+        BitBoard position = new BitBoard();
+        for (int sq = 0; sq < BitBoard.SIZE; sq++) {
+            long bit = 1L << sq;
+            boolean isLady = (ladies & bit) != 0;
+            if ((white & bit) != 0) {
+                position.set(sq, isLady ? CaseType.WHITE_LADY : CaseType.WHITE_PAWN);
+            } else if ((black & bit) != 0) {
+                position.set(sq, isLady ? CaseType.BLACK_LADY : CaseType.BLACK_PAWN);
+            }
+        }
+        position.setSideToMove(sideToMove);
+        return position;
+    }
+
+    /**
+     * Replay the game to get its complete moves (see {@link Move}).
+     * @return The moves.
+     * @throws IllegalArgumentException If a move is not legal.
+     */
+    public long[] decodeMoves() {
+        BitBoard position = getStartPosition();
+        PlayerColor pColor = sideToMove;
+        MoveList legalMoves = new MoveList();
+        long[] result = new long[moves.length];
+        for (int i = 0; i < moves.length; i++) {
+            result[i] = decodeMove(position, pColor, moves[i], legalMoves);
+            if (result[i] == 0) {
+                throw new IllegalArgumentException("Move " + (i + 1) + " of the game is not legal");
+            }
+            position.makeMove(result[i]);
+            pColor = pColor == PlayerColor.WHITE ? PlayerColor.BLACK : PlayerColor.WHITE;
+        }
+        return result;
+    }
+
+    /**
+     * Pack a move.
+     * @param position The position before the move.
+     * @param pColor The player to move.
+     * @param move The move (must be legal).
+     * @param legalMoves List to generate the legal moves in (to avoid allocation).
+     * @return The packed move.
+     * @throws IllegalArgumentException If the move is not legal.
+     */
+    public static short encodeMove(BitBoard position, PlayerColor pColor, long move, MoveList legalMoves) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        MoveGenerator.generate(position, pColor, -1, legalMoves);
+        int index = 0;
+        for (int i = 0; i < legalMoves.size(); i++) {
+            long m = legalMoves.get(i);
+            if (m == move) {
+                if (index > MAX_INDEX) {
+                    throw new IllegalArgumentException("Too many moves from " + (from + 1) + " to " + (to + 1));
+                }
+                return (short) (from | (to << 6) | (index << 12));
+            }
+            if (Move.from(m) == from && Move.to(m) == to) {
+                index++;
+            }
+        }
+        throw new IllegalArgumentException("Move " + Move.toString(move) + " is not legal");
+    }
+
+    /**
+     * Unpack a move.
+     * @param position The position before the move.
+     * @param pColor The player to move.
+     * @param packed The packed move.
+     * @param legalMoves List to generate the legal moves in (to avoid allocation).
+     * @return The move, or 0 if it is not legal.
+     */
+    public static long decodeMove(BitBoard position, PlayerColor pColor, short packed, MoveList legalMoves) {
+        int from = packed & 0x3F;
+        int to = (packed >>> 6) & 0x3F;
+        int index = (packed >>> 12) & 0xF;
+        MoveGenerator.generate(position, pColor, -1, legalMoves);
+        for (int i = 0; i < legalMoves.size(); i++) {
+            long m = legalMoves.get(i);
+            if (Move.from(m) == from && Move.to(m) == to && index-- == 0) {
+                return m;
+            }
+        }
+        return 0;
+    }
+
+    public long getWhite() {
+        return white;
+    }
+
+    public long getBlack() {
+        return black;
+    }
+
+    public long getLadies() {
+        return ladies;
+    }
+
+    public PlayerColor getSideToMove() {
+        return sideToMove;
+    }
+
+    public GameOutcome getOutcome() {
+        return outcome;
+    }
+
+    /**
+     * Get the packed moves (see {@link GameRecord}).
+     * @return The moves (not a copy).
+     */
+    public short[] getMoves() {
+        return moves;
+    }
+}
@@ -0,0 +1,120 @@
+package model.io;
+
+import model.enums.GameOutcome;
+import model.enums.PlayerColor;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Read the games of a binary game record file one by one (see {@link GameRecordWriter} for the format), without
+ * loading the whole file.
+ * <p>
+ * Usage: {@code GameRecordReader <file> [--replay]} prints the number of games, moves and results of a file (and
+ * checks all the moves are legal with {@code --replay}).
+ */
+public class GameRecordReader implements Closeable {
+
+    private static final GameOutcome[] OUTCOMES = GameOutcome.values();
+
+    private final DataInputStream in;
+
+    /**
+     * Open a file.
+     * @param path The file.
+     * @throws IOException If the file can't be opened, or is not a game record file.
+     */
+    public GameRecordReader(Path path) throws IOException {
+        this(Files.newInputStream(path));
+    }
+
+    /**
+     * Read games from a stream (starting with a header).
+     * @param in The stream.
+     * @throws IOException If the stream can't be read, or is not in the game record format.
+     */
+    public GameRecordReader(InputStream in) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(in, 1 << 16));
+        readHeader(this.in);
+    }
+
+    static void readHeader(DataInputStream in) throws IOException {
+        if (in.readInt() != GameRecordWriter.MAGIC) {
+            throw new IOException("Not a game record file");
+        }
+        int version = in.readUnsignedByte();
+        if (version != GameRecordWriter.VERSION) {
+            throw new IOException("Unsupported game record version " + version);
+        }
+    }
+
+    /**
+     * Read the next game.
+     * @return The game, or null at the end of the file.
+     * @throws IOException If the file can't be read, or ends in the middle of a game.
+     */
+    public GameRecord read() throws IOException {
+        int flags = in.read();
+        if (flags == -1) {
+            return null;
+        }
+        try {
+            long white = GameRecord.INITIAL_WHITE;
+            long black = GameRecord.INITIAL_BLACK;
+            long ladies = 0;
+            if ((flags & GameRecordWriter.INITIAL_POSITION) == 0) {
+                white = in.readLong();
+                black = in.readLong();
+                ladies = in.readLong();
+            }
+            short[] moves = new short[in.readUnsignedShort()];
+            for (int i = 0; i < moves.length; i++) {
+                moves[i] = in.readShort();
+            }
+            PlayerColor sideToMove = (flags & GameRecordWriter.BLACK_FIRST) != 0 ? PlayerColor.BLACK : PlayerColor.WHITE;
+            GameOutcome outcome = OUTCOMES[(flags >>> GameRecordWriter.OUTCOME_SHIFT) & 0x3];
+            return new GameRecord(white, black, ladies, sideToMove, outcome, moves);
+        } catch (EOFException e) {
+            throw new IOException("Truncated game record", e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: GameRecordReader <file> [--replay]");
+            System.exit(1);
+        }
+        boolean isReplayed = args.length > 1 && args[1].equals("--replay");
+        long games = 0;
+        long moves = 0;
+        long[] outcomes = new long[OUTCOMES.length];
+        long start = System.nanoTime();
+        try (var reader = new GameRecordReader(Path.of(args[0]))) {
+            GameRecord record;
+            while ((record = reader.read()) != null) {
+                if (isReplayed) {
+                    record.decodeMoves();
+                }
+                games++;
+                moves += record.getMoves().length;
+                outcomes[record.getOutcome().ordinal()]++;
+            }
+        }
+        long elapsed = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        System.out.printf("%d games, %d moves in %d ms (%d games/s)%n", games, moves, elapsed, games * 1000 / elapsed);
+        for (GameOutcome outcome : OUTCOMES) {
+            System.out.printf("  %s: %d%n", outcome, outcomes[outcome.ordinal()]);
+        }
+    }
+}
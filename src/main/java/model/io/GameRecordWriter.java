@@ -0,0 +1,115 @@
+package model.io;
+
+import model.enums.GameOutcome;
+import model.enums.PlayerColor;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Write games in the binary game record format, one after the other (the games are never kept in memory).
+ * <p>
+ * A file starts with the magic number {@code JDDR} and the version of the format (a byte). Then each game is:
+ * <ul>
+ *     <li>a byte of flags: black plays first (bit 0), initial position (bit 1), outcome (bits 2 and 3, ordinal of
+ *     {@link GameOutcome})</li>
+ *     <li>if it is not the initial position, the tiles of the white pieces, of the black pieces and of the ladies
+ *     (3 longs)</li>
+ *     <li>the number of moves (unsigned short) and the packed moves (shorts, see {@link GameRecord})</li>
+ * </ul>
+ * All the values are big endian. A game from the initial position takes 3 bytes and 2 bytes by move.
+ */
+public class GameRecordWriter implements Closeable {
+
+    /**
+     * Magic number at the start of the files ("JDDR").
+     */
+    public static final int MAGIC = 0x4A444452;
+
+    /**
+     * Version of the format.
+     */
+    public static final int VERSION = 1;
+
+    static final int BLACK_FIRST = 1;
+    static final int INITIAL_POSITION = 1 << 1;
+    static final int OUTCOME_SHIFT = 2;
+
+    private final DataOutputStream out;
+
+    /**
+     * Open a file to add games at its end (the file is created if needed).
+     * @param path The file.
+     * @throws IOException If the file can't be opened, or is not a game record file.
+     */
+    public GameRecordWriter(Path path) throws IOException {
+        boolean isNew = !Files.exists(path) || Files.size(path) == 0;
+        if (!isNew) {
+            try (var in = new DataInputStream(Files.newInputStream(path))) {
+                GameRecordReader.readHeader(in);
+            }
+        }
+        this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND), 1 << 16));
+        if (isNew) {
+            writeHeader();
+        }
+    }
+
+    /**
+     * Write games in a stream (a header is written first).
+     * @param out The stream.
+     * @throws IOException If the stream can't be written.
+     */
+    public GameRecordWriter(OutputStream out) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(out, 1 << 16));
+        writeHeader();
+    }
+
+    private void writeHeader() throws IOException {
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+    }
+
+    /**
+     * Write a game (can be called by many threads).
+     * @param record The game.
+     * @throws IOException If the game can't be written.
+     */
+    public synchronized void write(GameRecord record) throws IOException {
+        short[] moves = record.getMoves();
+        if (moves.length > 0xFFFF) {
+            throw new IllegalArgumentException("Too many moves in the game: " + moves.length);
+        }
+        boolean isInitial = record.isInitialPosition();
+        int flags = (record.getSideToMove() == PlayerColor.BLACK ? BLACK_FIRST : 0)
+                | (isInitial ? INITIAL_POSITION : 0)
+                | (record.getOutcome().ordinal() << OUTCOME_SHIFT);
+        out.writeByte(flags);
+        if (!isInitial) {
+            out.writeLong(record.getWhite());
+            out.writeLong(record.getBlack());
+            out.writeLong(record.getLadies());
+        }
+        out.writeShort(moves.length);
+        for (short move : moves) {
+            out.writeShort(move);
+        }
+    }
+
+    public synchronized void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        out.close();
+    }
+}
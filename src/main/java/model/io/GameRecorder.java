@@ -0,0 +1,75 @@
+package model.io;
+
+import model.bitboard.BitBoard;
+import model.bitboard.MoveList;
+import model.enums.GameOutcome;
+import model.enums.PlayerColor;
+
+import java.util.Arrays;
+
+/**
+ * Record the moves of a game while it is played, to create its {@link GameRecord}.
+ */
+public class GameRecorder {
+
+    /**
+     * Start position of the game.
+     */
+    private final long white;
+    private final long black;
+    private final long ladies;
+    private final PlayerColor firstPlayer;
+
+    /**
+     * Position after the recorded moves (to pack the next move).
+     */
+    private final BitBoard position;
+
+    /**
+     * The player to move in {@link #position}.
+     */
+    private PlayerColor pColor;
+
+    private final MoveList legalMoves = new MoveList();
+
+    private short[] moves = new short[128];
+    private int size = 0;
+
+    /**
+     * Start to record a game.
+     * @param start The start position (not modified).
+     * @param pColor The player who plays the first move.
+     */
+    public GameRecorder(BitBoard start, PlayerColor pColor) {
+        this.position = new BitBoard(start);
+        this.white = start.getWhite();
+        this.black = start.getBlack();
+        this.ladies = start.getLadies();
+        this.firstPlayer = pColor;
+        this.pColor = pColor;
+    }
+
+    /**
+     * Record a move.
+     * @param move The move (see {@link model.bitboard.Move}), legal for the player to move.
+     * @throws IllegalArgumentException If the move is not legal or can't be packed (the record is not changed).
+     */
+    public void play(long move) {
+        short packed = GameRecord.encodeMove(position, pColor, move, legalMoves);
+        if (size == moves.length) {
+            moves = Arrays.copyOf(moves, size * 2);
+        }
+        moves[size++] = packed;
+        position.makeMove(move);
+        pColor = pColor == PlayerColor.WHITE ? PlayerColor.BLACK : PlayerColor.WHITE;
+    }
+
+    /**
+     * Create the record of the game.
+     * @param outcome The result of the game.
+     * @return The record.
+     */
+    public GameRecord toRecord(GameOutcome outcome) {
+        return new GameRecord(white, black, ladies, firstPlayer, outcome, Arrays.copyOf(moves, size));
+    }
+}
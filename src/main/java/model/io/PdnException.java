@@ -0,0 +1,24 @@
+package model.io;
+
+import java.io.IOException;
+
+/**
+ * Error in a PDN file (bad syntax or illegal move). The reader skips the rest of the game, so the next games can
+ * still be read.
+ */
+public class PdnException extends IOException {
+
+    /**
+     * Line of the error in the file (from 1).
+     */
+    private final int line;
+
+    public PdnException(int line, String message) {
+        super("Line " + line + ": " + message);
+        this.line = line;
+    }
+
+    public int getLine() {
+        return line;
+    }
+}
@@ -0,0 +1,140 @@
+package model.io;
+
+import model.Board;
+import model.BoardFactory.BoardFactoryPosition;
+import model.bitboard.BitBoard;
+import model.bitboard.MoveList;
+import model.enums.GameOutcome;
+import model.enums.NotificationMode;
+import model.enums.PlayerColor;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A game read from or written to a PDN file: its tags (event, players...), its start position, its moves (legal,
+ * see {@link model.bitboard.Move}) and its result.
+ */
+public class PdnGame {
+
+    /**
+     * Tags of the game, in the order of the file.
+     */
+    private final Map<String, String> tags = new LinkedHashMap<>();
+
+    private final BitBoard start;
+
+    /**
+     * The player who plays the first move.
+     */
+    private final PlayerColor firstPlayer;
+
+    private final MoveList moves = new MoveList();
+
+    private GameOutcome outcome = GameOutcome.UNKNOWN;
+
+    /**
+     * Create a game without move.
+     * @param start The start position (copied).
+     * @param firstPlayer The player who plays the first move.
+     */
+    public PdnGame(BitBoard start, PlayerColor firstPlayer) {
+        this.start = new BitBoard(start);
+        this.firstPlayer = firstPlayer;
+    }
+
+    /**
+     * Create a game from a binary game record.
+     * @param record The record.
+     * @return The game (without tags).
+     * @throws IllegalArgumentException If a move of the record is not legal.
+     */
+    public static PdnGame of(GameRecord record) {
+        PdnGame game = new PdnGame(record.getStartPosition(), record.getSideToMove());
+        for (long move : record.decodeMoves()) {
+            game.moves.add(move);
+        }
+        game.outcome = record.getOutcome();
+        return game;
+    }
+
+    /**
+     * Create the binary record of the game.
+     * @return The record.
+     */
+    public GameRecord toRecord() {
+        GameRecorder recorder = new GameRecorder(start, firstPlayer);
+        for (int i = 0; i < moves.size(); i++) {
+            recorder.play(moves.get(i));
+        }
+        return recorder.toRecord(outcome);
+    }
+
+    /**
+     * Create a board with the position at the end of the game (all the moves are replayed on the board).
+     * @return The board, with the constraint of the player to move.
+     */
+    public Board toBoard() {
+        Board board = new Board(new BoardFactoryPosition(start));
+        NotificationMode mode = board.getNotificationMode();
+        board.setNotificationMode(NotificationMode.NONE);
+        for (int i = 0; i < moves.size(); i++) {
+            board.makeMove(moves.get(i));
+        }
+        board.computeConstraint(getPlayerToMove());
+        board.setNotificationMode(mode);
+        return board;
+    }
+
+    /**
+     * Get the player to move at the end of the game.
+     * @return The color of the player.
+     */
+    public PlayerColor getPlayerToMove() {
+        if (moves.size() % 2 == 0) {
+            return firstPlayer;
+        }
+        return firstPlayer == PlayerColor.WHITE ? PlayerColor.BLACK : PlayerColor.WHITE;
+    }
+
+    public String getTag(String name) {
+        return tags.get(name);
+    }
+
+    public void setTag(String name, String value) {
+        tags.put(name, value);
+    }
+
+    public Map<String, String> getTags() {
+        return Collections.unmodifiableMap(tags);
+    }
+
+    /**
+     * Get the start position.
+     * @return A copy of the position.
+     */
+    public BitBoard getStartPosition() {
+        return new BitBoard(start);
+    }
+
+    public PlayerColor getFirstPlayer() {
+        return firstPlayer;
+    }
+
+    /**
+     * Get the moves of the game (the list can be changed to add moves, which must be legal).
+     * @return The moves.
+     */
+    public MoveList getMoves() {
+        return moves;
+    }
+
+    public GameOutcome getOutcome() {
+        return outcome;
+    }
+
+    public void setOutcome(GameOutcome outcome) {
+        this.outcome = outcome;
+    }
+}
@@ -0,0 +1,522 @@
+package model.io;
+
+import model.bitboard.BitBoard;
+import model.bitboard.Move;
+import model.bitboard.MoveGenerator;
+import model.bitboard.MoveList;
+import model.enums.CaseType;
+import model.enums.GameOutcome;
+import model.enums.PlayerColor;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Read the games of a PDN file (Portable Draughts Notation, with the international numbering of the 50 tiles) one by
+ * one. The file is read by blocks and parsed without creating objects for the moves, so big databases can be read
+ * quickly. Each move is checked against the legal moves of the position, so all the games read can be replayed.
+ * <p>
+ * The comments, variations and annotations are skipped. A capture can be written with its steps ("26x37x48"), which
+ * are used to choose between the raids with the same start and destination ("14x25" is the single take if there is
+ * one); when no raid has exactly these steps, the raid taking the most pieces is chosen.
+ * <p>
+ * Usage: {@code PdnReader <file> [game record file]} checks all the games of a file (and adds them to a game record
+ * file).
+ */
+public class PdnReader implements Closeable {
+
+    private final Reader in;
+
+    /**
+     * Block of the file being parsed.
+     */
+    private final char[] buffer = new char[1 << 16];
+    private int index = 0;
+    private int limit = 0;
+
+    /**
+     * Current line in the file (for the errors).
+     */
+    private int line = 1;
+
+    /**
+     * Tiles of the move being parsed (from 1 to 50).
+     */
+    private final int[] steps = new int[BitBoard.SIZE];
+    private int stepCount = 0;
+
+    private final MoveList legalMoves = new MoveList();
+
+    private final StringBuilder text = new StringBuilder();
+
+    public PdnReader(Path path) throws IOException {
+        this(new InputStreamReader(Files.newInputStream(path), StandardCharsets.UTF_8));
+    }
+
+    public PdnReader(Reader in) {
+        this.in = in;
+    }
+
+    /**
+     * Read the next game.
+     * @return The game, or null at the end of the file.
+     * @throws PdnException If the game is not valid (the next game can still be read).
+     * @throws IOException If the file can't be read.
+     */
+    public PdnGame read() throws IOException {
+        skipBlanks();
+        if (peek() == -1) {
+            return null;
+        }
+        PdnGame game = new PdnGame(new BitBoard(), PlayerColor.WHITE);
+        while (peek() == '[') {
+            readTag(game);
+            skipBlanks();
+        }
+        try {
+            game = createGame(game);
+            readMoves(game);
+        } catch (PdnException e) {
+            skipGame();
+            throw e;
+        }
+        return game;
+    }
+
+    /**
+     * Create the game with the start position of the tags.
+     * @param tags A game with the tags only.
+     * @return The game.
+     */
+    private PdnGame createGame(PdnGame tags) throws PdnException {
+        String gameType = tags.getTag("GameType");
+        if (gameType != null && !gameType.equals("20") && !gameType.startsWith("20,")) {
+            throw new PdnException(line, "Unsupported game type " + gameType);
+        }
+        String fen = tags.getTag("FEN");
+        PdnGame game = fen != null ? parseFen(fen) : new PdnGame(initialPosition(), PlayerColor.WHITE);
+        for (var tag : tags.getTags().entrySet()) {
+            game.setTag(tag.getKey(), tag.getValue());
+        }
+        String result = tags.getTag("Result");
+        if (result != null) {
+            game.setOutcome(parseResult(result));
+        }
+        return game;
+    }
+
+    private static BitBoard initialPosition() {
+        BitBoard position = new BitBoard();
+        for (int sq = 0; sq < BitBoard.SIZE; sq++) {
+            if ((GameRecord.INITIAL_BLACK & (1L << sq)) != 0) {
+                position.set(sq, CaseType.BLACK_PAWN);
+            } else if ((GameRecord.INITIAL_WHITE & (1L << sq)) != 0) {
+                position.set(sq, CaseType.WHITE_PAWN);
+            }
+        }
+        return position;
+    }
+
+    /**
+     * Read the moves of a game until its result (or the tags of the next game).
+     * @param game The game to fill.
+     */
+    private void readMoves(PdnGame game) throws IOException {
+        BitBoard position = game.getStartPosition();
+        PlayerColor pColor = game.getFirstPlayer();
+        while (true) {
+            skipBlanks();
+            int c = peek();
+            if (c == -1 || c == '[') {
+                return;
+            }
+            if (c == '*') {
+                next();
+                game.setOutcome(GameOutcome.UNKNOWN);
+                return;
+            }
+            if (c == '$') {
+                // Numeric annotation ($3).
+                skipToken();
+                continue;
+            }
+            if (c < '0' || c > '9') {
+                // Annotations (!, ?, +...).
+                next();
+                continue;
+            }
+            int first = readNumber();
+            c = peek();
+            if (c == '.') {
+                while (peek() == '.') {
+                    next();
+                }
+                continue;
+            }
+            if (c == '/') {
+                skipToken();
+                game.setOutcome(GameOutcome.DRAW);
+                return;
+            }
+            if (c != '-' && c != 'x' && c != ':') {
+                throw new PdnException(line, "Unexpected number " + first);
+            }
+            next();
+            int second = readNumber();
+            if (c == '-' && (first == 0 || second == 0 || (first == 1 && second == 1))) {
+                game.setOutcome(parseResult(first + "-" + second));
+                return;
+            }
+            stepCount = 0;
+            steps[stepCount++] = first;
+            steps[stepCount++] = second;
+            while ((peek() == 'x' || peek() == ':') && stepCount < steps.length) {
+                next();
+                steps[stepCount++] = readNumber();
+            }
+            long move = findMove(position, pColor);
+            position.makeMove(move);
+            game.getMoves().add(move);
+            pColor = pColor == PlayerColor.WHITE ? PlayerColor.BLACK : PlayerColor.WHITE;
+        }
+    }
+
+    /**
+     * Find the legal move matching the parsed steps. A move whose steps are exactly the parsed ones is chosen first,
+     * then, when only the start and the destination are given, the one taking the most pieces.
+     * @param position The position.
+     * @param pColor The player to move.
+     * @return The move.
+     */
+    private long findMove(BitBoard position, PlayerColor pColor) throws PdnException {
+        for (int i = 0; i < stepCount; i++) {
+            if (steps[i] < 1 || steps[i] > BitBoard.SIZE) {
+                throw new PdnException(line, "Invalid tile " + steps[i]);
+            }
+        }
+        int from = steps[0] - 1;
+        int to = steps[stepCount - 1] - 1;
+        MoveGenerator.generate(position, pColor, -1, legalMoves);
+        long best = 0;
+        boolean isAmbiguous = false;
+        for (int i = 0; i < legalMoves.size(); i++) {
+            long move = legalMoves.get(i);
+            if (Move.from(move) != from || Move.to(move) != to) {
+                continue;
+            }
+            if (matchSteps(position, move)) {
+                return move;
+            }
+            if (stepCount != 2) {
+                continue;
+            }
+            int count = Long.bitCount(Move.taken(move));
+            if (best == 0 || count > Long.bitCount(Move.taken(best))) {
+                best = move;
+                isAmbiguous = false;
+            } else if (count == Long.bitCount(Move.taken(best))) {
+                isAmbiguous = true;
+            }
+        }
+        if (best == 0) {
+            throw new PdnException(line, "Illegal move " + stepsToString());
+        }
+        if (isAmbiguous) {
+            throw new PdnException(line, "Ambiguous move " + stepsToString());
+        }
+        return best;
+    }
+
+    /**
+     * Check if the steps of the parsed move are the ones of a move (one step by taken piece).
+     * @param position The position before the move.
+     * @param move The move.
+     * @return If the steps match the move.
+     */
+    private boolean matchSteps(BitBoard position, long move) {
+        long taken = Move.taken(move);
+        if (Long.bitCount(taken) != stepCount - 1) {
+            return false;
+        }
+        long start = 1L << Move.from(move);
+        for (int i = 0; i < stepCount - 1; i++) {
+            int a = steps[i] - 1;
+            int b = steps[i + 1] - 1;
+            int dx = BitBoard.posXOf(b) - BitBoard.posXOf(a);
+            int dy = BitBoard.posYOf(b) - BitBoard.posYOf(a);
+            if (dx == 0 || Math.abs(dx) != Math.abs(dy)) {
+                return false;
+            }
+            long between = position.between(a, b) & ~start;
+            if ((between & taken) == 0 || (between & ~taken) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String stepsToString() {
+        text.setLength(0);
+        for (int i = 0; i < stepCount; i++) {
+            if (i > 0) {
+                text.append('x');
+            }
+            text.append(steps[i]);
+        }
+        return text.toString();
+    }
+
+    /**
+     * Read a tag like {@code [White "Name"]}.
+     * @param game The game to add the tag to.
+     */
+    private void readTag(PdnGame game) throws IOException {
+        next();
+        text.setLength(0);
+        int c;
+        while ((c = peek()) != -1 && c != ' ' && c != '\t' && c != '"' && c != ']') {
+            text.append((char) next());
+        }
+        String name = text.toString();
+        while ((c = peek()) == ' ' || c == '\t') {
+            next();
+        }
+        text.setLength(0);
+        if (c == '"') {
+            next();
+            while ((c = next()) != -1 && c != '"') {
+                if (c == '\\' && peek() != -1) {
+                    c = next();
+                }
+                text.append((char) c);
+            }
+        }
+        while ((c = next()) != -1 && c != ']' && c != '\n') {
+            // Skip until the end of the tag.
+        }
+        game.setTag(name, text.toString());
+    }
+
+    /**
+     * Skip the white spaces and the comments.
+     */
+    private void skipBlanks() throws IOException {
+        while (true) {
+            int c = peek();
+            switch (c) {
+                case ' ', '\t', '\r', '\n', '\f' -> next();
+                case '{' -> skipUntil('}');
+                case ';', '%' -> skipUntil('\n');
+                case '(' -> skipVariation();
+                default -> {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void skipUntil(char end) throws IOException {
+        int c;
+        while ((c = next()) != -1 && c != end) {
+            // Skip.
+        }
+    }
+
+    private void skipVariation() throws IOException {
+        int depth = 0;
+        int c;
+        while ((c = next()) != -1) {
+            if (c == '(') {
+                depth++;
+            } else if (c == ')' && --depth == 0) {
+                return;
+            } else if (c == '{') {
+                skipUntil('}');
+            }
+        }
+    }
+
+    private void skipToken() throws IOException {
+        int c;
+        while ((c = peek()) != -1 && c != ' ' && c != '\t' && c != '\r' && c != '\n') {
+            next();
+        }
+    }
+
+    /**
+     * Skip the rest of a game after an error (until the tags of the next game).
+     */
+    private void skipGame() throws IOException {
+        boolean isLineStart = false;
+        int c;
+        while ((c = peek()) != -1) {
+            if (c == '[' && isLineStart) {
+                return;
+            }
+            if (c == '{') {
+                skipUntil('}');
+                continue;
+            }
+            next();
+            if (c == '\n') {
+                isLineStart = true;
+            } else if (c != ' ' && c != '\t' && c != '\r') {
+                isLineStart = false;
+            }
+        }
+    }
+
+    private int readNumber() throws IOException {
+        int c = peek();
+        if (c < '0' || c > '9') {
+            throw new PdnException(line, "Number expected");
+        }
+        int result = 0;
+        while ((c = peek()) >= '0' && c <= '9') {
+            result = result * 10 + (next() - '0');
+            if (result > 1_000_000) {
+                throw new PdnException(line, "Number too big");
+            }
+        }
+        return result;
+    }
+
+    private int peek() throws IOException {
+        if (index == limit) {
+            int read = in.read(buffer, 0, buffer.length);
+            if (read <= 0) {
+                return -1;
+            }
+            index = 0;
+            limit = read;
+        }
+        return buffer[index];
+    }
+
+    private int next() throws IOException {
+        int c = peek();
+        if (c != -1) {
+            index++;
+            if (c == '\n') {
+                line++;
+            }
+        }
+        return c;
+    }
+
+    /**
+     * Parse a result ("2-0", "0-2", "1-1", "*" and the chess like "1-0", "0-1", "1/2-1/2").
+     * @param result The result.
+     * @return The outcome.
+     */
+    static GameOutcome parseResult(String result) {
+        return switch (result.trim()) {
+            case "2-0", "1-0" -> GameOutcome.WHITE_WIN;
+            case "0-2", "0-1" -> GameOutcome.BLACK_WIN;
+            case "1-1", "1/2-1/2" -> GameOutcome.DRAW;
+            default -> GameOutcome.UNKNOWN;
+        };
+    }
+
+    /**
+     * Parse a position like {@code W:W31-50:BK1,2,3} (player to move, then the white and black pieces, K for the
+     * ladies).
+     * @param fen The position.
+     * @return A game starting from the position.
+     */
+    private PdnGame parseFen(String fen) throws PdnException {
+        String[] parts = fen.trim().replace(".", "").split(":");
+        if (parts.length == 0 || parts[0].isEmpty()) {
+            throw new PdnException(line, "Invalid FEN " + fen);
+        }
+        PlayerColor firstPlayer = switch (parts[0].charAt(0)) {
+            case 'W' -> PlayerColor.WHITE;
+            case 'B' -> PlayerColor.BLACK;
+            default -> throw new PdnException(line, "Invalid FEN " + fen);
+        };
+        BitBoard position = new BitBoard();
+        for (int i = 1; i < parts.length; i++) {
+            String part = parts[i].trim();
+            if (part.isEmpty()) {
+                continue;
+            }
+            boolean isWhite = switch (part.charAt(0)) {
+                case 'W' -> true;
+                case 'B' -> false;
+                default -> throw new PdnException(line, "Invalid FEN " + fen);
+            };
+            for (String item : part.substring(1).split(",")) {
+                item = item.trim();
+                if (item.isEmpty()) {
+                    continue;
+                }
+                boolean isLady = item.charAt(0) == 'K';
+                if (isLady) {
+                    item = item.substring(1);
+                }
+                CaseType type = isWhite
+                        ? (isLady ? CaseType.WHITE_LADY : CaseType.WHITE_PAWN)
+                        : (isLady ? CaseType.BLACK_LADY : CaseType.BLACK_PAWN);
+                try {
+                    String[] range = item.split("-");
+                    int first = Integer.parseInt(range[0]);
+                    int last = range.length > 1 ? Integer.parseInt(range[1]) : first;
+                    for (int sq = first; sq <= last; sq++) {
+                        if (sq < 1 || sq > BitBoard.SIZE) {
+                            throw new PdnException(line, "Invalid tile " + sq + " in FEN " + fen);
+                        }
+                        position.set(sq - 1, type);
+                    }
+                } catch (NumberFormatException e) {
+                    throw new PdnException(line, "Invalid FEN " + fen);
+                }
+            }
+        }
+        return new PdnGame(position, firstPlayer);
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: PdnReader <file> [game record file]");
+            System.exit(1);
+        }
+        long games = 0;
+        long moves = 0;
+        long errors = 0;
+        long start = System.nanoTime();
+        try (var reader = new PdnReader(Path.of(args[0]));
+             var records = args.length > 1 ? new GameRecordWriter(Path.of(args[1])) : null) {
+            while (true) {
+                PdnGame game;
+                try {
+                    game = reader.read();
+                } catch (PdnException e) {
+                    errors++;
+                    System.err.println(e.getMessage());
+                    continue;
+                }
+                if (game == null) {
+                    break;
+                }
+                games++;
+                moves += game.getMoves().size();
+                if (records != null) {
+                    records.write(game.toRecord());
+                }
+            }
+        }
+        long elapsed = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        System.out.printf("%d games, %d moves, %d invalid games in %d ms (%d games/s)%n",
+                games, moves, errors, elapsed, games * 1000 / elapsed);
+    }
+}
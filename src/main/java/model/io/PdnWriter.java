@@ -0,0 +1,182 @@
+package model.io;
+
+import model.bitboard.BitBoard;
+import model.bitboard.Move;
+import model.bitboard.MoveGenerator;
+import model.bitboard.MoveList;
+import model.enums.CaseType;
+import model.enums.GameOutcome;
+import model.enums.PlayerColor;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Write games in PDN (Portable Draughts Notation, with the international numbering of the 50 tiles), one after the
+ * other. The captures are written with all their steps only when another raid has the same start and destination.
+ */
+public class PdnWriter implements Closeable {
+
+    /**
+     * Maximum length of a line of moves.
+     */
+    private static final int LINE_LENGTH = 80;
+
+    private final Writer out;
+
+    private final MoveList legalMoves = new MoveList();
+
+    private final StringBuilder lineText = new StringBuilder();
+
+    public PdnWriter(Path path) throws IOException {
+        this(Files.newBufferedWriter(path, StandardCharsets.UTF_8));
+    }
+
+    public PdnWriter(Writer out) {
+        this.out = out instanceof BufferedWriter ? out : new BufferedWriter(out);
+    }
+
+    /**
+     * Write a game (its tags, with the game type, the start position if it is not the initial one and the result).
+     * @param game The game.
+     * @throws IOException If the game can't be written.
+     */
+    public void write(PdnGame game) throws IOException {
+        BitBoard position = game.getStartPosition();
+        Map<String, String> tags = new LinkedHashMap<>(game.getTags());
+        tags.put("Result", resultOf(game.getOutcome()));
+        tags.putIfAbsent("GameType", "20");
+        if (!isInitial(position, game.getFirstPlayer())) {
+            tags.put("FEN", toFen(position, game.getFirstPlayer()));
+        } else {
+            tags.remove("FEN");
+        }
+        for (var tag : tags.entrySet()) {
+            out.write('[' + tag.getKey() + " \"" + tag.getValue().replace("\\", "\\\\").replace("\"", "\\\"")
+                    + "\"]\n");
+        }
+        out.write('\n');
+
+        lineText.setLength(0);
+        PlayerColor pColor = game.getFirstPlayer();
+        MoveList moves = game.getMoves();
+        for (int i = 0; i < moves.size(); i++) {
+            long move = moves.get(i);
+            int number = (i + (game.getFirstPlayer() == PlayerColor.BLACK ? 1 : 0)) / 2 + 1;
+            if (pColor == PlayerColor.WHITE) {
+                addWord(number + ".");
+            } else if (i == 0) {
+                addWord(number + "...");
+            }
+            addWord(notation(position, pColor, move));
+            position.makeMove(move);
+            pColor = pColor == PlayerColor.WHITE ? PlayerColor.BLACK : PlayerColor.WHITE;
+        }
+        addWord(resultOf(game.getOutcome()));
+        out.write(lineText.toString());
+        out.write("\n\n");
+    }
+
+    /**
+     * Write a move, with its steps if needed to know which pieces are taken.
+     * @param position The position before the move.
+     * @param pColor The player to move.
+     * @param move The move.
+     * @return The move as text.
+     */
+    private String notation(BitBoard position, PlayerColor pColor, long move) {
+        if (!Move.isCapture(move)) {
+            return Move.toString(move);
+        }
+        MoveGenerator.generate(position, pColor, -1, legalMoves);
+        boolean isAmbiguous = false;
+        for (int i = 0; i < legalMoves.size(); i++) {
+            long m = legalMoves.get(i);
+            if (m != move && Move.from(m) == Move.from(move) && Move.to(m) == Move.to(move)) {
+                isAmbiguous = true;
+                break;
+            }
+        }
+        if (!isAmbiguous) {
+            return Move.toString(move);
+        }
+        StringBuilder result = new StringBuilder().append(Move.from(move) + 1);
+        for (int step : MoveGenerator.path(position, move)) {
+            result.append('x').append(step + 1);
+        }
+        return result.toString();
+    }
+
+    private void addWord(String word) throws IOException {
+        if (lineText.length() > 0 && lineText.length() + 1 + word.length() > LINE_LENGTH) {
+            out.write(lineText.toString());
+            out.write('\n');
+            lineText.setLength(0);
+        }
+        if (lineText.length() > 0) {
+            lineText.append(' ');
+        }
+        lineText.append(word);
+    }
+
+    private static boolean isInitial(BitBoard position, PlayerColor firstPlayer) {
+        return firstPlayer == PlayerColor.WHITE && position.getLadies() == 0
+                && position.getWhite() == GameRecord.INITIAL_WHITE && position.getBlack() == GameRecord.INITIAL_BLACK;
+    }
+
+    /**
+     * Write a position like {@code W:W31,32:BK1,2} (player to move, then the white and black pieces, K for the
+     * ladies).
+     * @param position The position.
+     * @param pColor The player to move.
+     * @return The position as text.
+     */
+    public static String toFen(BitBoard position, PlayerColor pColor) {
+        StringBuilder white = new StringBuilder(":W");
+        StringBuilder black = new StringBuilder(":B");
+        for (int sq = 0; sq < BitBoard.SIZE; sq++) {
+            CaseType type = position.get(sq);
+            StringBuilder side = switch (type) {
+                case WHITE_PAWN, WHITE_LADY -> white;
+                case BLACK_PAWN, BLACK_LADY -> black;
+                default -> null;
+            };
+            if (side == null) {
+                continue;
+            }
+            if (side.length() > 2) {
+                side.append(',');
+            }
+            if (type == CaseType.WHITE_LADY || type == CaseType.BLACK_LADY) {
+                side.append('K');
+            }
+            side.append(sq + 1);
+        }
+        return (pColor == PlayerColor.WHITE ? "W" : "B") + white + black;
+    }
+
+    static String resultOf(GameOutcome outcome) {
+        return switch (outcome) {
+            case WHITE_WIN -> "2-0";
+            case BLACK_WIN -> "0-2";
+            case DRAW -> "1-1";
+            case UNKNOWN -> "*";
+        };
+    }
+
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
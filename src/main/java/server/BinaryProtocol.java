@@ -0,0 +1,189 @@
+package server;
+
+import model.GameReferee;
+import model.GameSnapshot;
+import model.enums.GameOutcome;
+import model.enums.PlayerColor;
+import model.io.PdnWriter;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Binary protocol of {@link NioGameServer}. Each frame is the length of the rest of the frame (int), the type of
+ * the frame (byte), the identifier of the request (int, chosen by the client and given back in the response, 0 for
+ * the deltas) and the fields of the type. The numbers are big endian and the tiles are {@link model.bitboard.BitBoard}
+ * tiles.
+ * <p>
+ * Requests:
+ * <ul>
+ *     <li>{@link #NEW}: create a game, answers {@link #CREATED};</li>
+ *     <li>{@link #OBSERVE} (long game): receive a {@link #DELTA} after each change of the game, answers
+ *     {@link #STATE};</li>
+ *     <li>{@link #CLICK} (long game, byte posX, byte posY): click on a tile for the current player (see
+ *     {@link model.Game#caseAction(int, int)}), answers {@link #STATE};</li>
+ *     <li>{@link #MOVE} (long game, byte count, count bytes of tiles): play a complete move, given by its start tile,
+ *     the landing tiles of the takes if it is ambiguous, and its destination tile, answers {@link #STATE};</li>
+ *     <li>{@link #GET_STATE} (long game): get the state of a game, answers {@link #STATE};</li>
+ *     <li>{@link #CLOSE} (long game): close a game, answers {@link #CLOSED}.</li>
+ * </ul>
+ * Responses:
+ * <ul>
+ *     <li>{@link #CREATED} (long game);</li>
+ *     <li>{@link #CLOSED} (long game);</li>
+ *     <li>{@link #STATE} (long game, the {@link GameSnapshot} bytes, byte selected tile, long reachable tiles, byte
+ *     outcome, byte reason);</li>
+ *     <li>{@link #DELTA} (long game, byte flags, the masks of the flags, one byte by changed type, byte player to
+ *     move, byte tile in raid, byte outcome, byte reason), see {@link SessionDelta};</li>
+ *     <li>{@link #ERROR} (short length and the UTF-8 message).</li>
+ * </ul>
+ */
+public final class BinaryProtocol {
+
+    public static final byte NEW = 0x01;
+    public static final byte OBSERVE = 0x02;
+    public static final byte CLICK = 0x03;
+    public static final byte MOVE = 0x04;
+    public static final byte GET_STATE = 0x05;
+    public static final byte CLOSE = 0x06;
+
+    public static final byte CREATED = (byte) 0x81;
+    public static final byte STATE = (byte) 0x82;
+    public static final byte DELTA = (byte) 0x83;
+    public static final byte CLOSED = (byte) 0x84;
+    public static final byte ERROR = (byte) 0xFF;
+
+    /**
+     * Flags of the masks written in a delta.
+     */
+    public static final int TYPES = 1;
+    public static final int SELECTIONS = 2;
+    public static final int REACHABLES = 4;
+    public static final int CONSTRAINTS = 8;
+
+    /**
+     * Size of the type and the request identifier (after the length).
+     */
+    public static final int HEADER_SIZE = 1 + Integer.BYTES;
+
+    /**
+     * Maximum length of a request (a move can't have more than 20 takes).
+     */
+    public static final int MAX_REQUEST = HEADER_SIZE + Long.BYTES + 1 + 32;
+
+    /**
+     * Maximum length of a response.
+     */
+    public static final int MAX_RESPONSE = HEADER_SIZE + Short.BYTES + 1024;
+
+    private BinaryProtocol() {
+    }
+
+    /**
+     * Start a frame.
+     * @param type The type of the frame.
+     * @param requestId The identifier of the request.
+     * @param size The size of the fields.
+     * @return The buffer, to fill with the fields.
+     */
+    public static ByteBuffer frame(byte type, int requestId, int size) {
+        return ByteBuffer.allocate(Integer.BYTES + HEADER_SIZE + size)
+                .putInt(HEADER_SIZE + size).put(type).putInt(requestId);
+    }
+
+    public static ByteBuffer created(int requestId, long gameId) {
+        return frame(CREATED, requestId, Long.BYTES).putLong(gameId).flip();
+    }
+
+    public static ByteBuffer closed(int requestId, long gameId) {
+        return frame(CLOSED, requestId, Long.BYTES).putLong(gameId).flip();
+    }
+
+    public static ByteBuffer state(int requestId, SessionState state) {
+        return frame(STATE, requestId, 2 * Long.BYTES + GameSnapshot.SIZE + 3)
+                .putLong(state.gameId())
+                .put(state.snapshot().toBytes())
+                .put((byte) state.selected())
+                .putLong(state.reachable())
+                .put((byte) state.outcome().ordinal())
+                .put((byte) state.reason().ordinal())
+                .flip();
+    }
+
+    public static ByteBuffer delta(SessionDelta delta) {
+        int flags = (delta.types() != 0 ? TYPES : 0) | (delta.selections() != 0 ? SELECTIONS : 0)
+                | (delta.reachables() != 0 ? REACHABLES : 0) | (delta.constraints() != 0 ? CONSTRAINTS : 0);
+        ByteBuffer buffer = frame(DELTA, 0, Long.BYTES + 1 + Integer.bitCount(flags) * Long.BYTES
+                + delta.newTypes().length + 4)
+                .putLong(delta.gameId())
+                .put((byte) flags);
+        if ((flags & TYPES) != 0) {
+            buffer.putLong(delta.types());
+        }
+        if ((flags & SELECTIONS) != 0) {
+            buffer.putLong(delta.selections());
+        }
+        if ((flags & REACHABLES) != 0) {
+            buffer.putLong(delta.reachables());
+        }
+        if ((flags & CONSTRAINTS) != 0) {
+            buffer.putLong(delta.constraints());
+        }
+        return buffer.put(delta.newTypes())
+                .put((byte) (delta.toMove() == PlayerColor.WHITE ? 0 : 1))
+                .put((byte) delta.raidSquare())
+                .put((byte) delta.outcome().ordinal())
+                .put((byte) delta.reason().ordinal())
+                .flip();
+    }
+
+    public static ByteBuffer error(int requestId, String message) {
+        byte[] bytes = String.valueOf(message).getBytes(StandardCharsets.UTF_8);
+        int length = Math.min(bytes.length, MAX_RESPONSE - HEADER_SIZE - Short.BYTES);
+        return frame(ERROR, requestId, Short.BYTES + length)
+                .putShort((short) length).put(bytes, 0, length)
+                .flip();
+    }
+
+    /**
+     * Read the fields of a {@link #STATE} frame.
+     * @param body The fields (consumed).
+     * @return The state.
+     */
+    public static SessionState readState(ByteBuffer body) {
+        long gameId = body.getLong();
+        byte[] bytes = new byte[GameSnapshot.SIZE];
+        body.get(bytes);
+        GameSnapshot snapshot = GameSnapshot.fromBytes(bytes);
+        int selected = body.get();
+        long reachable = body.getLong();
+        return new SessionState(gameId, snapshot,
+                PdnWriter.toFen(snapshot.toBitBoard(), snapshot.getCurrentColor()), selected, reachable,
+                GameOutcome.values()[body.get()], GameReferee.Reason.values()[body.get()]);
+    }
+
+    /**
+     * Read the fields of a {@link #DELTA} frame.
+     * @param body The fields (consumed).
+     * @return The delta.
+     */
+    public static SessionDelta readDelta(ByteBuffer body) {
+        long gameId = body.getLong();
+        int flags = body.get();
+        long types = (flags & TYPES) != 0 ? body.getLong() : 0;
+        long selections = (flags & SELECTIONS) != 0 ? body.getLong() : 0;
+        long reachables = (flags & REACHABLES) != 0 ? body.getLong() : 0;
+        long constraints = (flags & CONSTRAINTS) != 0 ? body.getLong() : 0;
+        byte[] newTypes = new byte[Long.bitCount(types)];
+        body.get(newTypes);
+        return new SessionDelta(gameId, types, newTypes, selections, reachables, constraints,
+                body.get() == 0 ? PlayerColor.WHITE : PlayerColor.BLACK, body.get(),
+                GameOutcome.values()[body.get()], GameReferee.Reason.values()[body.get()]);
+    }
+
+    public static String readError(ByteBuffer body) {
+        byte[] bytes = new byte[body.getShort()];
+        body.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
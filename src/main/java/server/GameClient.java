@@ -0,0 +1,411 @@
+package server;
+
+import model.GameReferee;
+import model.GameSnapshot;
+import model.bitboard.BitBoard;
+import model.bitboard.Move;
+import model.bitboard.MoveGenerator;
+import model.bitboard.MoveList;
+import model.enums.CaseType;
+import model.enums.GameOutcome;
+import model.enums.PlayerColor;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Consumer;
+
+/**
+ * Client of {@link NioGameServer}, with a blocking connection. The simple methods send a request and wait for its
+ * response, giving the deltas received meanwhile to the delta listener. The requests can also be pipelined with
+ * {@link #send} and {@link #read()}.
+ * <p>
+ * The main method is a load test on the loopback address: it plays random games on many connections, with observers
+ * checking that the deltas they receive rebuild the state of the games.
+ * <p>
+ * Usage: {@code GameClient [--port=7778] [--games=1000] [--observers=1] [--plies=100] [--threads=N]} (without
+ * port, a server is started in the same process).
+ */
+public class GameClient implements Closeable {
+
+    /**
+     * A frame received from the server.
+     * @param type The type (see {@link BinaryProtocol}).
+     * @param requestId The identifier of the request (0 for a delta).
+     * @param body The fields of the frame.
+     */
+    public record Frame(byte type, int requestId, ByteBuffer body) {
+    }
+
+    private final SocketChannel channel;
+
+    /**
+     * Bytes read and not yet given (ready to be read).
+     */
+    private final ByteBuffer input = ByteBuffer.allocate(64 * 1024).flip();
+
+    private int nextRequestId = 1;
+
+    private Consumer<SessionDelta> deltaListener = delta -> {};
+
+    /**
+     * Connect to a server on the loopback address.
+     * @param port The port of the server.
+     * @throws IOException If the server can't be reached.
+     */
+    public GameClient(int port) throws IOException {
+        channel = SocketChannel.open(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        channel.socket().setTcpNoDelay(true);
+    }
+
+    public void setDeltaListener(Consumer<SessionDelta> deltaListener) {
+        this.deltaListener = deltaListener;
+    }
+
+    public long newGame() throws IOException {
+        return await(send(BinaryProtocol.NEW, -1), BinaryProtocol.CREATED).body().getLong();
+    }
+
+    /**
+     * Observe a game: the deltas of the game are given to the delta listener.
+     * @param gameId The game.
+     * @return The state of the game when the deltas start.
+     */
+    public SessionState observe(long gameId) throws IOException {
+        return BinaryProtocol.readState(await(send(BinaryProtocol.OBSERVE, gameId), BinaryProtocol.STATE).body());
+    }
+
+    public SessionState click(long gameId, int posX, int posY) throws IOException {
+        return BinaryProtocol.readState(await(send(BinaryProtocol.CLICK, gameId, (byte) posX, (byte) posY),
+                BinaryProtocol.STATE).body());
+    }
+
+    /**
+     * Play a complete move.
+     * @param gameId The game.
+     * @param steps The start tile, the landing tiles of the takes and the destination tile.
+     * @return The state after the move.
+     */
+    public SessionState move(long gameId, int... steps) throws IOException {
+        return BinaryProtocol.readState(await(send(BinaryProtocol.MOVE, gameId, stepsOf(steps)),
+                BinaryProtocol.STATE).body());
+    }
+
+    public SessionState state(long gameId) throws IOException {
+        return BinaryProtocol.readState(await(send(BinaryProtocol.GET_STATE, gameId), BinaryProtocol.STATE).body());
+    }
+
+    public void closeGame(long gameId) throws IOException {
+        await(send(BinaryProtocol.CLOSE, gameId), BinaryProtocol.CLOSED);
+    }
+
+    /**
+     * Send a request without waiting for its response.
+     * @param type The type of the request.
+     * @param gameId The game (ignored for {@link BinaryProtocol#NEW}).
+     * @param fields The other fields of the request.
+     * @return The identifier of the request.
+     */
+    public int send(byte type, long gameId, byte... fields) throws IOException {
+        int requestId = nextRequestId++;
+        ByteBuffer frame = type == BinaryProtocol.NEW ? BinaryProtocol.frame(type, requestId, 0)
+                : BinaryProtocol.frame(type, requestId, Long.BYTES + fields.length).putLong(gameId).put(fields);
+        frame.flip();
+        while (frame.hasRemaining()) {
+            channel.write(frame);
+        }
+        return requestId;
+    }
+
+    /**
+     * Encode the steps of a move as the fields of a {@link BinaryProtocol#MOVE} request.
+     */
+    public static byte[] stepsOf(int... steps) {
+        byte[] fields = new byte[steps.length + 1];
+        fields[0] = (byte) steps.length;
+        for (int i = 0; i < steps.length; i++) {
+            fields[i + 1] = (byte) steps[i];
+        }
+        return fields;
+    }
+
+    /**
+     * Wait for the next frame.
+     * @return The frame.
+     * @throws EOFException If the server closed the connection.
+     */
+    public Frame read() throws IOException {
+        fill(Integer.BYTES);
+        int length = input.getInt();
+        if (length < BinaryProtocol.HEADER_SIZE || length > BinaryProtocol.MAX_RESPONSE) {
+            throw new IOException("Invalid frame length " + length);
+        }
+        fill(length);
+        byte type = input.get();
+        int requestId = input.getInt();
+        byte[] body = new byte[length - BinaryProtocol.HEADER_SIZE];
+        input.get(body);
+        return new Frame(type, requestId, ByteBuffer.wrap(body));
+    }
+
+    /**
+     * Wait for the response of a request.
+     * @throws IllegalStateException If the server answered an error.
+     */
+    private Frame await(int requestId, byte type) throws IOException {
+        while (true) {
+            Frame frame = read();
+            if (frame.type() == BinaryProtocol.DELTA) {
+                deltaListener.accept(BinaryProtocol.readDelta(frame.body()));
+            } else if (frame.requestId() == requestId) {
+                if (frame.type() == BinaryProtocol.ERROR) {
+                    throw new IllegalStateException(BinaryProtocol.readError(frame.body()));
+                }
+                if (frame.type() != type) {
+                    throw new IOException("Unexpected frame type " + frame.type());
+                }
+                return frame;
+            }
+        }
+    }
+
+    private void fill(int count) throws IOException {
+        while (input.remaining() < count) {
+            input.compact();
+            int read = channel.read(input);
+            input.flip();
+            if (read < 0) {
+                throw new EOFException("Connection closed by the server");
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * A game rebuilt from its state and its deltas, as seen by an observer.
+     */
+    public static final class ObservedGame {
+
+        private long white;
+        private long black;
+        private long ladies;
+        private long constraints;
+        private long selection;
+        private long reachable;
+        private int raidSquare;
+        private PlayerColor toMove;
+        private GameOutcome outcome;
+        private GameReferee.Reason reason;
+
+        public ObservedGame(SessionState state) {
+            GameSnapshot snapshot = state.snapshot();
+            white = snapshot.getWhite();
+            black = snapshot.getBlack();
+            ladies = snapshot.getLadies();
+            constraints = snapshot.getConstraints();
+            selection = state.selected() >= 0 ? 1L << state.selected() : 0;
+            reachable = state.reachable();
+            raidSquare = snapshot.getRaidSquare();
+            toMove = snapshot.getCurrentColor();
+            outcome = state.outcome();
+            reason = state.reason();
+        }
+
+        /**
+         * Apply a delta of the game.
+         * @param delta The delta.
+         */
+        public void apply(SessionDelta delta) {
+            long types = delta.types();
+            for (int i = 0; types != 0; i++, types &= types - 1) {
+                long bit = types & -types;
+                white &= ~bit;
+                black &= ~bit;
+                ladies &= ~bit;
+                switch (CaseType.values()[delta.newTypes()[i]]) {
+                    case WHITE_PAWN -> white |= bit;
+                    case WHITE_LADY -> {
+                        white |= bit;
+                        ladies |= bit;
+                    }
+                    case BLACK_PAWN -> black |= bit;
+                    case BLACK_LADY -> {
+                        black |= bit;
+                        ladies |= bit;
+                    }
+                    default -> {
+                    }
+                }
+            }
+            selection ^= delta.selections();
+            reachable ^= delta.reachables();
+            constraints ^= delta.constraints();
+            raidSquare = delta.raidSquare();
+            toMove = delta.toMove();
+            outcome = delta.outcome();
+            reason = delta.reason();
+        }
+
+        public GameSnapshot snapshot() {
+            return new GameSnapshot(white, black, ladies, constraints, raidSquare, toMove);
+        }
+
+        /**
+         * Check if the game is the same as a state of the server.
+         * @param state The state.
+         * @return If the pieces, the constraints, the selection and the outcome are the same.
+         */
+        public boolean matches(SessionState state) {
+            return snapshot().equals(state.snapshot()) && reachable == state.reachable()
+                    && selection == (state.selected() >= 0 ? 1L << state.selected() : 0)
+                    && outcome == state.outcome() && reason == state.reason();
+        }
+
+        public GameOutcome getOutcome() {
+            return outcome;
+        }
+    }
+
+    /**
+     * Options: {@code --port=7778} (port of the server, a server is started in this process without it),
+     * {@code --games=1000}, {@code --observers=1} (observer connections by game), {@code --plies=100} (maximum number
+     * of moves by game) and {@code --threads=N} (threads of the server started in this process).
+     * @param args The options.
+     */
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                System.err.println("Invalid option " + arg + ", expected --option=value");
+                System.exit(1);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        int games = Integer.parseInt(options.getOrDefault("games", "1000"));
+        int observers = Integer.parseInt(options.getOrDefault("observers", "1"));
+        int maxPlies = Integer.parseInt(options.getOrDefault("plies", "100"));
+        int port;
+        NioGameServer server = null;
+        if (options.containsKey("port")) {
+            port = Integer.parseInt(options.get("port"));
+        } else {
+            int threads = Integer.parseInt(options.getOrDefault("threads",
+                    String.valueOf(Runtime.getRuntime().availableProcessors())));
+            server = new NioGameServer(0, new SessionRegistry(threads));
+            Thread thread = new Thread(server::serve, "game-server-selector");
+            thread.setDaemon(true);
+            thread.start();
+            port = server.getPort();
+        }
+
+        long start = System.nanoTime();
+        List<LoadGame> loadGames = new ArrayList<>();
+        for (int i = 0; i < games; i++) {
+            GameClient player = new GameClient(port);
+            long id = player.newGame();
+            LoadGame game = new LoadGame(id, player, player.state(id));
+            for (int j = 0; j < observers; j++) {
+                GameClient observer = new GameClient(port);
+                game.observers.add(observer);
+                game.views.add(new ObservedGame(observer.observe(id)));
+            }
+            loadGames.add(game);
+        }
+        long connected = System.nanoTime();
+        System.out.printf("%d connections in %d ms%n", games * (1 + observers), (connected - start) / 1_000_000);
+
+        Random random = new Random(1);
+        MoveList moves = new MoveList();
+        long plies = 0;
+        long deltas = 0;
+        long mismatches = 0;
+        List<LoadGame> playing = new ArrayList<>(loadGames);
+        for (int ply = 0; ply < maxPlies && !playing.isEmpty(); ply++) {
+            // Send a move on all the games, then read the responses and the deltas.
+            for (LoadGame game : playing) {
+                BitBoard position = game.state.snapshot().toBitBoard();
+                MoveGenerator.generate(position, game.state.toMove(), moves);
+                long move = moves.get(random.nextInt(moves.size()));
+                int[] path = MoveGenerator.path(position, move);
+                int[] steps = new int[path.length + 1];
+                steps[0] = Move.from(move);
+                System.arraycopy(path, 0, steps, 1, path.length);
+                game.requestId = game.player.send(BinaryProtocol.MOVE, game.id, stepsOf(steps));
+            }
+            List<LoadGame> next = new ArrayList<>();
+            for (LoadGame game : playing) {
+                Frame frame = game.player.await(game.requestId, BinaryProtocol.STATE);
+                game.state = BinaryProtocol.readState(frame.body());
+                plies++;
+                for (int j = 0; j < game.observers.size(); j++) {
+                    Frame delta = game.observers.get(j).read();
+                    if (delta.type() != BinaryProtocol.DELTA) {
+                        throw new IOException("Expected a delta, got the frame type " + delta.type());
+                    }
+                    game.views.get(j).apply(BinaryProtocol.readDelta(delta.body()));
+                    deltas++;
+                    if (!game.views.get(j).matches(game.state)) {
+                        mismatches++;
+                    }
+                }
+                if (game.state.outcome() == GameOutcome.UNKNOWN) {
+                    next.add(game);
+                }
+            }
+            playing = next;
+        }
+        long elapsed = System.nanoTime() - connected;
+        System.out.printf("%d moves and %d deltas in %d ms (%.1f us by move), %d mismatches, %d games over%n",
+                plies, deltas, elapsed / 1_000_000, elapsed / 1000.0 / Math.max(1, plies), mismatches,
+                games - playing.size());
+        for (LoadGame game : loadGames) {
+            game.player.close();
+            for (GameClient observer : game.observers) {
+                observer.close();
+            }
+        }
+        if (server != null) {
+            server.close();
+        }
+        if (mismatches > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * A game of the load test, with its player and observer connections.
+     */
+    private static final class LoadGame {
+
+        private final long id;
+
+        private final GameClient player;
+
+        private final List<GameClient> observers = new ArrayList<>();
+
+        private final List<ObservedGame> views = new ArrayList<>();
+
+        private SessionState state;
+
+        private int requestId;
+
+        LoadGame(long id, GameClient player, SessionState state) {
+            this.id = id;
+            this.player = player;
+            this.state = state;
+        }
+    }
+}
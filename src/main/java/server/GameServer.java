@@ -0,0 +1,185 @@
+package server;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Server hosting many games at once, played by clients over a local socket. The protocol is made of text lines, one
+ * request and one response by line:
+ * <ul>
+ *     <li>{@code NEW [black] [white]}: create a game, answers {@code OK <id>};</li>
+ *     <li>{@code CLICK <id> <posX> <posY>}: click on a tile for the current player (see
+ *     {@link model.Game#caseAction(int, int)});</li>
+ *     <li>{@code MOVE <id> <move>}: play a complete move, like {@code 32-28} or {@code 28x19};</li>
+ *     <li>{@code STATE <id>}: get the state of a game;</li>
+ *     <li>{@code CLOSE <id>}: close a game;</li>
+ *     <li>{@code QUIT}: close the connection.</li>
+ * </ul>
+ * {@code CLICK}, {@code MOVE} and {@code STATE} answer {@code OK} and the state of the game (see
+ * {@link SessionState#toText()}). An invalid request answers {@code ERR} and the reason.
+ * <p>
+ * Usage: {@code GameServer [--port=7777] [--threads=N]}.
+ */
+public class GameServer {
+
+    public static final int DEFAULT_PORT = 7777;
+
+    private final SessionRegistry registry;
+
+    private final ServerSocket serverSocket;
+
+    /**
+     * Threads reading the connections (one by connection, blocked while waiting for the requests).
+     */
+    private final ExecutorService connections = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "game-server-connection");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Create a server listening on the loopback address.
+     * @param port The port (0 for any free port).
+     * @param registry The sessions of the server.
+     * @throws IOException If the port can't be opened.
+     */
+    public GameServer(int port, SessionRegistry registry) throws IOException {
+        this.registry = registry;
+        this.serverSocket = new ServerSocket(port, 128, InetAddress.getLoopbackAddress());
+    }
+
+    /**
+     * Accept the connections until the server is closed.
+     */
+    public void serve() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                connections.execute(() -> handle(socket));
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    System.err.println("Can't accept a connection: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public void close() throws IOException {
+        serverSocket.close();
+        connections.shutdownNow();
+    }
+
+    private void handle(Socket socket) {
+        try (socket;
+             var in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             var out = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                String request = line.trim();
+                if (request.isEmpty()) {
+                    continue;
+                }
+                if (request.equalsIgnoreCase("QUIT")) {
+                    break;
+                }
+                out.println(answer(request));
+                out.flush();
+            }
+        } catch (IOException e) {
+            // The client left.
+        }
+    }
+
+    /**
+     * Apply a request and write the response.
+     * @param request The request line.
+     * @return The response line.
+     */
+    String answer(String request) {
+        String[] words = request.split("\\s+");
+        try {
+            String command = words[0].toUpperCase();
+            if (command.equals("NEW")) {
+                GameSession session = registry.create(words.length > 1 ? words[1] : "Black",
+                        words.length > 2 ? words[2] : "White");
+                return "OK " + session.getId();
+            }
+            if (words.length < 2) {
+                return "ERR Missing game id";
+            }
+            long id = Long.parseLong(words[1]);
+            if (command.equals("CLOSE")) {
+                return registry.remove(id) ? "OK" : "ERR Unknown game " + id;
+            }
+            GameSession session = registry.get(id);
+            if (session == null) {
+                return "ERR Unknown game " + id;
+            }
+            CompletableFuture<SessionState> state = switch (command) {
+                case "CLICK" -> {
+                    checkArguments(words, 4);
+                    yield session.click(Integer.parseInt(words[2]), Integer.parseInt(words[3]));
+                }
+                case "MOVE" -> {
+                    checkArguments(words, 3);
+                    yield session.move(words[2]);
+                }
+                case "STATE" -> session.getState();
+                default -> throw new IllegalArgumentException("Unknown command " + words[0]);
+            };
+            return "OK " + state.join().toText();
+        } catch (NumberFormatException e) {
+            return "ERR Invalid number in " + request;
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return "ERR " + e.getMessage();
+        } catch (CompletionException e) {
+            return "ERR " + e.getCause().getMessage();
+        }
+    }
+
+    private static void checkArguments(String[] words, int count) {
+        if (words.length != count) {
+            throw new IllegalArgumentException("Expected " + (count - 1) + " arguments for " + words[0]);
+        }
+    }
+
+    /**
+     * Options: {@code --port=7777} and {@code --threads=N} (threads applying the requests, the number of processors
+     * by default).
+     * @param args The options.
+     */
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                System.err.println("Invalid option " + arg + ", expected --option=value");
+                System.exit(1);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        int port = Integer.parseInt(options.getOrDefault("port", String.valueOf(DEFAULT_PORT)));
+        int threads = Integer.parseInt(options.getOrDefault("threads",
+                String.valueOf(Runtime.getRuntime().availableProcessors())));
+        SessionRegistry registry = new SessionRegistry(threads);
+        GameServer server = new GameServer(port, registry);
+        System.out.println("Game server listening on port " + server.getPort());
+        server.serve();
+    }
+}
@@ -0,0 +1,287 @@
+package server;
+
+import model.Board;
+import model.BoardChange;
+import model.Game;
+import model.Player;
+import model.bitboard.BitBoard;
+import model.bitboard.Move;
+import model.bitboard.MoveGenerator;
+import model.bitboard.MoveList;
+import model.enums.GameOutcome;
+import model.enums.NotificationMode;
+import model.enums.PlayerColor;
+import model.io.PdnWriter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * A game hosted by the server. The game is only used by the tasks of its mailbox (see {@link Mailbox}), so the
+ * requests of all the clients of the session are applied one after the other without lock.
+ * <p>
+ * While the session has observers, its board gathers the changes of its cases (see {@link NotificationMode#BATCH})
+ * and a {@link SessionDelta} is pushed to the observers after each request which changed the game.
+ */
+public class GameSession {
+
+    private final long id;
+
+    private final Game game;
+
+    private final Mailbox mailbox;
+
+    /**
+     * Legal moves of the current player, only used by the tasks of the mailbox.
+     */
+    private final MoveList moves = new MoveList();
+
+    /**
+     * Observers of the changes of the game (only used by the tasks of the mailbox).
+     */
+    private final List<Consumer<SessionDelta>> observers = new ArrayList<>();
+
+    /**
+     * Tiles whose type changed since the last delta (see {@link BoardChange}).
+     */
+    private long changedTypes = 0;
+
+    /**
+     * State of the game in the last delta. The events tell which tiles were touched, not if they came back to their
+     * state, so the toggled tiles are found by comparing the masks.
+     */
+    private long lastSelection;
+    private long lastReachable;
+    private long lastConstraints;
+    private PlayerColor lastToMove;
+    private GameOutcome lastOutcome;
+
+    GameSession(long id, String blackName, String whiteName, Executor executor) {
+        this.id = id;
+        this.game = new Game(new Player(blackName, PlayerColor.BLACK), new Player(whiteName, PlayerColor.WHITE));
+        this.game.getBoard().setNotificationMode(NotificationMode.NONE);
+        this.game.getBoard().addPropertyChangeListener(evt -> {
+            if (evt.getPropertyName().equals(Board.BOARD_CHANGED)) {
+                changedTypes |= ((BoardChange) evt.getNewValue()).getTypes();
+            }
+        });
+        this.mailbox = new Mailbox(executor);
+    }
+
+    /**
+     * Run an action on the game, after the actions already submitted.
+     * @param action The action (run on a thread of the server).
+     * @param <T> Type of the result of the action.
+     * @return The result of the action (completed exceptionally if the action fails).
+     */
+    public <T> CompletableFuture<T> submit(Function<Game, T> action) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return action.apply(game);
+            } finally {
+                publish();
+            }
+        }, mailbox);
+    }
+
+    /**
+     * Add an observer of the changes of the game.
+     * @param observer The observer, called on the threads of the server after each request which changed the game
+     *                 (it must not block).
+     * @return The state of the game when the observer starts to receive the changes.
+     */
+    public CompletableFuture<SessionState> observe(Consumer<SessionDelta> observer) {
+        return submit(g -> {
+            if (observers.isEmpty()) {
+                g.getBoard().setNotificationMode(NotificationMode.BATCH);
+                resetChanges();
+            }
+            observers.add(observer);
+            return state();
+        });
+    }
+
+    /**
+     * Remove an observer of the changes of the game.
+     * @param observer The observer.
+     */
+    public void unobserve(Consumer<SessionDelta> observer) {
+        submit(g -> {
+            if (observers.remove(observer) && observers.isEmpty()) {
+                g.getBoard().setNotificationMode(NotificationMode.NONE);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Click on a tile for the current player (see {@link Game#caseAction(int, int)}).
+     * @param posX Position of the tile in X.
+     * @param posY Position of the tile in Y.
+     * @return The state after the click.
+     */
+    public CompletableFuture<SessionState> click(int posX, int posY) {
+        if (posX < 0 || posX > 9 || posY < 0 || posY > 9) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Invalid tile " + posX + " " + posY));
+        }
+        return submit(g -> {
+            g.caseAction(posX, posY);
+            return state();
+        });
+    }
+
+    /**
+     * Play a complete move of the current player, written like {@code 32-28}, {@code 28x19} or {@code 28x19x10} (PDN
+     * tiles, with all the steps if the move is ambiguous).
+     * @param notation The move.
+     * @return The state after the move (completed exceptionally if the move is not legal).
+     */
+    public CompletableFuture<SessionState> move(String notation) {
+        String[] parts = notation.split("[-x]");
+        int[] steps = new int[parts.length];
+        try {
+            for (int i = 0; i < parts.length; i++) {
+                steps[i] = Integer.parseInt(parts[i]) - 1;
+            }
+        } catch (NumberFormatException e) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Invalid move " + notation));
+        }
+        return move(steps);
+    }
+
+    /**
+     * Play a complete move of the current player.
+     * @param steps The start tile, the landing tiles of the takes if the move is ambiguous, and the destination tile
+     *              ({@link BitBoard} tiles).
+     * @return The state after the move (completed exceptionally if the move is not legal).
+     */
+    public CompletableFuture<SessionState> move(int[] steps) {
+        return submit(g -> {
+            if (g.isOver()) {
+                throw new IllegalStateException("The game is over");
+            }
+            if (g.getBoard().getRaidSquare() != -1) {
+                throw new IllegalStateException("A raid is in progress");
+            }
+            g.playMove(findMove(g.getBoard(), g.getCurrentPlayer().getColor(), steps));
+            return state();
+        });
+    }
+
+    public CompletableFuture<SessionState> getState() {
+        return submit(g -> state());
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Get the state of the game (only from the tasks of the mailbox).
+     */
+    private SessionState state() {
+        Board board = game.getBoard();
+        return new SessionState(id, game.snapshot(),
+                PdnWriter.toFen(board.getPosition(), game.getCurrentPlayer().getColor()), board.getSelected(),
+                board.getReachable(), game.getOutcome(), game.getOutcomeReason());
+    }
+
+    /**
+     * Push the changes of the game since the last request to the observers (only from the tasks of the mailbox).
+     */
+    private void publish() {
+        if (observers.isEmpty()) {
+            return;
+        }
+        Board board = game.getBoard();
+        long selections = selectionOf(board) ^ lastSelection;
+        long reachables = board.getReachable() ^ lastReachable;
+        long constraints = board.getConstraints() ^ lastConstraints;
+        PlayerColor toMove = game.getCurrentPlayer().getColor();
+        GameOutcome outcome = game.getOutcome();
+        if ((changedTypes | selections | reachables | constraints) == 0
+                && toMove == lastToMove && outcome == lastOutcome) {
+            return;
+        }
+        byte[] newTypes = new byte[Long.bitCount(changedTypes)];
+        long types = changedTypes;
+        for (int i = 0; types != 0; i++, types &= types - 1) {
+            newTypes[i] = (byte) board.getPosition().get(Long.numberOfTrailingZeros(types)).ordinal();
+        }
+        SessionDelta delta = new SessionDelta(id, changedTypes, newTypes, selections, reachables, constraints,
+                toMove, board.getRaidSquare(), outcome, game.getOutcomeReason());
+        resetChanges();
+        for (Consumer<SessionDelta> observer : observers) {
+            observer.accept(delta);
+        }
+    }
+
+    private void resetChanges() {
+        Board board = game.getBoard();
+        changedTypes = 0;
+        lastSelection = selectionOf(board);
+        lastReachable = board.getReachable();
+        lastConstraints = board.getConstraints();
+        lastToMove = game.getCurrentPlayer().getColor();
+        lastOutcome = game.getOutcome();
+    }
+
+    private static long selectionOf(Board board) {
+        return board.getSelected() != -1 ? 1L << board.getSelected() : 0;
+    }
+
+    /**
+     * Find the legal move of the steps of a move.
+     */
+    private long findMove(Board board, PlayerColor pColor, int[] steps) {
+        if (steps.length < 2) {
+            throw new IllegalArgumentException("A move needs at least 2 tiles");
+        }
+        for (int step : steps) {
+            if (step < 0 || step >= BitBoard.SIZE) {
+                throw new IllegalArgumentException("Invalid tile " + (step + 1));
+            }
+        }
+        BitBoard position = board.getPosition();
+        board.generateLegalMoves(pColor, moves);
+        long found = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            long move = moves.get(i);
+            if (Move.from(move) != steps[0] || Move.to(move) != steps[steps.length - 1]) {
+                continue;
+            }
+            if (matchSteps(position, move, steps)) {
+                // All the steps of this move are given (a single take can also be the start of a longer raid).
+                return move;
+            }
+            if (steps.length > 2) {
+                continue;
+            }
+            if (found != 0) {
+                throw new IllegalArgumentException("Ambiguous move, give all the steps");
+            }
+            found = move;
+        }
+        if (found == 0) {
+            throw new IllegalArgumentException("Illegal move " + (steps[0] + 1) + "-" + (steps[steps.length - 1] + 1));
+        }
+        return found;
+    }
+
+    private static boolean matchSteps(BitBoard position, long move, int[] steps) {
+        int[] path = MoveGenerator.path(position, move);
+        if (path.length != steps.length - 1) {
+            return false;
+        }
+        for (int i = 0; i < path.length; i++) {
+            if (path[i] != steps[i + 1]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
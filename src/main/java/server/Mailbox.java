@@ -0,0 +1,65 @@
+package server;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Run the tasks of a session one after the other, on the threads of a shared executor. At most one task of the
+ * mailbox runs at a time, and each task sees the changes of the previous ones, so the state of the session needs no
+ * lock. A mailbox runs a few tasks at a time before giving the thread back, so a busy session can't starve the others.
+ */
+final class Mailbox implements Executor {
+
+    /**
+     * Maximum number of tasks run before giving the thread back to the executor.
+     */
+    private static final int BATCH_SIZE = 16;
+
+    private final Executor executor;
+
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+
+    /**
+     * If the mailbox is waiting for a thread or running its tasks.
+     */
+    private final AtomicBoolean isScheduled = new AtomicBoolean(false);
+
+    Mailbox(Executor executor) {
+        this.executor = executor;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        tasks.add(task);
+        schedule();
+    }
+
+    private void schedule() {
+        if (isScheduled.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        try {
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                Runnable task = tasks.poll();
+                if (task == null) {
+                    break;
+                }
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    System.err.println("A task of a session failed: " + e);
+                }
+            }
+        } finally {
+            isScheduled.set(false);
+        }
+        if (!tasks.isEmpty()) {
+            schedule();
+        }
+    }
+}
@@ -0,0 +1,419 @@
+package server;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Server hosting many games at once for remote clients, with the binary protocol {@link BinaryProtocol}. A single
+ * thread reads and writes all the connections with a selector, so a connection only costs a small buffer while it
+ * waits: the requests are applied by the threads of the sessions (see {@link SessionRegistry}), and their responses
+ * are queued on the connection until the selector thread writes them. A client can send many requests without
+ * waiting for the responses, and the responses of the requests on different games may come in another order.
+ * <p>
+ * The observers of a game receive a {@link BinaryProtocol#DELTA} after each change of the game. A delta is encoded
+ * once and the same bytes are written to all the observers.
+ * <p>
+ * Usage: {@code NioGameServer [--port=7778] [--threads=N]}.
+ */
+public class NioGameServer implements Closeable {
+
+    public static final int DEFAULT_PORT = 7778;
+
+    /**
+     * Maximum number of responses waiting to be written on a connection (a client too slow to read its deltas is
+     * disconnected).
+     */
+    private static final int MAX_QUEUED = 4096;
+
+    /**
+     * Maximum number of buffers written at once on a connection.
+     */
+    private static final int MAX_GATHER = 64;
+
+    private final SessionRegistry registry;
+
+    private final Selector selector;
+
+    private final ServerSocketChannel serverChannel;
+
+    /**
+     * Connections with responses to write, registered for writing by the selector thread.
+     */
+    private final Queue<Connection> pendingWrites = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Last delta of each observed game and its frame, so the frame is encoded once for all the observers.
+     */
+    private final Map<Long, DeltaFrame> deltaFrames = new ConcurrentHashMap<>();
+
+    /**
+     * Buffers given to the gathering writes (only used by the selector thread).
+     */
+    private final ByteBuffer[] gather = new ByteBuffer[MAX_GATHER];
+
+    private volatile boolean isRunning = true;
+
+    /**
+     * Create a server listening on the loopback address.
+     * @param port The port (0 for any free port).
+     * @param registry The sessions of the server.
+     * @throws IOException If the port can't be opened.
+     */
+    public NioGameServer(int port, SessionRegistry registry) throws IOException {
+        this.registry = registry;
+        this.selector = Selector.open();
+        this.serverChannel = ServerSocketChannel.open();
+        this.serverChannel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 1024);
+        this.serverChannel.configureBlocking(false);
+        this.serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+    }
+
+    /**
+     * Read and write the connections until the server is closed.
+     */
+    public void serve() {
+        try {
+            while (isRunning) {
+                selector.select();
+                Connection pending;
+                while ((pending = pendingWrites.poll()) != null) {
+                    write(pending);
+                }
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                        continue;
+                    }
+                    Connection connection = (Connection) key.attachment();
+                    if (key.isReadable()) {
+                        read(connection);
+                    }
+                    if (key.isValid() && key.isWritable()) {
+                        write(connection);
+                    }
+                }
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            if (isRunning) {
+                System.err.println("Server stopped: " + e.getMessage());
+            }
+        }
+    }
+
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!selector.isOpen()) {
+            return;
+        }
+        isRunning = false;
+        selector.wakeup();
+        serverChannel.close();
+        for (SelectionKey key : selector.keys()) {
+            key.channel().close();
+        }
+        selector.close();
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = serverChannel.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.socket().setTcpNoDelay(true);
+            Connection connection = new Connection(channel);
+            connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+        }
+    }
+
+    /**
+     * Read the available bytes of a connection and apply its complete requests.
+     */
+    private void read(Connection connection) {
+        ByteBuffer input = connection.input;
+        while (true) {
+            int count;
+            try {
+                count = connection.channel.read(input);
+            } catch (IOException e) {
+                count = -1;
+            }
+            if (count < 0) {
+                disconnect(connection);
+                return;
+            }
+            if (count == 0) {
+                return;
+            }
+            input.flip();
+            while (input.remaining() >= Integer.BYTES) {
+                int length = input.getInt(input.position());
+                if (length < BinaryProtocol.HEADER_SIZE || length > BinaryProtocol.MAX_REQUEST) {
+                    disconnect(connection);
+                    return;
+                }
+                if (input.remaining() < Integer.BYTES + length) {
+                    break;
+                }
+                int end = input.position() + Integer.BYTES + length;
+                input.position(input.position() + Integer.BYTES);
+                byte type = input.get();
+                int requestId = input.getInt();
+                try {
+                    handle(connection, type, requestId, input.slice(input.position(), end - input.position()));
+                } catch (RuntimeException e) {
+                    connection.send(BinaryProtocol.error(requestId, "Invalid request: " + e.getMessage()));
+                }
+                input.position(end);
+            }
+            input.compact();
+        }
+    }
+
+    /**
+     * Apply a request.
+     * @param body The fields of the request.
+     */
+    private void handle(Connection connection, byte type, int requestId, ByteBuffer body) {
+        if (type == BinaryProtocol.NEW) {
+            connection.send(BinaryProtocol.created(requestId, registry.create("Black", "White").getId()));
+            return;
+        }
+        long id = body.getLong();
+        if (type == BinaryProtocol.CLOSE) {
+            deltaFrames.remove(id);
+            connection.send(registry.remove(id) ? BinaryProtocol.closed(requestId, id)
+                    : BinaryProtocol.error(requestId, "Unknown game " + id));
+            return;
+        }
+        GameSession session = registry.get(id);
+        if (session == null) {
+            connection.send(BinaryProtocol.error(requestId, "Unknown game " + id));
+            return;
+        }
+        CompletableFuture<SessionState> state = switch (type) {
+            case BinaryProtocol.OBSERVE -> observe(connection, session);
+            case BinaryProtocol.CLICK -> session.click(body.get(), body.get());
+            case BinaryProtocol.MOVE -> {
+                int[] steps = new int[body.get()];
+                for (int i = 0; i < steps.length; i++) {
+                    steps[i] = body.get();
+                }
+                yield session.move(steps);
+            }
+            case BinaryProtocol.GET_STATE -> session.getState();
+            default -> throw new IllegalArgumentException("Unknown request type " + type);
+        };
+        state.whenComplete((result, error) -> {
+            if (error == null) {
+                connection.send(BinaryProtocol.state(requestId, result));
+            } else {
+                Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                connection.send(BinaryProtocol.error(requestId, cause.getMessage()));
+            }
+        });
+    }
+
+    private CompletableFuture<SessionState> observe(Connection connection, GameSession session) {
+        if (connection.observed.containsKey(session.getId())) {
+            return session.getState();
+        }
+        DeltaFrame frames = deltaFrames.computeIfAbsent(session.getId(), k -> new DeltaFrame());
+        Consumer<SessionDelta> observer = delta -> connection.send(frames.of(delta));
+        connection.observed.put(session.getId(), observer);
+        return session.observe(observer);
+    }
+
+    /**
+     * Write the queued responses of a connection, and register it for writing if they can't all be written now.
+     */
+    private void write(Connection connection) {
+        if (!connection.key.isValid()) {
+            return;
+        }
+        if (connection.isClosed) {
+            disconnect(connection);
+            return;
+        }
+        try {
+            while (true) {
+                int count = 0;
+                for (ByteBuffer buffer : connection.output) {
+                    gather[count++] = buffer;
+                    if (count == MAX_GATHER) {
+                        break;
+                    }
+                }
+                if (count == 0) {
+                    connection.key.interestOps(SelectionKey.OP_READ);
+                    connection.isWriteScheduled.set(false);
+                    // A response may have been queued after the last check.
+                    if (connection.output.isEmpty() || !connection.isWriteScheduled.compareAndSet(false, true)) {
+                        return;
+                    }
+                    continue;
+                }
+                connection.channel.write(gather, 0, count);
+                for (int i = 0; i < count; i++) {
+                    if (gather[i].hasRemaining()) {
+                        connection.key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                        return;
+                    }
+                    connection.output.poll();
+                    connection.queued.decrementAndGet();
+                }
+            }
+        } catch (IOException e) {
+            disconnect(connection);
+        } finally {
+            Arrays.fill(gather, null);
+        }
+    }
+
+    private void disconnect(Connection connection) {
+        connection.isClosed = true;
+        connection.key.cancel();
+        try {
+            connection.channel.close();
+        } catch (IOException e) {
+            // Already closed.
+        }
+        connection.output.clear();
+        connection.observed.forEach((id, observer) -> {
+            GameSession session = registry.get(id);
+            if (session != null) {
+                session.unobserve(observer);
+            }
+        });
+        connection.observed.clear();
+    }
+
+    /**
+     * A client connected to the server.
+     */
+    private final class Connection {
+
+        private final SocketChannel channel;
+
+        private SelectionKey key;
+
+        /**
+         * Bytes read and not yet applied (at most one request).
+         */
+        private final ByteBuffer input = ByteBuffer.allocate(Integer.BYTES + BinaryProtocol.MAX_REQUEST);
+
+        /**
+         * Responses to write, queued by any thread.
+         */
+        private final Queue<ByteBuffer> output = new ConcurrentLinkedQueue<>();
+
+        private final AtomicInteger queued = new AtomicInteger();
+
+        /**
+         * If the connection is in {@link #pendingWrites} or registered for writing.
+         */
+        private final AtomicBoolean isWriteScheduled = new AtomicBoolean();
+
+        /**
+         * Observer of each game observed by the connection (only used by the selector thread).
+         */
+        private final Map<Long, Consumer<SessionDelta>> observed = new HashMap<>();
+
+        private volatile boolean isClosed = false;
+
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        /**
+         * Queue a response to write (from any thread).
+         * @param frame The frame, ready to be read.
+         */
+        void send(ByteBuffer frame) {
+            if (isClosed) {
+                return;
+            }
+            if (queued.incrementAndGet() > MAX_QUEUED) {
+                isClosed = true;
+                pendingWrites.add(this);
+                selector.wakeup();
+                return;
+            }
+            output.add(frame);
+            if (isWriteScheduled.compareAndSet(false, true)) {
+                pendingWrites.add(this);
+                selector.wakeup();
+            }
+        }
+    }
+
+    /**
+     * Frame of the last delta of a game. The observers of a game are called one after the other for each delta, so
+     * the frame is encoded by the first observer and only duplicated by the others (the bytes are shared).
+     */
+    private static final class DeltaFrame {
+
+        private SessionDelta delta;
+
+        private ByteBuffer frame;
+
+        ByteBuffer of(SessionDelta delta) {
+            if (this.delta != delta) {
+                this.delta = delta;
+                this.frame = BinaryProtocol.delta(delta).asReadOnlyBuffer();
+            }
+            return frame.duplicate();
+        }
+    }
+
+    /**
+     * Options: {@code --port=7778} and {@code --threads=N} (threads applying the requests, the number of processors
+     * by default).
+     * @param args The options.
+     */
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                System.err.println("Invalid option " + arg + ", expected --option=value");
+                System.exit(1);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        int port = Integer.parseInt(options.getOrDefault("port", String.valueOf(DEFAULT_PORT)));
+        int threads = Integer.parseInt(options.getOrDefault("threads",
+                String.valueOf(Runtime.getRuntime().availableProcessors())));
+        SessionRegistry registry = new SessionRegistry(threads);
+        NioGameServer server = new NioGameServer(port, registry);
+        System.out.println("Game server listening on port " + server.getPort());
+        server.serve();
+    }
+}
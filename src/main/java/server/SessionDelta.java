@@ -0,0 +1,26 @@
+package server;
+
+import model.GameReferee;
+import model.enums.GameOutcome;
+import model.enums.PlayerColor;
+
+/**
+ * Changes of a session pushed to its observers after a request. The masks are {@link model.bitboard.BitBoard} tiles:
+ * the tiles whose type changed are gathered from the {@link model.Board#BOARD_CHANGED} events of the board and their
+ * new type is given, the other masks are the tiles whose state toggled since the last delta. The same delta is given
+ * to all the observers, so it must not be modified.
+ * @param gameId Identifier of the session.
+ * @param types Tiles whose type changed.
+ * @param newTypes Ordinal of the new type of each tile of {@code types}, by increasing tile.
+ * @param selections Tiles whose selection toggled.
+ * @param reachables Tiles whose reachable state toggled.
+ * @param constraints Tiles whose constraint toggled.
+ * @param toMove The player to move.
+ * @param raidSquare Tile of the pawn in raid (-1 if none).
+ * @param outcome The outcome of the game.
+ * @param reason Why the game ended.
+ */
+public record SessionDelta(long gameId, long types, byte[] newTypes, long selections, long reachables,
+                           long constraints, PlayerColor toMove, int raidSquare, GameOutcome outcome,
+                           GameReferee.Reason reason) {
+}
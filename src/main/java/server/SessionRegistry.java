@@ -0,0 +1,76 @@
+package server;
+
+import java.io.Closeable;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * All the sessions of a server, by identifier. The tasks of all the sessions share a pool of a few threads (a
+ * session only uses a thread while it has requests to apply).
+ */
+public class SessionRegistry implements Closeable {
+
+    private final Map<Long, GameSession> sessions = new ConcurrentHashMap<>();
+
+    private final AtomicLong nextId = new AtomicLong(1);
+
+    private final ExecutorService executor;
+
+    /**
+     * Create a registry.
+     * @param threads Number of threads running the requests of the sessions.
+     */
+    public SessionRegistry(int threads) {
+        // Async mode: the tasks are run in submission order, which suits the short requests of the sessions.
+        this.executor = new ForkJoinPool(threads, ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, true);
+    }
+
+    /**
+     * Create a game.
+     * @param blackName Name of the player with black pawns.
+     * @param whiteName Name of the player with white pawns.
+     * @return The session of the game.
+     */
+    public GameSession create(String blackName, String whiteName) {
+        GameSession session = new GameSession(nextId.getAndIncrement(), blackName, whiteName, executor);
+        sessions.put(session.getId(), session);
+        return session;
+    }
+
+    /**
+     * Get a session.
+     * @param id The identifier of the session.
+     * @return The session, or null if there is none (or it is closed).
+     */
+    public GameSession get(long id) {
+        return sessions.get(id);
+    }
+
+    /**
+     * Close a session (the requests already submitted are still applied).
+     * @param id The identifier of the session.
+     * @return If the session existed.
+     */
+    public boolean remove(long id) {
+        return sessions.remove(id) != null;
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    @Override
+    public void close() {
+        sessions.clear();
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package server;
+
+import model.GameReferee;
+import model.GameSnapshot;
+import model.enums.GameOutcome;
+import model.enums.PlayerColor;
+
+/**
+ * State of a session sent back to the clients after each request.
+ * @param gameId Identifier of the session.
+ * @param snapshot The state of the game (pieces, player to move, pawn in raid and constraints).
+ * @param position The position, as a PDN FEN string (with the player to move).
+ * @param selected Tile of the selected case (-1 if none).
+ * @param reachable Mask of the reachable tiles of the selected case.
+ * @param outcome The outcome of the game.
+ * @param reason Why the game ended.
+ */
+public record SessionState(long gameId, GameSnapshot snapshot, String position, int selected, long reachable,
+                           GameOutcome outcome, GameReferee.Reason reason) {
+
+    public PlayerColor toMove() {
+        return snapshot.getCurrentColor();
+    }
+
+    public int raidSquare() {
+        return snapshot.getRaidSquare();
+    }
+
+    /**
+     * Write the state as the words of the text protocol (see {@link GameServer}).
+     * @return The state, like {@code 3 W:W31,32:B1,2 -1 UNKNOWN NONE}.
+     */
+    public String toText() {
+        return gameId + " " + position + " " + raidSquare() + " " + outcome + " " + reason;
+    }
+}
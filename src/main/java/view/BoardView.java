@@ -1,19 +1,23 @@
 package view;
 
 import model.Board;
+import model.BoardChange;
 import model.Case;
+import model.bitboard.BitBoard;
 import model.enums.CaseType;
+import model.enums.NotificationMode;
 import view.viewListener.BoardViewListener;
 
-import javax.imageio.ImageIO;
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.awt.image.BufferedImage;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
-import java.io.IOException;
+import java.util.BitSet;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -23,6 +27,26 @@ public class BoardView extends JPanel implements PropertyChangeListener {
 
     private final List<BoardViewListener> listeners = new LinkedList<>();
 
+    /**
+     * Images of the pieces, scaled to the size of the tiles.
+     */
+    private final SpriteCache sprites = new SpriteCache();
+
+    /**
+     * Image of the whole board, only the changed tiles are drawn again in it.
+     */
+    private BufferedImage frame;
+
+    /**
+     * Tiles changed since the last drawing of the frame (indexed by posX * 10 + posY).
+     */
+    private final BitSet dirty = new BitSet(100);
+
+    /**
+     * If the drawing of the changed tiles is already planned (all the events of a model update are drawn at once).
+     */
+    private boolean isFlushScheduled = false;
+
     public void addListener(BoardViewListener boardViewListener) {
         this.listeners.add(boardViewListener);
     }
@@ -33,92 +57,121 @@ public class BoardView extends JPanel implements PropertyChangeListener {
 
     @Override
     public void paint(Graphics g) {
-        Graphics2D graphic2d = (Graphics2D) g;
+        if (frame == null || frame.getWidth() != getWidth() || frame.getHeight() != getHeight()) {
+            drawFrame();
+        }
+        g.drawImage(frame, 0, 0, null);
+    }
 
+    /**
+     * Draw the whole board in the frame (at the first paint and when the size changes).
+     */
+    private void drawFrame() {
+        GraphicsConfiguration gc = getGraphicsConfiguration();
+        int width = Math.max(1, getWidth());
+        int height = Math.max(1, getHeight());
+        frame = gc != null
+                ? gc.createCompatibleImage(width, height)
+                : new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        dirty.clear();
+
+        Graphics2D graphic2d = frame.createGraphics();
         graphic2d.setColor(Color.WHITE);
         graphic2d.fillRect(0,0 , getWidth(), getHeight());
 
-        int odd = 0;
-
         for (int x = 0; x < 10; x++) {
             for (int y = 0; y < 10; y++) {
-                var c = board.getCase(x,y);
-
-                odd = (x + y) % 2 ;
+                drawCase(graphic2d, board.getCase(x, y));
+            }
+        }
 
-                if (odd == 1) {
-                    graphic2d.setColor(Color.LIGHT_GRAY);
-                    graphic2d.fillRect(c.getPosX() * (getSize().width / 10),
-                            c.getPosY() * (getSize().height / 10),
-                            (getSize().width / 10),
-                            (getSize().height / 10));
-                }
+        for (int i = 1; i < 10; i++) {
+            graphic2d.setColor(Color.BLACK);
+            graphic2d.drawLine(0, (getSize().height / 10) * i, getSize().width, (getSize().height / 10) * i);
+            graphic2d.drawLine((getSize().width / 10) * i, 0, (getSize().width / 10) * i, getSize().height);
+        }
+        graphic2d.dispose();
+    }
 
-                if (c.isConstraint()) {
-                    graphic2d.setColor(Color.ORANGE);
-                    graphic2d.fillRect(c.getPosX() * (getSize().width / 10),
-                            c.getPosY() * (getSize().height / 10),
-                            (getSize().width / 10),
-                            (getSize().height / 10));
-                }
+    /**
+     * Draw a tile in the frame (without the grid lines).
+     * @param graphic2d Graphics of the frame.
+     * @param c The tile.
+     */
+    private void drawCase(Graphics2D graphic2d, Case c) {
+        int width = getSize().width / 10;
+        int height = getSize().height / 10;
+        int x = c.getPosX() * width;
+        int y = c.getPosY() * height;
+
+        if ((c.getPosX() + c.getPosY()) % 2 == 1) {
+            graphic2d.setColor(Color.LIGHT_GRAY);
+        } else {
+            graphic2d.setColor(Color.WHITE);
+        }
+        graphic2d.fillRect(x, y, width, height);
 
-                if (c.isSelected()) {
-                    graphic2d.setColor(Color.GREEN);
-                    graphic2d.fillRect(c.getPosX() * (getSize().width / 10),
-                            c.getPosY() * (getSize().height / 10),
-                            (getSize().width / 10),
-                            (getSize().height / 10));
+        if (c.isConstraint()) {
+            graphic2d.setColor(Color.ORANGE);
+            graphic2d.fillRect(x, y, width, height);
+        }
 
-                }
+        if (c.isSelected()) {
+            graphic2d.setColor(Color.GREEN);
+            graphic2d.fillRect(x, y, width, height);
+        }
 
-                if (c.isReachable()) {
-                    graphic2d.setColor(Color.RED);
-                    graphic2d.fillRect(c.getPosX() * (getSize().width / 10),
-                            c.getPosY() * (getSize().height / 10),
-                            (getSize().width / 10),
-                            (getSize().height / 10));
-                }
+        if (c.isReachable()) {
+            graphic2d.setColor(Color.RED);
+            graphic2d.fillRect(x, y, width, height);
+        }
 
-                if (c.getType() != CaseType.EMPTY) {
-                    if (c.getType() == CaseType.BLACK_LADY) {
-                        try {
-                            BufferedImage image = ImageIO.read(getClass().getResource("/crown_black.png"));
-                            Image tmp = image.getScaledInstance(getSize().width / 10,
-                                    getSize().height / 10, Image.SCALE_SMOOTH);
-                            graphic2d.drawImage(tmp, c.getPosX() * (getSize().width / 10),
-                                    c.getPosY() * (getSize().height / 10),null);
-                        } catch (IOException e) {
-                            throw new RuntimeException(e);
-                        }
-                    } else if (c.getType() == CaseType.WHITE_LADY) {
-                        try {
-                            BufferedImage image = ImageIO.read(getClass().getResource("/crown_red.png"));
-                            Image tmp = image.getScaledInstance(getSize().width / 10,
-                                    getSize().height / 10, Image.SCALE_SMOOTH);
-                            graphic2d.drawImage(tmp, c.getPosX() * (getSize().width / 10),
-                                    c.getPosY() * (getSize().height / 10),null);
-                        } catch (IOException e) {
-                            throw new RuntimeException(e);
-                        }
-                    } else {
-                        switch (c.getType()) {
-                            case BLACK_PAWN, BLACK_LADY -> graphic2d.setColor(Color.BLACK);
-                            case WHITE_PAWN, WHITE_LADY -> graphic2d.setColor(Color.RED);
-                        }
-                        graphic2d.fillOval(c.getPosX() * (getSize().width / 10),
-                                c.getPosY() * (getSize().height / 10),
-                                (getSize().width / 10),
-                                (getSize().height / 10));
-                    }
+        if (c.getType() != CaseType.EMPTY) {
+            Image sprite = sprites.get(c.getType(), width, height, getGraphicsConfiguration());
+            if (sprite != null) {
+                graphic2d.drawImage(sprite, x, y, null);
+            } else {
+                switch (c.getType()) {
+                    case BLACK_PAWN, BLACK_LADY -> graphic2d.setColor(Color.BLACK);
+                    case WHITE_PAWN, WHITE_LADY -> graphic2d.setColor(Color.RED);
                 }
+                graphic2d.fillOval(x, y, width, height);
             }
         }
+    }
 
-        for (int i = 1; i < 10; i++) {
+    /**
+     * Draw the changed tiles in the frame, and repaint only their area (once for all the changes of a model update).
+     */
+    private void flush() {
+        isFlushScheduled = false;
+        if (frame == null || frame.getWidth() != getWidth() || frame.getHeight() != getHeight()) {
+            repaint();
+            return;
+        }
+        int width = getSize().width / 10;
+        int height = getSize().height / 10;
+        if (dirty.isEmpty()) {
+            return;
+        }
+        Graphics2D graphic2d = frame.createGraphics();
+        Rectangle area = null;
+        for (int i = dirty.nextSetBit(0); i >= 0; i = dirty.nextSetBit(i + 1)) {
+            Case c = board.getCase(i / 10, i % 10);
+            drawCase(graphic2d, c);
+            Rectangle rect = new Rectangle(c.getPosX() * width, c.getPosY() * height, width, height);
             graphic2d.setColor(Color.BLACK);
-            graphic2d.drawLine(0, (getSize().height / 10) * i, getSize().width, (getSize().height / 10) * i);
-            graphic2d.drawLine((getSize().width / 10) * i, 0, (getSize().width / 10) * i, getSize().height);
+            if (c.getPosX() > 0) {
+                graphic2d.drawLine(rect.x, rect.y, rect.x, rect.y + height);
+            }
+            if (c.getPosY() > 0) {
+                graphic2d.drawLine(rect.x, rect.y, rect.x + width, rect.y);
+            }
+            area = area == null ? rect : area.union(rect);
         }
+        graphic2d.dispose();
+        dirty.clear();
+        repaint(area);
     }
 
     public BoardView (Board board) {
@@ -131,16 +184,34 @@ public class BoardView extends JPanel implements PropertyChangeListener {
                 listeners.forEach(l -> l.onBoardViewClicked(x, y));
             }
         });
-        this.board.getCases().forEach(c -> c.addPropertyChangeListener(this));
+        this.addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentResized(ComponentEvent e) {
+                sprites.invalidate();
+            }
+        });
+        this.board.setNotificationMode(NotificationMode.BATCH);
+        this.board.addPropertyChangeListener(this);
     }
 
+    /**
+     * Mark the tiles of the event as changed. The board is updated on the event dispatch thread, so the changed tiles
+     * are drawn after the end of the update.
+     * @param evt The event.
+     */
     @Override
     public void propertyChange(PropertyChangeEvent evt) {
-        if (evt.getPropertyName().equals(Case.IS_CONSTRAINT_CHANGED) ||
-                evt.getPropertyName().equals(Case.IS_REACHABLE_CHANGED) ||
-                    evt.getPropertyName().equals(Case.IS_SELECTED_CHANGED) ||
-                        evt.getPropertyName().equals(Case.TYPE_CHANGED)) {
-            repaint();
+        if (evt.getPropertyName().equals(Board.BOARD_CHANGED)) {
+            long tiles = ((BoardChange) evt.getNewValue()).getTiles();
+            while (tiles != 0) {
+                int square = Long.numberOfTrailingZeros(tiles);
+                tiles &= tiles - 1;
+                dirty.set(BitBoard.posXOf(square) * 10 + BitBoard.posYOf(square));
+            }
+            if (!isFlushScheduled) {
+                isFlushScheduled = true;
+                SwingUtilities.invokeLater(this::flush);
+            }
         }
     }
 }
@@ -1,6 +1,7 @@
 package view;
 
 import model.Game;
+import model.PieceCounts;
 import model.Player;
 import model.enums.PlayerColor;
 import view.viewListener.BoardViewListener;
@@ -35,8 +36,14 @@ public class GameView extends JPanel implements BoardViewListener, PropertyChang
 
     private final JLabel whitePlayerName = new JLabel();
 
+    private final JLabel result = new JLabel();
+
     private final JButton stop = new JButton("Stop the game");
 
+    private final JButton undo = new JButton("Undo");
+
+    private final JButton redo = new JButton("Redo");
+
     private final JLabel cote = new JLabel("By Louis Legrand And Ludivine Biot");
 
     private final Game model;
@@ -47,16 +54,23 @@ public class GameView extends JPanel implements BoardViewListener, PropertyChang
         this.setLayout(new BorderLayout());
         this.add(header, BorderLayout.NORTH);
         this.header.add(blackPlayerName);
+        this.header.add(undo);
         this.header.add(stop);
+        this.header.add(redo);
         this.header.add(whitePlayerName);
+        this.header.add(result);
         this.add(boardView, BorderLayout.CENTER);
         this.add(cote, BorderLayout.SOUTH);
         setNames();
+        setResult();
         this.boardView.addListener(this);
         this.stop.addActionListener((__) -> {
             this.boardView.removeListener(this);
             listeners.forEach(GameViewListener::onStopGame);
         });
+        this.undo.addActionListener((__) -> listeners.forEach(GameViewListener::onUndo));
+        this.redo.addActionListener((__) -> listeners.forEach(GameViewListener::onRedo));
+        updateHistoryButtons();
         game.addPropertyChangeListener(this);
         whitePlayerName.setForeground(Color.ORANGE);
     }
@@ -77,19 +91,44 @@ public class GameView extends JPanel implements BoardViewListener, PropertyChang
                 whitePlayerName.setForeground(Color.ORANGE);
             }
             setNames();
+        } else if (evt.getPropertyName().equals(Game.HISTORY_CHANGED)) {
+            updateHistoryButtons();
+            setNames();
+        } else if (evt.getPropertyName().equals(Game.OUTCOME_CHANGED)) {
+            setResult();
         }
     }
 
+    private void updateHistoryButtons() {
+        undo.setEnabled(model.canUndo());
+        redo.setEnabled(model.canRedo());
+    }
+
+    private void setResult() {
+        String reason = switch (model.getOutcomeReason()) {
+            case NONE -> "";
+            case NO_PIECE -> "no piece left";
+            case NO_MOVE -> "no move left";
+            case REPETITION -> "third repetition";
+            case LADY_MOVES -> "25 moves of ladies";
+            case ENDGAME -> "endgame moves limit";
+        };
+        String text = switch (model.getOutcome()) {
+            case UNKNOWN -> "";
+            case WHITE_WIN -> "White wins (" + reason + ")";
+            case BLACK_WIN -> "Black wins (" + reason + ")";
+            case DRAW -> "Draw (" + reason + ")";
+        };
+        result.setText(text);
+    }
+
     private void setNames() {
+        PieceCounts counts = model.getBoard().getPieceCounts();
         String black = String.format("(Black pawn) %s: %d pawn and %d lady",
-                model.getPlayerBlack().getName(),
-                model.getBoard().getNumberOfBlackPawn(),
-                model.getBoard().getNumberOfBlackLady());
+                model.getPlayerBlack().getName(), counts.blackPawns(), counts.blackLadies());
 
         String white = String.format("(White pawn) %s: %d pawn and %d lady",
-                model.getPlayerWhite().getName(),
-                model.getBoard().getNumberOfWhitePawn(),
-                model.getBoard().getNumberOfWhiteLady());
+                model.getPlayerWhite().getName(), counts.whitePawns(), counts.whiteLadies());
 
         blackPlayerName.setText(black);
         whitePlayerName.setText(white);
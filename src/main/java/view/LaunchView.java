@@ -24,6 +24,10 @@ public class LaunchView extends JPanel {
 
     private final JLabel player2Label = new JLabel("Player 2 : ");
 
+    private final JCheckBox player1Automated = new JCheckBox("Computer");
+
+    private final JCheckBox player2Automated = new JCheckBox("Computer");
+
     private final JButton validate = new JButton("Validate");
 
     private final JTextField player1TextField = new JTextField() {{
@@ -38,10 +42,13 @@ public class LaunchView extends JPanel {
         this.setLayout(new GridBagLayout());
         this.add(player1Label);
         this.add(player1TextField);
+        this.add(player1Automated);
         this.add(validate);
         this.add(player2Label);
         this.add(player2TextField);
+        this.add(player2Automated);
         this.validate.addActionListener((__) -> listeners.forEach((l) ->
-                l.onPlayerValidated(player1TextField.getText(), player2TextField.getText())));
+                l.onPlayerValidated(player1TextField.getText(), player1Automated.isSelected(),
+                        player2TextField.getText(), player2Automated.isSelected())));
     }
 }
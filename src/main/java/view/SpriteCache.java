@@ -0,0 +1,98 @@
+package view;
+
+import model.enums.CaseType;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Cache of the images of the pieces. Each image is decoded once, and scaled once to the size of the tiles into an
+ * image compatible with the screen (fast to draw). The scaled images are only computed again when the size of the
+ * tiles changes.
+ */
+class SpriteCache {
+
+    /**
+     * Resource of the image of each type of piece drawn with an image.
+     */
+    private static final Map<CaseType, String> RESOURCES = new EnumMap<>(Map.of(
+            CaseType.BLACK_LADY, "/crown_black.png",
+            CaseType.WHITE_LADY, "/crown_red.png"));
+
+    /**
+     * Decoded images, by type of piece.
+     */
+    private final Map<CaseType, BufferedImage> sources = new EnumMap<>(CaseType.class);
+
+    /**
+     * Images scaled to the size of the tiles, by type of piece.
+     */
+    private final Map<CaseType, BufferedImage> sprites = new EnumMap<>(CaseType.class);
+
+    /**
+     * Size of the scaled images.
+     */
+    private int width = 0;
+    private int height = 0;
+
+    /**
+     * Get the image of a piece.
+     * @param type The type of the piece.
+     * @param width Width of a tile.
+     * @param height Height of a tile.
+     * @param gc Configuration of the screen (null if not known yet).
+     * @return The image scaled to the tile, or null if the piece is not drawn with an image.
+     */
+    public Image get(CaseType type, int width, int height, GraphicsConfiguration gc) {
+        if (!RESOURCES.containsKey(type) || width <= 0 || height <= 0) {
+            return null;
+        }
+        if (width != this.width || height != this.height) {
+            invalidate();
+            this.width = width;
+            this.height = height;
+        }
+        BufferedImage sprite = sprites.get(type);
+        if (sprite == null) {
+            sprite = scale(source(type), width, height, gc);
+            sprites.put(type, sprite);
+        }
+        return sprite;
+    }
+
+    /**
+     * Forget the scaled images (when the size of the tiles changes). The decoded images are kept.
+     */
+    public void invalidate() {
+        sprites.clear();
+        width = 0;
+        height = 0;
+    }
+
+    private BufferedImage source(CaseType type) {
+        BufferedImage source = sources.get(type);
+        if (source == null) {
+            try {
+                source = ImageIO.read(getClass().getResource(RESOURCES.get(type)));
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+            sources.put(type, source);
+        }
+        return source;
+    }
+
+    private static BufferedImage scale(BufferedImage source, int width, int height, GraphicsConfiguration gc) {
+        BufferedImage sprite = gc != null
+                ? gc.createCompatibleImage(width, height, Transparency.TRANSLUCENT)
+                : new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphic2d = sprite.createGraphics();
+        graphic2d.drawImage(source.getScaledInstance(width, height, Image.SCALE_SMOOTH), 0, 0, null);
+        graphic2d.dispose();
+        return sprite;
+    }
+}
@@ -6,4 +6,8 @@ public interface GameViewListener {
 
     void onBoardAction(int posX, int posY);
 
+    void onUndo();
+
+    void onRedo();
+
 }
@@ -1,5 +1,5 @@
 package view.viewListener;
 
 public interface LaunchViewListener {
-    void onPlayerValidated(String nameP1, String nameP2);
+    void onPlayerValidated(String nameP1, boolean isP1Automated, String nameP2, boolean isP2Automated);
 }
@@ -0,0 +1,115 @@
+package model;
+
+import model.BoardFactory.BoardTest.BoardFactoryMultipleChoiceRaid;
+import model.bitboard.BitBoard;
+import model.bitboard.Move;
+import model.bitboard.MoveList;
+import model.enums.CaseType;
+import model.enums.PlayerColor;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Piece counts of the board, read during and after the updates.
+ */
+class BoardTest {
+
+    private static PieceCounts countsOf(BitBoard position) {
+        return new PieceCounts(position.getCount(CaseType.WHITE_PAWN), position.getCount(CaseType.WHITE_LADY),
+                position.getCount(CaseType.BLACK_PAWN), position.getCount(CaseType.BLACK_LADY));
+    }
+
+    @Test
+    void countsArePublishedAtTheEndOfTheUpdate() {
+        Board board = new Board(new BoardFactoryMultipleChoiceRaid());
+        PieceCounts before = board.getPieceCounts();
+        assertEquals(countsOf(board.getPosition()), before);
+
+        // The cases notify each change of type while the move is played.
+        List<PieceCounts> seen = new ArrayList<>();
+        for (Case c : board.getCases()) {
+            c.addPropertyChangeListener(evt -> {
+                if (evt.getPropertyName().equals(Case.TYPE_CHANGED)) {
+                    seen.add(board.getPieceCounts());
+                }
+            });
+        }
+        MoveList moves = board.generateLegalMoves(PlayerColor.WHITE);
+        long move = moves.get(0);
+        assertTrue(Move.isCapture(move));
+
+        board.beginUpdate();
+        board.makeMove(move);
+        assertEquals(before, board.getPieceCounts());
+        board.endUpdate();
+
+        assertFalse(seen.isEmpty());
+        for (PieceCounts counts : seen) {
+            assertEquals(before, counts);
+        }
+        PieceCounts after = board.getPieceCounts();
+        assertEquals(countsOf(board.getPosition()), after);
+        assertEquals(before.black() - Long.bitCount(Move.taken(move)), after.black());
+
+        seen.clear();
+        board.unmakeMove();
+        assertTrue(seen.stream().allMatch(after::equals));
+        assertEquals(before, board.getPieceCounts());
+    }
+
+    @Test
+    void pollingThreadOnlySeesCompleteMoves() throws InterruptedException {
+        Board board = new Board();
+        Set<PieceCounts> published = ConcurrentHashMap.newKeySet();
+        published.add(board.getPieceCounts());
+        AtomicBoolean isRunning = new AtomicBoolean(true);
+        AtomicReference<PieceCounts> invalid = new AtomicReference<>();
+        Thread poller = new Thread(() -> {
+            while (isRunning.get()) {
+                PieceCounts counts = board.getPieceCounts();
+                if (!published.contains(counts)) {
+                    invalid.compareAndSet(null, counts);
+                }
+            }
+        });
+        poller.start();
+        try {
+            Random random = new Random(3);
+            for (int game = 0; game < 50; game++) {
+                PlayerColor pColor = PlayerColor.WHITE;
+                int plies = 0;
+                for (; plies < 100; plies++) {
+                    MoveList moves = board.generateLegalMoves(pColor);
+                    if (moves.isEmpty()) {
+                        break;
+                    }
+                    long move = moves.get(random.nextInt(moves.size()));
+                    BitBoard next = new BitBoard(board.getPosition());
+                    next.makeMove(move);
+                    published.add(countsOf(next));
+                    board.makeMove(move);
+                    pColor = pColor == PlayerColor.WHITE ? PlayerColor.BLACK : PlayerColor.WHITE;
+                }
+                for (int ply = 0; ply < plies; ply++) {
+                    board.unmakeMove();
+                }
+            }
+        } finally {
+            isRunning.set(false);
+            poller.join();
+        }
+        assertNull(invalid.get());
+    }
+}
@@ -0,0 +1,293 @@
+package model;
+
+import model.bitboard.BitBoard;
+import model.bitboard.Move;
+import model.bitboard.MoveGenerator;
+import model.bitboard.MoveList;
+import model.enums.CaseType;
+import model.enums.GameOutcome;
+import model.enums.PlayerColor;
+import model.io.PdnReader;
+import org.junit.jupiter.api.Test;
+
+import java.beans.PropertyChangeEvent;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Draw and loss rules of the referee, and the outcome of a game moving in its history. The tiles are written with the
+ * international numbering (1 to 50).
+ */
+class GameRefereeTest {
+
+    /**
+     * A lady and 3 pawns on the back row (which can't be taken) for each player, so no endgame rule applies.
+     */
+    private static final String LADIES_FEN = "W:WK45,46,47,48:BK6,1,2,3";
+
+    private final GameReferee referee = new GameReferee();
+
+    private final MoveList moves = new MoveList();
+
+    /**
+     * Keys of the positions played, so that {@link #walk(int)} never repeats one.
+     */
+    private final Set<Long> seen = new HashSet<>();
+
+    private BitBoard position;
+
+    private PlayerColor pColor;
+
+    private static int tile(int number) {
+        return number - 1;
+    }
+
+    private static BitBoard parse(String fen) {
+        try (var reader = new PdnReader(new StringReader("[FEN \"" + fen + "\"]\n*\n"))) {
+            return reader.read().getStartPosition();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static PlayerColor opponent(PlayerColor pColor) {
+        return pColor == PlayerColor.WHITE ? PlayerColor.BLACK : PlayerColor.WHITE;
+    }
+
+    private GameOutcome start(String fen) {
+        position = parse(fen);
+        pColor = fen.startsWith("W") ? PlayerColor.WHITE : PlayerColor.BLACK;
+        seen.add(position.getKey());
+        return referee.reset(position, pColor);
+    }
+
+    private GameOutcome play(long move) {
+        position.makeMove(move);
+        pColor = opponent(pColor);
+        seen.add(position.getKey());
+        return referee.play(position, pColor);
+    }
+
+    private long find(int from, int to) {
+        MoveGenerator.generate(position, pColor, moves);
+        for (int i = 0; i < moves.size(); i++) {
+            long move = moves.get(i);
+            if (Move.from(move) == tile(from) && Move.to(move) == tile(to)) {
+                return move;
+            }
+        }
+        throw new AssertionError("No move " + from + "-" + to);
+    }
+
+    private boolean canTake(PlayerColor side) {
+        MoveGenerator.generate(position, side, moves);
+        return !moves.isEmpty() && Move.isCapture(moves.get(0));
+    }
+
+    /**
+     * Find a slide of the player to move, with a lady or a pawn, to a new position where the opponent can't take.
+     */
+    private long findSafeSlide(boolean isLady) {
+        MoveGenerator.generate(position, pColor, moves);
+        long[] candidates = new long[moves.size()];
+        for (int i = 0; i < candidates.length; i++) {
+            candidates[i] = moves.get(i);
+        }
+        for (long move : candidates) {
+            boolean isLadyMove = (position.getLadies() & (1L << Move.from(move))) != 0;
+            if (Move.isCapture(move) || isLadyMove != isLady) {
+                continue;
+            }
+            position.makeMove(move);
+            boolean isSafe = !seen.contains(position.getKey()) && !canTake(opponent(pColor));
+            position.unmakeMove();
+            if (isSafe) {
+                return move;
+            }
+        }
+        throw new AssertionError("No safe slide");
+    }
+
+    /**
+     * Play lady slides without ever coming back to a position.
+     * @return The outcome after the last slide.
+     */
+    private GameOutcome walk(int plies) {
+        GameOutcome outcome = referee.getOutcome();
+        for (int i = 0; i < plies; i++) {
+            assertEquals(GameOutcome.UNKNOWN, outcome);
+            outcome = play(findSafeSlide(true));
+        }
+        return outcome;
+    }
+
+    @Test
+    void thirdRepetitionIsADraw() {
+        start(LADIES_FEN);
+        long whiteMove = findSafeSlide(true);
+        play(whiteMove);
+        long blackMove = findSafeSlide(true);
+        play(blackMove);
+        for (int ply = 2; ply < 8; ply++) {
+            long move = switch (ply % 4) {
+                case 0 -> whiteMove;
+                case 1 -> blackMove;
+                case 2 -> find(Move.to(whiteMove) + 1, Move.from(whiteMove) + 1);
+                default -> find(Move.to(blackMove) + 1, Move.from(blackMove) + 1);
+            };
+            GameOutcome outcome = play(move);
+            if (ply < 7) {
+                assertEquals(GameOutcome.UNKNOWN, outcome, "ply " + (ply + 1));
+            } else {
+                assertEquals(GameOutcome.DRAW, outcome);
+                assertEquals(GameReferee.Reason.REPETITION, referee.getReason());
+            }
+        }
+    }
+
+    @Test
+    void ladyMovesDrawAtPly50() {
+        start(LADIES_FEN);
+        assertEquals(GameOutcome.UNKNOWN, walk(GameReferee.LADY_MOVES_PLIES - 1));
+        assertEquals(GameReferee.LADY_MOVES_PLIES - 1, referee.getReversiblePlies());
+        assertEquals(GameOutcome.DRAW, walk(1));
+        assertEquals(GameReferee.Reason.LADY_MOVES, referee.getReason());
+    }
+
+    @Test
+    void pawnMoveResetsLadyMoves() {
+        start(LADIES_FEN);
+        walk(30);
+        assertEquals(GameOutcome.UNKNOWN, play(findSafeSlide(false)));
+        assertEquals(0, referee.getReversiblePlies());
+        assertEquals(GameOutcome.UNKNOWN, walk(GameReferee.LADY_MOVES_PLIES - 1));
+        assertEquals(GameOutcome.DRAW, walk(1));
+        assertEquals(GameReferee.Reason.LADY_MOVES, referee.getReason());
+    }
+
+    @Test
+    void takeResetsLadyMoves() {
+        start(LADIES_FEN);
+        walk(30);
+        // Give a piece to the opponent, who has to take it.
+        long sacrifice = 0;
+        MoveGenerator.generate(position, pColor, moves);
+        long[] candidates = new long[moves.size()];
+        for (int i = 0; i < candidates.length; i++) {
+            candidates[i] = moves.get(i);
+        }
+        for (long move : candidates) {
+            position.makeMove(move);
+            boolean isTaken = canTake(opponent(pColor));
+            position.unmakeMove();
+            if (isTaken && (position.getLadies() & (1L << Move.from(move))) != 0) {
+                sacrifice = move;
+                break;
+            }
+        }
+        assertNotEquals(0, sacrifice);
+        play(sacrifice);
+        assertEquals(31, referee.getReversiblePlies());
+        MoveGenerator.generate(position, pColor, moves);
+        assertEquals(GameOutcome.UNKNOWN, play(moves.get(0)));
+        assertEquals(0, referee.getReversiblePlies());
+    }
+
+    @Test
+    void smallEndgameLimit() {
+        start("W:WK45,48:BK6");
+        assertEquals(GameOutcome.UNKNOWN, walk(GameReferee.SMALL_ENDGAME_PLIES - 1));
+        assertEquals(GameOutcome.DRAW, walk(1));
+        assertEquals(GameReferee.Reason.ENDGAME, referee.getReason());
+    }
+
+    @Test
+    void largeEndgameLimit() {
+        start("B:WK45:BK6,1,3");
+        assertEquals(GameOutcome.UNKNOWN, walk(GameReferee.LARGE_ENDGAME_PLIES - 1));
+        assertEquals(GameOutcome.DRAW, walk(1));
+        assertEquals(GameReferee.Reason.ENDGAME, referee.getReason());
+    }
+
+    @Test
+    void noEndgameLimitWithFourPieces() {
+        start("W:WK45,46,47,48:BK6");
+        assertEquals(GameOutcome.UNKNOWN, walk(GameReferee.LARGE_ENDGAME_PLIES + 10));
+    }
+
+    @Test
+    void noPieceIsALoss() {
+        BitBoard empty = new BitBoard();
+        empty.set(tile(1), CaseType.BLACK_PAWN);
+        assertEquals(GameReferee.Reason.NO_PIECE, GameReferee.lossOf(empty, PlayerColor.WHITE));
+        assertEquals(GameOutcome.BLACK_WIN, referee.reset(empty, PlayerColor.WHITE));
+        assertEquals(GameReferee.Reason.NO_PIECE, referee.getReason());
+
+        start("W:W32:B27");
+        assertEquals(GameOutcome.WHITE_WIN, play(find(32, 21)));
+        assertEquals(GameReferee.Reason.NO_PIECE, referee.getReason());
+    }
+
+    @Test
+    void noMoveIsALoss() {
+        BitBoard blocked = parse("W:W36:B31,27");
+        assertEquals(GameReferee.Reason.NO_MOVE, GameReferee.lossOf(blocked, PlayerColor.WHITE));
+        assertEquals(GameReferee.Reason.NONE, GameReferee.lossOf(blocked, PlayerColor.BLACK));
+        assertEquals(GameOutcome.BLACK_WIN, referee.reset(blocked, PlayerColor.WHITE));
+        assertEquals(GameReferee.Reason.NO_MOVE, referee.getReason());
+
+        start("B:W36:B31,22");
+        assertEquals(GameOutcome.BLACK_WIN, play(find(22, 27)));
+        assertEquals(GameReferee.Reason.NO_MOVE, referee.getReason());
+    }
+
+    @Test
+    void undoAfterTheEndOfTheGame() {
+        BitBoard start = parse("B:W32:B22");
+        Game game = new Game(new Player("Black", PlayerColor.BLACK), new Player("White", PlayerColor.WHITE),
+                new GameSnapshot(start.getWhite(), start.getBlack(), start.getLadies(),
+                        start.constraints(PlayerColor.BLACK), -1, PlayerColor.BLACK));
+        List<PropertyChangeEvent> events = new ArrayList<>();
+        game.addPropertyChangeListener(evt -> {
+            if (evt.getPropertyName().equals(Game.OUTCOME_CHANGED)) {
+                events.add(evt);
+            }
+        });
+        position = start;
+        pColor = PlayerColor.BLACK;
+        game.playMove(find(22, 27));
+        position.makeMove(find(22, 27));
+        pColor = PlayerColor.WHITE;
+        game.playMove(find(32, 21));
+        assertTrue(game.isOver());
+        assertEquals(GameOutcome.WHITE_WIN, game.getOutcome());
+        assertEquals(1, events.size());
+
+        assertTrue(game.undo());
+        assertEquals(GameOutcome.UNKNOWN, game.getOutcome());
+        assertEquals(GameReferee.Reason.NONE, game.getOutcomeReason());
+        assertEquals(2, events.size());
+        assertEquals(GameOutcome.WHITE_WIN, events.get(1).getOldValue());
+        assertEquals(GameOutcome.UNKNOWN, events.get(1).getNewValue());
+
+        // The outcome doesn't change when going back to a position where the game goes on.
+        assertTrue(game.undo());
+        assertEquals(GameOutcome.UNKNOWN, game.getOutcome());
+        assertEquals(2, events.size());
+
+        assertTrue(game.redo());
+        assertTrue(game.redo());
+        assertEquals(GameOutcome.WHITE_WIN, game.getOutcome());
+        assertEquals(GameReferee.Reason.NO_PIECE, game.getOutcomeReason());
+        assertEquals(3, events.size());
+    }
+}
@@ -0,0 +1,167 @@
+package model.bitboard;
+
+import model.Board;
+import model.BoardFactory.BoardFactoryImpl;
+import model.BoardFactory.BoardTest.BoardFactoryLadyTest;
+import model.BoardFactory.BoardTest.BoardFactoryMultipleChoiceRaid;
+import model.enums.CaseType;
+import model.enums.PlayerColor;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Rules of the move generation, on the positions of the test boards. The tiles are written with the international
+ * numbering (1 to 50).
+ */
+class MoveGeneratorTest {
+
+    private static int tile(int number) {
+        return number - 1;
+    }
+
+    /**
+     * Write the moves of a list with all their landing tiles, like "28x17x6".
+     */
+    private static Set<String> notations(BitBoard position, MoveList moves) {
+        Set<String> notations = new TreeSet<>();
+        for (int i = 0; i < moves.size(); i++) {
+            long move = moves.get(i);
+            StringBuilder builder = new StringBuilder().append(Move.from(move) + 1);
+            if (Move.isCapture(move)) {
+                for (int square : MoveGenerator.path(position, move)) {
+                    builder.append('x').append(square + 1);
+                }
+            } else {
+                builder.append('-').append(Move.to(move) + 1);
+            }
+            notations.add(builder.toString());
+        }
+        return notations;
+    }
+
+    @Test
+    void initialSlides() {
+        Board board = new Board(new BoardFactoryImpl());
+        MoveList moves = board.generateLegalMoves(PlayerColor.WHITE);
+        assertEquals(Set.of("31-26", "31-27", "32-27", "32-28", "33-28", "33-29", "34-29", "34-30", "35-30"),
+                notations(board.getPosition(), moves));
+        assertEquals(9, board.generateLegalMoves(PlayerColor.BLACK).size());
+    }
+
+    @Test
+    void takeIsMandatory() {
+        Board board = new Board(new BoardFactoryMultipleChoiceRaid());
+        MoveList moves = board.generateLegalMoves(PlayerColor.WHITE);
+        assertEquals(3, moves.size());
+        for (int i = 0; i < moves.size(); i++) {
+            assertTrue(Move.isCapture(moves.get(i)), Move.toString(moves.get(i)) + " must be a take");
+        }
+    }
+
+    @Test
+    void multiJumpRaids() {
+        BitBoard position = new Board(new BoardFactoryMultipleChoiceRaid()).getPosition();
+        MoveList moves = new MoveList();
+        MoveGenerator.generate(position, PlayerColor.WHITE, moves);
+        // The raid goes on as long as the pawn can take, but a shorter raid from the same pawn is also legal.
+        assertEquals(Set.of("28x17x6", "28x19", "29x18x27"), notations(position, moves));
+        for (int i = 0; i < moves.size(); i++) {
+            long move = moves.get(i);
+            assertEquals(MoveGenerator.path(position, move).length, Long.bitCount(Move.taken(move)));
+        }
+    }
+
+    @Test
+    void raidSquareRestrictsToThePawnInRaid() {
+        BitBoard position = new Board(new BoardFactoryMultipleChoiceRaid()).getPosition();
+        MoveList moves = new MoveList();
+        MoveGenerator.generate(position, PlayerColor.WHITE, tile(29), moves);
+        assertEquals(Set.of("29x18x27"), notations(position, moves));
+    }
+
+    @Test
+    void ladyLongRangeTakes() {
+        BitBoard position = new Board(new BoardFactoryLadyTest()).getPosition();
+        MoveList moves = new MoveList();
+        MoveGenerator.generate(position, PlayerColor.WHITE, moves);
+        assertEquals(8, moves.size());
+        int[] destinations = new int[moves.size()];
+        for (int i = 0; i < moves.size(); i++) {
+            long move = moves.get(i);
+            assertEquals(tile(28), Move.from(move));
+            assertTrue(Move.isCapture(move));
+            destinations[i] = Move.to(move) + 1;
+        }
+        Arrays.sort(destinations);
+        assertArrayEquals(new int[]{5, 6, 11, 37, 41, 44, 46, 50}, destinations);
+    }
+
+    @Test
+    void ladyCantJumpItsOwnPieces() {
+        BitBoard position = new BitBoard();
+        position.set(tile(28), CaseType.WHITE_LADY);
+        position.set(tile(33), CaseType.WHITE_PAWN);
+        position.set(tile(39), CaseType.BLACK_PAWN);
+        MoveList moves = new MoveList();
+        MoveGenerator.generate(position, PlayerColor.WHITE, moves);
+        for (int i = 0; i < moves.size(); i++) {
+            long move = moves.get(i);
+            // The pawn can take, the lady can't jump over it.
+            assertFalse(Move.from(move) == tile(28) && Move.isCapture(move), Move.toString(move));
+        }
+        assertEquals(Set.of("33x44"), notations(position, moves));
+    }
+
+    @Test
+    void ladySlidesAlongTheDiagonals() {
+        BitBoard position = new BitBoard();
+        position.set(tile(28), CaseType.WHITE_LADY);
+        MoveList moves = new MoveList();
+        MoveGenerator.generate(position, PlayerColor.WHITE, moves);
+        int expected = 0;
+        for (int d = 0; d < 4; d++) {
+            expected += BitBoard.raySquares(d, tile(28)).length;
+        }
+        assertEquals(expected, moves.size());
+        assertEquals(17, moves.size());
+    }
+
+    @Test
+    void hasMovesOfBlockedPawn() {
+        BitBoard position = new BitBoard();
+        position.set(tile(36), CaseType.WHITE_PAWN);
+        position.set(tile(31), CaseType.BLACK_PAWN);
+        position.set(tile(27), CaseType.BLACK_PAWN);
+        assertFalse(MoveGenerator.hasMoves(position, PlayerColor.WHITE));
+        assertTrue(MoveGenerator.hasMoves(position, PlayerColor.BLACK));
+        assertFalse(MoveGenerator.hasMoves(new BitBoard(), PlayerColor.WHITE));
+    }
+
+    @Test
+    void hasMovesMatchesTheGeneration() {
+        Random random = new Random(7);
+        MoveList moves = new MoveList();
+        for (int game = 0; game < 200; game++) {
+            BitBoard position = new BitBoard(new Board(new BoardFactoryImpl()).getPosition());
+            PlayerColor pColor = PlayerColor.WHITE;
+            for (int ply = 0; ply < 200; ply++) {
+                MoveGenerator.generate(position, pColor, moves);
+                assertEquals(!moves.isEmpty(), MoveGenerator.hasMoves(position, pColor));
+                if (moves.isEmpty()) {
+                    break;
+                }
+                position.makeMove(moves.get(random.nextInt(moves.size())));
+                pColor = pColor == PlayerColor.WHITE ? PlayerColor.BLACK : PlayerColor.WHITE;
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package model.bitboard;
+
+import model.Board;
+import model.BoardFactory.BoardFactory;
+import model.BoardFactory.BoardFactoryImpl;
+import model.BoardFactory.BoardTest.BoardFactoryLadyTest;
+import model.BoardFactory.BoardTest.BoardFactoryMultipleChoiceRaid;
+import model.enums.PlayerColor;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Reference counts of the move tree: any change in the rules of the move generation changes them.
+ */
+class PerftTest {
+
+    private static BitBoard positionOf(BoardFactory factory) {
+        return new BitBoard(new Board(factory).getPosition());
+    }
+
+    private static void assertPerft(BoardFactory factory, long... expected) {
+        BitBoard position = positionOf(factory);
+        long key = position.getKey();
+        for (int depth = 1; depth <= expected.length; depth++) {
+            assertEquals(expected[depth - 1], Perft.perft(position, PlayerColor.WHITE, depth), "depth " + depth);
+        }
+        assertEquals(key, position.getKey(), "the position must be restored");
+    }
+
+    @Test
+    void initialPosition() {
+        assertPerft(new BoardFactoryImpl(), 9, 81, 658, 4265, 27132, 168316, 1060829);
+    }
+
+    @Test
+    void multipleChoiceRaid() {
+        assertPerft(new BoardFactoryMultipleChoiceRaid(), 3, 7, 25, 67, 208, 673);
+    }
+
+    @Test
+    void ladyTest() {
+        assertPerft(new BoardFactoryLadyTest(), 8, 40, 408, 1942, 19110, 95858);
+    }
+
+    @Test
+    void divideKeepsTheRaidsApart() {
+        BitBoard position = positionOf(new BoardFactoryMultipleChoiceRaid());
+        Map<Long, Long> divide = Perft.divide(position, PlayerColor.WHITE, 5);
+        assertEquals(3, divide.size());
+        assertEquals(208L, divide.values().stream().mapToLong(Long::longValue).sum());
+    }
+
+    @Test
+    void divideSumsToPerft() {
+        BitBoard position = positionOf(new BoardFactoryImpl());
+        Map<Long, Long> divide = Perft.divide(position, PlayerColor.WHITE, 5);
+        assertEquals(9, divide.size());
+        assertEquals(27132L, divide.values().stream().mapToLong(Long::longValue).sum());
+    }
+}
@@ -0,0 +1,136 @@
+package model.io;
+
+import model.Board;
+import model.BoardFactory.BoardFactoryImpl;
+import model.bitboard.BitBoard;
+import model.bitboard.Move;
+import model.bitboard.MoveGenerator;
+import model.bitboard.MoveList;
+import model.enums.GameOutcome;
+import model.enums.PlayerColor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Round trip of the binary game records.
+ */
+class GameRecordTest {
+
+    /**
+     * A position where a white lady has 28 raids with the same start and destination (found by a random search).
+     */
+    private static final GameRecord MANY_RAIDS = new GameRecord(68719607808L, 565151668383984L, 563018673029120L,
+            PlayerColor.WHITE, GameOutcome.UNKNOWN, new short[0]);
+
+    @TempDir
+    Path directory;
+
+    /**
+     * A recorded game and its complete moves.
+     */
+    private record PlayedGame(GameRecord record, long[] moves) {
+    }
+
+    private static PlayedGame play(BitBoard start, PlayerColor first, GameOutcome outcome, int maxPlies, long seed) {
+        Random random = new Random(seed);
+        GameRecorder recorder = new GameRecorder(start, first);
+        BitBoard position = new BitBoard(start);
+        PlayerColor pColor = first;
+        MoveList moves = new MoveList();
+        List<Long> played = new ArrayList<>();
+        for (int ply = 0; ply < maxPlies; ply++) {
+            MoveGenerator.generate(position, pColor, moves);
+            if (moves.isEmpty()) {
+                break;
+            }
+            long move = moves.get(random.nextInt(moves.size()));
+            recorder.play(move);
+            position.makeMove(move);
+            played.add(move);
+            pColor = pColor == PlayerColor.WHITE ? PlayerColor.BLACK : PlayerColor.WHITE;
+        }
+        return new PlayedGame(recorder.toRecord(outcome), played.stream().mapToLong(Long::longValue).toArray());
+    }
+
+    private static void assertSameGame(PlayedGame expected, GameRecord actual) {
+        GameRecord record = expected.record();
+        assertEquals(record.getWhite(), actual.getWhite());
+        assertEquals(record.getBlack(), actual.getBlack());
+        assertEquals(record.getLadies(), actual.getLadies());
+        assertEquals(record.getSideToMove(), actual.getSideToMove());
+        assertEquals(record.getOutcome(), actual.getOutcome());
+        assertArrayEquals(record.getMoves(), actual.getMoves());
+        assertArrayEquals(expected.moves(), actual.decodeMoves());
+    }
+
+    @Test
+    void roundTripWithAppend() throws IOException {
+        BitBoard initial = new Board(new BoardFactoryImpl()).getPosition();
+        BitBoard ladies = MANY_RAIDS.getStartPosition();
+        List<PlayedGame> games = List.of(
+                play(initial, PlayerColor.WHITE, GameOutcome.WHITE_WIN, 200, 1),
+                play(initial, PlayerColor.WHITE, GameOutcome.BLACK_WIN, 200, 2),
+                play(ladies, PlayerColor.WHITE, GameOutcome.DRAW, 60, 3),
+                play(ladies, PlayerColor.BLACK, GameOutcome.UNKNOWN, 60, 4),
+                play(initial, PlayerColor.WHITE, GameOutcome.UNKNOWN, 0, 5));
+        assertTrue(games.get(0).record().isInitialPosition());
+        assertFalse(games.get(2).record().isInitialPosition());
+
+        Path path = directory.resolve("games.jdr");
+        try (var writer = new GameRecordWriter(path)) {
+            writer.write(games.get(0).record());
+            writer.write(games.get(1).record());
+            writer.write(games.get(2).record());
+        }
+        // A second writer adds the games at the end of the file.
+        try (var writer = new GameRecordWriter(path)) {
+            writer.write(games.get(3).record());
+            writer.write(games.get(4).record());
+        }
+
+        try (var reader = new GameRecordReader(path)) {
+            for (PlayedGame game : games) {
+                assertSameGame(game, reader.read());
+            }
+            assertNull(reader.read());
+        }
+    }
+
+    @Test
+    void recorderRejectsTooManyRaids() {
+        BitBoard position = MANY_RAIDS.getStartPosition();
+        MoveList moves = new MoveList();
+        MoveGenerator.generate(position, PlayerColor.WHITE, moves);
+        Map<Integer, List<Long>> raids = new HashMap<>();
+        for (int i = 0; i < moves.size(); i++) {
+            long move = moves.get(i);
+            raids.computeIfAbsent(Move.from(move) * BitBoard.SIZE + Move.to(move), k -> new ArrayList<>()).add(move);
+        }
+        List<Long> same = raids.values().stream().max((a, b) -> a.size() - b.size()).orElseThrow();
+        assertTrue(same.size() > 16);
+
+        // The 16th raid is the last one which can be packed.
+        GameRecorder recorder = new GameRecorder(position, PlayerColor.WHITE);
+        recorder.play(same.get(15));
+        assertEquals(1, recorder.toRecord(GameOutcome.UNKNOWN).getMoves().length);
+
+        GameRecorder rejected = new GameRecorder(position, PlayerColor.WHITE);
+        assertThrows(IllegalArgumentException.class, () -> rejected.play(same.get(16)));
+        assertEquals(0, rejected.toRecord(GameOutcome.UNKNOWN).getMoves().length);
+    }
+}
@@ -0,0 +1,211 @@
+package model.io;
+
+import model.bitboard.BitBoard;
+import model.bitboard.Move;
+import model.bitboard.MoveGenerator;
+import model.bitboard.MoveList;
+import model.enums.CaseType;
+import model.enums.GameOutcome;
+import model.enums.PlayerColor;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Reading and writing of the PDN files.
+ */
+class PdnTest {
+
+    /**
+     * A position where the white pawn of 14 can take 20 (14x25), or 9 and then 20 (14x3x25).
+     */
+    private static final String AMBIGUOUS_FEN = "W:W14,30,34,40,48,49:B9,12,15,20,K33";
+
+    private static PdnGame readOne(String text) throws IOException {
+        try (var reader = new PdnReader(new StringReader(text))) {
+            PdnGame game = reader.read();
+            assertNotNull(game);
+            assertNull(reader.read());
+            return game;
+        }
+    }
+
+    private static String write(List<PdnGame> games) throws IOException {
+        StringWriter out = new StringWriter();
+        try (var writer = new PdnWriter(out)) {
+            for (PdnGame game : games) {
+                writer.write(game);
+            }
+        }
+        return out.toString();
+    }
+
+    private static List<Long> movesOf(PdnGame game) {
+        List<Long> moves = new ArrayList<>();
+        for (int i = 0; i < game.getMoves().size(); i++) {
+            moves.add(game.getMoves().get(i));
+        }
+        return moves;
+    }
+
+    @Test
+    void fenWithRangesAndLadies() throws IOException {
+        PdnGame game = readOne("[FEN \"B:W31-35,K46:B1-3,K10\"]\n*\n");
+        BitBoard position = game.getStartPosition();
+        assertEquals(PlayerColor.BLACK, game.getFirstPlayer());
+        for (int number = 31; number <= 35; number++) {
+            assertEquals(CaseType.WHITE_PAWN, position.get(number - 1));
+        }
+        assertEquals(CaseType.WHITE_LADY, position.get(45));
+        for (int number = 1; number <= 3; number++) {
+            assertEquals(CaseType.BLACK_PAWN, position.get(number - 1));
+        }
+        assertEquals(CaseType.BLACK_LADY, position.get(9));
+        assertEquals(10, Long.bitCount(position.getWhite() | position.getBlack()));
+        assertEquals("B:W31,32,33,34,35,K46:B1,2,3,K10", PdnWriter.toFen(position, game.getFirstPlayer()));
+    }
+
+    @Test
+    void invalidFen() {
+        assertThrows(PdnException.class, () -> readOne("[FEN \"W:W51:B1\"]\n*\n"));
+        assertThrows(PdnException.class, () -> readOne("[FEN \"X:W31:B1\"]\n*\n"));
+    }
+
+    @Test
+    void results() throws IOException {
+        assertEquals(GameOutcome.WHITE_WIN, readOne("1. 32-28 2-0\n").getOutcome());
+        assertEquals(GameOutcome.BLACK_WIN, readOne("1. 32-28 0-2\n").getOutcome());
+        assertEquals(GameOutcome.DRAW, readOne("1. 32-28 1-1\n").getOutcome());
+        assertEquals(GameOutcome.WHITE_WIN, readOne("1. 32-28 1-0\n").getOutcome());
+        assertEquals(GameOutcome.BLACK_WIN, readOne("1. 32-28 0-1\n").getOutcome());
+        assertEquals(GameOutcome.DRAW, readOne("1. 32-28 1/2-1/2\n").getOutcome());
+        assertEquals(GameOutcome.UNKNOWN, readOne("1. 32-28 *\n").getOutcome());
+        assertEquals(GameOutcome.BLACK_WIN, readOne("[Result \"0-2\"]\n1. 32-28\n").getOutcome());
+    }
+
+    @Test
+    void commentsVariationsAndAnnotationsAreSkipped() throws IOException {
+        PdnGame game = readOne("""
+                [Event "Test"]
+                {A comment before the moves}
+                1. 32-28! {a comment} 19-23?
+                (1... 18-23 (2. 33-29 {nested}) 2. 31-27)
+                ; a line comment 1. 99-98
+                2. 28x19 $3 14x23 !? % another line comment
+                3. 33-29 * 
+                """);
+        assertEquals("Test", game.getTag("Event"));
+        List<String> moves = new ArrayList<>();
+        for (long move : movesOf(game)) {
+            moves.add(Move.toString(move));
+        }
+        assertEquals(List.of("32-28", "19-23", "28x19", "14x23", "33-29"), moves);
+        assertEquals(GameOutcome.UNKNOWN, game.getOutcome());
+    }
+
+    @Test
+    void ambiguousCapturesAreWrittenWithSteps() throws IOException {
+        PdnGame tags = readOne("[FEN \"" + AMBIGUOUS_FEN + "\"]\n*\n");
+        BitBoard position = tags.getStartPosition();
+        MoveList legalMoves = new MoveList();
+        MoveGenerator.generate(position, PlayerColor.WHITE, legalMoves);
+        List<PdnGame> games = new ArrayList<>();
+        for (int i = 0; i < legalMoves.size(); i++) {
+            long move = legalMoves.get(i);
+            if (Move.from(move) == 13 && Move.to(move) == 24) {
+                PdnGame game = new PdnGame(position, PlayerColor.WHITE);
+                game.getMoves().add(move);
+                games.add(game);
+            }
+        }
+        assertEquals(2, games.size());
+
+        String text = write(games);
+        assertTrue(text.contains("1. 14x25 *"), text);
+        assertTrue(text.contains("1. 14x3x25 *"), text);
+        try (var reader = new PdnReader(new StringReader(text))) {
+            for (PdnGame game : games) {
+                assertEquals(movesOf(game), movesOf(reader.read()));
+            }
+            assertNull(reader.read());
+        }
+    }
+
+    @Test
+    void errorRecoveryAfterAnInvalidGame() throws IOException {
+        String text = """
+                [Event "First"]
+                1. 32-28 19-23 2-0
+
+                [Event "Illegal"]
+                1. 32-28 {a comment with [brackets]} 28-22 2-0
+
+                [Event "Type"]
+                [GameType "21"]
+                1. 32-28 *
+
+                [Event "Last"]
+                1. 31-27 0-2
+                """;
+        try (var reader = new PdnReader(new StringReader(text))) {
+            assertEquals("First", reader.read().getTag("Event"));
+            PdnException illegal = assertThrows(PdnException.class, reader::read);
+            assertEquals(5, illegal.getLine());
+            assertThrows(PdnException.class, reader::read);
+            PdnGame last = reader.read();
+            assertEquals("Last", last.getTag("Event"));
+            assertEquals(GameOutcome.BLACK_WIN, last.getOutcome());
+            assertEquals(1, last.getMoves().size());
+            assertNull(reader.read());
+        }
+    }
+
+    @Test
+    void randomGamesRoundTrip() throws IOException {
+        Random random = new Random(11);
+        MoveList legalMoves = new MoveList();
+        GameOutcome[] outcomes = GameOutcome.values();
+        List<PdnGame> games = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            PdnGame start = i % 3 == 0 ? readOne("[FEN \"" + AMBIGUOUS_FEN + "\"]\n*\n") : readOne("*\n");
+            PdnGame game = new PdnGame(start.getStartPosition(), start.getFirstPlayer());
+            BitBoard position = game.getStartPosition();
+            PlayerColor pColor = game.getFirstPlayer();
+            for (int ply = 0; ply < 150; ply++) {
+                MoveGenerator.generate(position, pColor, legalMoves);
+                if (legalMoves.isEmpty()) {
+                    break;
+                }
+                long move = legalMoves.get(random.nextInt(legalMoves.size()));
+                game.getMoves().add(move);
+                position.makeMove(move);
+                pColor = pColor == PlayerColor.WHITE ? PlayerColor.BLACK : PlayerColor.WHITE;
+            }
+            game.setOutcome(outcomes[i % outcomes.length]);
+            game.setTag("Round", String.valueOf(i));
+            games.add(game);
+        }
+        try (var reader = new PdnReader(new StringReader(write(games)))) {
+            for (PdnGame game : games) {
+                PdnGame read = reader.read();
+                assertEquals(game.getTag("Round"), read.getTag("Round"));
+                assertEquals(PdnWriter.toFen(game.getStartPosition(), game.getFirstPlayer()),
+                        PdnWriter.toFen(read.getStartPosition(), read.getFirstPlayer()));
+                assertEquals(game.getOutcome(), read.getOutcome());
+                assertEquals(movesOf(game), movesOf(read));
+            }
+            assertNull(reader.read());
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package server;
+
+import model.Game;
+import model.GameSnapshot;
+import model.Player;
+import model.bitboard.BitBoard;
+import model.bitboard.Move;
+import model.bitboard.MoveGenerator;
+import model.bitboard.MoveList;
+import model.enums.CaseType;
+import model.enums.PlayerColor;
+import model.io.PdnReader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Moves written with their steps, and the order of the requests submitted to a session from many threads. The tiles
+ * of the notations are PDN tiles (1 to 50).
+ */
+class GameSessionTest {
+
+    /**
+     * A position where the white pawn of 14 can take 20 (14x25), or 9 and then 20 (14x3x25).
+     */
+    private static final String AMBIGUOUS_FEN = "W:W14,30,34,40,48,49:B9,12,15,20,K33";
+
+    /**
+     * A position where a white lady has 28 raids with the same start and destination (see the game record tests).
+     */
+    private static final GameSnapshot MANY_RAIDS = snapshotOf(68719607808L, 565151668383984L, 563018673029120L);
+
+    private final SessionRegistry registry = new SessionRegistry(4);
+
+    @AfterEach
+    void closeRegistry() {
+        registry.close();
+    }
+
+    private static GameSnapshot snapshotOf(long white, long black, long ladies) {
+        BitBoard position = new GameSnapshot(white, black, ladies, 0, -1, PlayerColor.WHITE).toBitBoard();
+        return new GameSnapshot(white, black, ladies, position.constraints(PlayerColor.WHITE), -1, PlayerColor.WHITE);
+    }
+
+    private static GameSnapshot parse(String fen) throws IOException {
+        try (var reader = new PdnReader(new StringReader("[FEN \"" + fen + "\"]\n*\n"))) {
+            BitBoard position = reader.read().getStartPosition();
+            return snapshotOf(position.getWhite(), position.getBlack(), position.getLadies());
+        }
+    }
+
+    private GameSession sessionAt(GameSnapshot snapshot) {
+        GameSession session = registry.create("Black", "White");
+        session.submit(g -> {
+            g.restore(snapshot);
+            return null;
+        }).join();
+        return session;
+    }
+
+    private static Throwable failureOf(CompletableFuture<?> future) {
+        CompletionException e = assertThrows(CompletionException.class, future::join);
+        return e.getCause();
+    }
+
+    @Test
+    void twoTilesPlayTheSingleTake() throws IOException {
+        SessionState state = sessionAt(parse(AMBIGUOUS_FEN)).move("14x25").join();
+        assertEquals(CaseType.WHITE_PAWN, state.snapshot().get(24));
+        assertEquals(CaseType.EMPTY, state.snapshot().get(19));
+        assertEquals(CaseType.BLACK_PAWN, state.snapshot().get(8));
+        assertEquals(PlayerColor.BLACK, state.toMove());
+    }
+
+    @Test
+    void allTheStepsPlayTheLongerRaid() throws IOException {
+        SessionState state = sessionAt(parse(AMBIGUOUS_FEN)).move("14x3x25").join();
+        // The pawn became a lady when it landed on 3, during the raid.
+        assertEquals(CaseType.WHITE_LADY, state.snapshot().get(24));
+        assertEquals(CaseType.EMPTY, state.snapshot().get(19));
+        assertEquals(CaseType.EMPTY, state.snapshot().get(8));
+    }
+
+    @Test
+    void wrongStepsAreIllegal() throws IOException {
+        GameSession session = sessionAt(parse(AMBIGUOUS_FEN));
+        assertInstanceOf(IllegalArgumentException.class, failureOf(session.move("14x5x25")));
+        assertInstanceOf(IllegalArgumentException.class, failureOf(session.move("14-10")));
+        assertInstanceOf(IllegalArgumentException.class, failureOf(session.move("14")));
+        assertInstanceOf(IllegalArgumentException.class, failureOf(session.move("14x51")));
+        assertInstanceOf(IllegalArgumentException.class, failureOf(session.move("a-b")));
+        // The failed requests didn't change the game.
+        assertEquals(parse(AMBIGUOUS_FEN), session.getState().join().snapshot());
+    }
+
+    @Test
+    void twoTilesOfSeveralRaidsAreAmbiguous() {
+        GameSession session = sessionAt(MANY_RAIDS);
+        BitBoard position = MANY_RAIDS.toBitBoard();
+        MoveList moves = new MoveList();
+        MoveGenerator.generate(position, PlayerColor.WHITE, moves);
+        long move = moves.get(0);
+        int raids = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            long other = moves.get(i);
+            if (Move.from(other) == Move.from(move) && Move.to(other) == Move.to(move)) {
+                assertTrue(Long.bitCount(Move.taken(other)) > 1);
+                raids++;
+            }
+        }
+        assertTrue(raids > 1);
+
+        Throwable failure = failureOf(session.move(new int[] {Move.from(move), Move.to(move)}));
+        assertInstanceOf(IllegalArgumentException.class, failure);
+        assertTrue(failure.getMessage().startsWith("Ambiguous move"), failure.getMessage());
+
+        int[] path = MoveGenerator.path(position, move);
+        int[] steps = new int[path.length + 1];
+        steps[0] = Move.from(move);
+        System.arraycopy(path, 0, steps, 1, path.length);
+        SessionState state = session.move(steps).join();
+        position.makeMove(move);
+        assertEquals(position.getWhite(), state.snapshot().getWhite());
+        assertEquals(position.getBlack(), state.snapshot().getBlack());
+    }
+
+    @Test
+    void concurrentRequestsAreAppliedInOrder() throws InterruptedException {
+        // The states of a random game, played locally.
+        Game local = new Game(new Player("Black", PlayerColor.BLACK), new Player("White", PlayerColor.WHITE));
+        List<GameSnapshot> states = new ArrayList<>();
+        List<int[]> steps = new ArrayList<>();
+        states.add(local.snapshot());
+        Random random = new Random(9);
+        for (int ply = 0; ply < 60 && !local.isOver(); ply++) {
+            MoveList moves = local.getBoard().generateLegalMoves(local.getCurrentPlayer().getColor());
+            long move = moves.get(random.nextInt(moves.size()));
+            int[] path = MoveGenerator.path(local.getBoard().getPosition(), move);
+            int[] moveSteps = new int[path.length + 1];
+            moveSteps[0] = Move.from(move);
+            System.arraycopy(path, 0, moveSteps, 1, path.length);
+            steps.add(moveSteps);
+            local.playMove(move);
+            states.add(local.snapshot());
+        }
+
+        GameSession session = registry.create("Black", "White");
+        AtomicInteger running = new AtomicInteger();
+        AtomicReference<String> failure = new AtomicReference<>();
+        CountDownLatch ready = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        List<CompletableFuture<SessionState>> played = new ArrayList<>();
+        threads.add(new Thread(() -> {
+            await(ready);
+            for (int[] moveSteps : steps) {
+                played.add(session.move(moveSteps));
+            }
+        }));
+        for (int t = 0; t < 3; t++) {
+            int posX = t;
+            threads.add(new Thread(() -> {
+                await(ready);
+                List<CompletableFuture<Integer>> plies = new ArrayList<>();
+                for (int i = 0; i < 300; i++) {
+                    // Check that no other request of the session runs at the same time.
+                    plies.add(session.submit(g -> {
+                        if (running.incrementAndGet() != 1) {
+                            failure.compareAndSet(null, "Two requests at the same time");
+                        }
+                        int ply = states.indexOf(g.snapshot());
+                        running.decrementAndGet();
+                        return ply;
+                    }));
+                    // A click on a light tile, which changes nothing.
+                    plies.add(session.click(posX, posX).thenApply(state -> states.indexOf(state.snapshot())));
+                }
+                int last = 0;
+                for (CompletableFuture<Integer> future : plies) {
+                    int ply = future.join();
+                    if (ply < last) {
+                        failure.compareAndSet(null, "Ply " + ply + " seen after ply " + last);
+                    }
+                    last = ply;
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        ready.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertNull(failure.get());
+        for (int i = 0; i < played.size(); i++) {
+            assertEquals(states.get(i + 1), played.get(i).join().snapshot(), "ply " + (i + 1));
+        }
+        assertEquals(states.get(states.size() - 1), session.getState().join().snapshot());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
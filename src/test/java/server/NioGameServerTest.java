@@ -0,0 +1,191 @@
+package server;
+
+import model.bitboard.BitBoard;
+import model.bitboard.Move;
+import model.bitboard.MoveGenerator;
+import model.bitboard.MoveList;
+import model.enums.GameOutcome;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.time.Duration;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The binary protocol over the loopback address, with a server on a free port and {@link GameClient}.
+ */
+class NioGameServerTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    private SessionRegistry registry;
+
+    private NioGameServer server;
+
+    private Thread serverThread;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        registry = new SessionRegistry(2);
+        server = new NioGameServer(0, registry);
+        serverThread = new Thread(server::serve, "test-game-server");
+        serverThread.start();
+    }
+
+    @AfterEach
+    void stopServer() throws IOException, InterruptedException {
+        server.close();
+        serverThread.join(TIMEOUT.toMillis());
+        registry.close();
+    }
+
+    /**
+     * Get the steps of a random legal move of a state (the start tile, then the landing tiles).
+     */
+    private static int[] randomMove(SessionState state, Random random, MoveList moves) {
+        BitBoard position = state.snapshot().toBitBoard();
+        MoveGenerator.generate(position, state.toMove(), moves);
+        long move = moves.get(random.nextInt(moves.size()));
+        int[] path = MoveGenerator.path(position, move);
+        int[] steps = new int[path.length + 1];
+        steps[0] = Move.from(move);
+        System.arraycopy(path, 0, steps, 1, path.length);
+        return steps;
+    }
+
+    @Test
+    void observerRebuildsTheGameFromTheDeltas() {
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+            try (var player = new GameClient(server.getPort()); var observer = new GameClient(server.getPort())) {
+                long id = player.newGame();
+                assertNotNull(registry.get(id));
+                GameClient.ObservedGame view = new GameClient.ObservedGame(observer.observe(id));
+                SessionState state = player.state(id);
+                assertTrue(view.matches(state));
+
+                Random random = new Random(7);
+                MoveList moves = new MoveList();
+                for (int ply = 0; ply < 60 && state.outcome() == GameOutcome.UNKNOWN; ply++) {
+                    state = player.move(id, randomMove(state, random, moves));
+                    GameClient.Frame frame = observer.read();
+                    assertEquals(BinaryProtocol.DELTA, frame.type());
+                    assertEquals(0, frame.requestId());
+                    view.apply(BinaryProtocol.readDelta(frame.body()));
+                    assertTrue(view.matches(state), "ply " + ply);
+                }
+                assertTrue(view.matches(observer.state(id)));
+            }
+        });
+    }
+
+    @Test
+    void illegalMoveIsAnError() {
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+            try (var player = new GameClient(server.getPort())) {
+                long id = player.newGame();
+                SessionState before = player.state(id);
+                // A white pawn can't go back.
+                int requestId = player.send(BinaryProtocol.MOVE, id, GameClient.stepsOf(30, 35));
+                GameClient.Frame frame = player.read();
+                assertEquals(BinaryProtocol.ERROR, frame.type());
+                assertEquals(requestId, frame.requestId());
+                assertTrue(BinaryProtocol.readError(frame.body()).length() > 0);
+
+                assertEquals(before.snapshot(), player.state(id).snapshot());
+                assertThrows(IllegalStateException.class, () -> player.state(id + 1000));
+            }
+        });
+    }
+
+    @Test
+    void oversizedFrameDisconnects() {
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+            try (var channel = SocketChannel.open(
+                    new InetSocketAddress(InetAddress.getLoopbackAddress(), server.getPort()))) {
+                ByteBuffer frame = ByteBuffer.allocate(Integer.BYTES + BinaryProtocol.HEADER_SIZE)
+                        .putInt(BinaryProtocol.MAX_REQUEST + 1).put(BinaryProtocol.NEW).putInt(1).flip();
+                while (frame.hasRemaining()) {
+                    channel.write(frame);
+                }
+                ByteBuffer input = ByteBuffer.allocate(BinaryProtocol.MAX_RESPONSE);
+                int count;
+                do {
+                    count = channel.read(input.clear());
+                } while (count == 0);
+                assertEquals(-1, count);
+            }
+            // The other connections are still served.
+            try (var player = new GameClient(server.getPort())) {
+                assertNotNull(registry.get(player.newGame()));
+            }
+        });
+    }
+
+    @Test
+    void closeRemovesTheSession() {
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+            try (var player = new GameClient(server.getPort())) {
+                long id = player.newGame();
+                long other = player.newGame();
+                assertEquals(2, registry.size());
+                player.closeGame(id);
+                assertNull(registry.get(id));
+                assertEquals(1, registry.size());
+                assertThrows(IllegalStateException.class, () -> player.state(id));
+                assertThrows(IllegalStateException.class, () -> player.closeGame(id));
+                assertEquals(other, player.state(other).gameId());
+            }
+        });
+    }
+
+    @Test
+    void slowClientIsDisconnected() {
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+            try (var player = new GameClient(server.getPort())) {
+                long id = player.newGame();
+                // Ask for many states without reading them, until the server gives up the connection.
+                boolean isDisconnected = false;
+                try {
+                    for (int i = 0; i < 1_000_000; i++) {
+                        player.send(BinaryProtocol.GET_STATE, id);
+                    }
+                } catch (IOException e) {
+                    isDisconnected = true;
+                }
+                if (!isDisconnected) {
+                    assertThrows(EOFException.class, () -> {
+                        while (true) {
+                            player.read();
+                        }
+                    });
+                }
+            }
+            assertNotNull(registry.get(registry.create("Black", "White").getId()));
+        });
+    }
+
+    @Test
+    void clientSeesTheEndOfTheConnection() {
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+            try (var player = new GameClient(server.getPort())) {
+                player.newGame();
+                server.close();
+                assertThrows(EOFException.class, player::read);
+            }
+        });
+    }
+}